@@ -1,12 +1,20 @@
 # eng-backend/ai-service/app/api/grammar.py
 from fastapi import APIRouter, HTTPException
-from app.models.schemas import GrammarCheckRequest, GrammarCheckResponse
+from app.models.schemas import (
+    GrammarCheckRequest,
+    GrammarCheckResponse,
+    GrammarCheckBatchRequest,
+    GrammarCheckBatchResponse,
+)
 from app.services.grammar_service import grammar_service
+import asyncio
 import logging
 
 logger = logging.getLogger(__name__)
 router = APIRouter(prefix="/grammar", tags=["Grammar"])
 
+MAX_BATCH_SIZE = 64
+
 @router.post("/check", response_model=GrammarCheckResponse)
 async def check_grammar(request: GrammarCheckRequest):
     try:
@@ -14,4 +22,20 @@ async def check_grammar(request: GrammarCheckRequest):
         return response
     except Exception as e:
         logger.error(f"Grammar check endpoint error: {str(e)}", exc_info=True)
-        raise HTTPException(status_code=500, detail="An error occurred while checking grammar.")
\ No newline at end of file
+        raise HTTPException(status_code=500, detail="An error occurred while checking grammar.")
+
+
+@router.post("/check/batch", response_model=GrammarCheckBatchResponse)
+async def check_grammar_batch(request: GrammarCheckBatchRequest):
+    """
+    Check several texts in one call. Results keep the order of the requests.
+    """
+    if len(request.requests) > MAX_BATCH_SIZE:
+        raise HTTPException(status_code=413, detail=f"Batch too large. Maximum size is {MAX_BATCH_SIZE}")
+
+    try:
+        results = await asyncio.gather(*(grammar_service.check_grammar(item) for item in request.requests))
+        return GrammarCheckBatchResponse(results=list(results))
+    except Exception as e:
+        logger.error(f"Grammar batch endpoint error: {str(e)}", exc_info=True)
+        raise HTTPException(status_code=500, detail="An error occurred while checking grammar.")
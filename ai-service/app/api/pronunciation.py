@@ -1,8 +1,16 @@
-from fastapi import APIRouter, HTTPException, Depends, UploadFile, File, Form
+from fastapi import APIRouter, HTTPException, Depends, UploadFile, File, Form, WebSocket, WebSocketDisconnect
 from sqlalchemy.orm import Session
-from app.models import PronunciationRequest, PronunciationResponse
-from app.services.pronunciation_service import pronunciation_service
-from app.db import get_db
+from app.models import (
+    PronunciationRequest,
+    PronunciationResponse,
+    PronunciationBatchRequest,
+    PronunciationBatchItem,
+    PronunciationBatchResponse,
+)
+from app.services.pronunciation_service import pronunciation_service, PronunciationStreamSession
+from app.db import get_db, SessionLocal
+import asyncio
+import json
 import logging
 import os
 import uuid
@@ -11,6 +19,8 @@ logger = logging.getLogger(__name__)
 
 router = APIRouter(prefix="/pronunciation", tags=["Pronunciation"])
 
+MAX_BATCH_SIZE = 16
+
 
 @router.post("/analyze", response_model=PronunciationResponse)
 async def analyze_pronunciation(
@@ -83,3 +93,99 @@ async def analyze_pronunciation(
                 os.remove(temp_audio_path)
             except Exception as cleanup_error:
                 logger.warning(f"Failed to clean up temp file: {cleanup_error}")
+
+
+def _analyze_batch_item(item: PronunciationRequest) -> PronunciationResponse:
+    """
+    Run one batch item on a worker thread with its own DB session: recognition blocks,
+    and a session must not be shared between concurrently running items
+    """
+    db = SessionLocal()
+    try:
+        return asyncio.run(pronunciation_service.analyze_pronunciation(item, db))
+    finally:
+        db.close()
+
+
+@router.post("/analyze/batch", response_model=PronunciationBatchResponse)
+async def analyze_pronunciation_batch(request: PronunciationBatchRequest):
+    """
+    Analyze several already-uploaded recordings in one call.
+    Items run concurrently and each one reports its own result or error, in request
+    order, so the caller only needs to retry the items that actually failed.
+    """
+    if len(request.requests) > MAX_BATCH_SIZE:
+        raise HTTPException(status_code=413, detail=f"Batch too large. Maximum size is {MAX_BATCH_SIZE}")
+
+    outcomes = await asyncio.gather(
+        *(asyncio.to_thread(_analyze_batch_item, item) for item in request.requests),
+        return_exceptions=True
+    )
+
+    results = []
+    for outcome in outcomes:
+        if isinstance(outcome, Exception):
+            logger.error(f"Pronunciation batch item error: {str(outcome)}", exc_info=outcome)
+            results.append(PronunciationBatchItem(error="An error occurred while analyzing pronunciation"))
+        else:
+            results.append(PronunciationBatchItem(result=outcome))
+    return PronunciationBatchResponse(results=results)
+
+
+@router.websocket("/stream")
+async def stream_pronunciation(websocket: WebSocket, db: Session = Depends(get_db)):
+    """
+    Streaming pronunciation assessment
+
+    Protocol:
+    - client -> {"type": "start", "target_text": "...", "user_id": 1}
+    - client -> binary frames of 16 kHz mono PCM16 audio
+    - client -> {"type": "end"}
+    - server -> {"type": "partial", "recognized_text": "...", "word_scores": [...]} while audio arrives
+    - server -> {"type": "final", ...PronunciationResponse} then closes
+    - server -> {"type": "error", "message": "..."} on failure
+    """
+    await websocket.accept()
+    session = None
+
+    try:
+        start = await websocket.receive_json()
+        if start.get("type") != "start" or not start.get("target_text"):
+            await websocket.send_json({"type": "error", "message": "First message must be a start frame with target_text"})
+            await websocket.close(code=1008)
+            return
+
+        session = PronunciationStreamSession(pronunciation_service, start["target_text"], start.get("user_id"))
+
+        while True:
+            message = await websocket.receive()
+            if message["type"] == "websocket.disconnect":
+                return
+
+            if message.get("bytes") is not None:
+                # Recognition is CPU bound, keep it off the event loop
+                partial = await asyncio.to_thread(session.feed, message["bytes"])
+                if partial:
+                    recognized_text, word_scores = partial
+                    await websocket.send_json({
+                        "type": "partial",
+                        "recognized_text": recognized_text,
+                        "word_scores": [ws.dict() for ws in word_scores]
+                    })
+            elif message.get("text") is not None:
+                if json.loads(message["text"]).get("type") == "end":
+                    break
+
+        result = await session.finish(db)
+        await websocket.send_json({"type": "final", **result.dict()})
+        await websocket.close()
+
+    except WebSocketDisconnect:
+        logger.info("Pronunciation stream closed by client")
+    except ValueError as e:
+        await websocket.send_json({"type": "error", "message": str(e)})
+        await websocket.close(code=1009)
+    except Exception as e:
+        logger.error(f"Pronunciation stream error: {str(e)}", exc_info=True)
+        await websocket.send_json({"type": "error", "message": "An error occurred while analyzing pronunciation"})
+        await websocket.close(code=1011)
@@ -9,8 +9,13 @@ __all__ = [
     "GrammarCheckRequest",
     "GrammarCheckResponse",
     "GrammarError",
+    "GrammarCheckBatchRequest",
+    "GrammarCheckBatchResponse",
     "PronunciationRequest",
     "PronunciationResponse",
+    "PronunciationBatchRequest",
+    "PronunciationBatchItem",
+    "PronunciationBatchResponse",
     "WordScore",
     "LearningPathRequest",
     "LearningPathResponse",
@@ -29,6 +29,7 @@ class Message(BaseModel):
 
 class ChatRequest(BaseModel):
     messages: List[Message]
+    summary: Optional[str] = None  # Rolling summary of older turns kept by the backend
     user_id: Optional[int] = None
     max_tokens: Optional[int] = 1000
     temperature: Optional[float] = 0.7
@@ -73,6 +74,14 @@ class GrammarCheckResponse(BaseModel):
     errors: List[GrammarError]
 
 
+class GrammarCheckBatchRequest(BaseModel):
+    requests: List[GrammarCheckRequest]
+
+
+class GrammarCheckBatchResponse(BaseModel):
+    results: List[GrammarCheckResponse]
+
+
 # Pronunciation Analysis
 class PronunciationRequest(BaseModel):
     target_text: str
@@ -96,6 +105,20 @@ class PronunciationResponse(BaseModel):
     feedback: List[str]
 
 
+class PronunciationBatchRequest(BaseModel):
+    requests: List[PronunciationRequest]
+
+
+class PronunciationBatchItem(BaseModel):
+    """Outcome of one batched analysis: a result, or the error that stopped it"""
+    result: Optional[PronunciationResponse] = None
+    error: Optional[str] = None
+
+
+class PronunciationBatchResponse(BaseModel):
+    results: List[PronunciationBatchItem]
+
+
 # Learning Path
 class LearningPathRequest(BaseModel):
     user_id: int
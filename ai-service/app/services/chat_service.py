@@ -24,12 +24,17 @@ class ChatService:
             for msg in request.messages:
                 messages.append({"role": msg.role.value, "content": msg.content})
 
+            # Older turns arrive condensed into a summary instead of the full history
+            system_prompt = self.system_prompt
+            if request.summary:
+                system_prompt = f"{self.system_prompt}\n\nEarlier in this conversation:\n{request.summary}"
+
             # Call Claude API in stream mode
             async with self.client.messages.stream(
                 model=self.model,
                 max_tokens=settings.CLAUDE_MAX_TOKENS,
                 temperature=settings.CLAUDE_TEMPERATURE,
-                system=self.system_prompt,
+                system=system_prompt,
                 messages=messages,
             ) as stream:
                 async for text in stream.text_stream:
@@ -10,6 +10,7 @@ import time
 import wave
 import json
 import os
+import uuid
 from typing import List, Optional, Tuple
 from difflib import SequenceMatcher
 
@@ -376,4 +377,95 @@ class PronunciationService:
             db.rollback()
 
 
+class PronunciationStreamSession:
+    """
+    Incremental recognition for one streamed utterance (16 kHz mono PCM16 chunks)
+
+    Vosk recognizes as audio arrives, so word scores for the part already spoken can be
+    sent back while the learner is still talking. The final result re-runs the full
+    pipeline (Azure -> Whisper -> Vosk) on the complete recording.
+    """
+
+    SAMPLE_RATE = 16000
+    MAX_AUDIO_BYTES = 10 * 1024 * 1024  # same cap as the file upload endpoint
+
+    def __init__(self, service: PronunciationService, target_text: str, user_id: Optional[int] = None):
+        self.service = service
+        self.target_text = target_text
+        self.user_id = user_id
+        self.audio = bytearray()
+        self.committed_text: List[str] = []
+        self.word_timings: List[dict] = []
+        self.last_emitted_words = 0
+
+        self.recognizer = None
+        if service.vosk_model:
+            self.recognizer = KaldiRecognizer(service.vosk_model, self.SAMPLE_RATE)
+            self.recognizer.SetWords(True)
+
+    def feed(self, chunk: bytes) -> Optional[Tuple[str, List[WordScore]]]:
+        """
+        Add a chunk of audio; returns (recognized_text, word_scores) when more words were recognized
+        """
+        if len(self.audio) + len(chunk) > self.MAX_AUDIO_BYTES:
+            raise ValueError("Audio stream too large. Maximum size is 10MB")
+        self.audio.extend(chunk)
+
+        if not self.recognizer:
+            return None
+
+        if self.recognizer.AcceptWaveform(bytes(chunk)):
+            result = json.loads(self.recognizer.Result())
+            if result.get("text"):
+                self.committed_text.append(result["text"])
+            for word_info in result.get("result", []):
+                self.word_timings.append({
+                    "word": word_info.get("word", ""),
+                    "start": word_info.get("start", 0),
+                    "end": word_info.get("end", 0),
+                    "confidence": word_info.get("conf", 0)
+                })
+            recognized = " ".join(self.committed_text)
+        else:
+            partial = json.loads(self.recognizer.PartialResult()).get("partial", "")
+            recognized = " ".join(self.committed_text + ([partial] if partial else []))
+
+        recognized_words = recognized.split()
+        if len(recognized_words) <= self.last_emitted_words:
+            return None
+        self.last_emitted_words = len(recognized_words)
+
+        # Only score the part of the target text the learner has reached
+        spoken_target = " ".join(self.target_text.split()[:len(recognized_words)])
+        return recognized, self.service._calculate_word_scores(spoken_target, recognized, self.word_timings)
+
+    async def finish(self, db: Session = None) -> PronunciationResponse:
+        """
+        Run the full analysis on the complete recording
+        """
+        upload_dir = "temp_audio"
+        os.makedirs(upload_dir, exist_ok=True)
+        temp_audio_path = os.path.join(upload_dir, f"{uuid.uuid4()}.wav")
+
+        try:
+            with wave.open(temp_audio_path, "wb") as wf:
+                wf.setnchannels(1)
+                wf.setsampwidth(2)
+                wf.setframerate(self.SAMPLE_RATE)
+                wf.writeframes(bytes(self.audio))
+
+            request = PronunciationRequest(
+                target_text=self.target_text,
+                audio_path=temp_audio_path,
+                user_id=self.user_id
+            )
+            return await self.service.analyze_pronunciation(request, db)
+        finally:
+            if os.path.exists(temp_audio_path):
+                try:
+                    os.remove(temp_audio_path)
+                except Exception as cleanup_error:
+                    logger.warning(f"Failed to clean up temp file: {cleanup_error}")
+
+
 pronunciation_service = PronunciationService()
@@ -0,0 +1,8 @@
+-- Migration: Keyset access path for chat history
+-- Purpose: Page a session's messages backwards by (created_at, id) without scanning the whole session.
+-- The new index covers the id-only inner query used by ChatMessageRepository.findPageBySessionId
+-- and makes idx_session_id (its prefix) redundant.
+
+CREATE INDEX idx_session_created_id ON chat_messages (session_id, created_at, id);
+
+DROP INDEX idx_session_id ON chat_messages;
@@ -0,0 +1,36 @@
+-- Migration: Indexed birthday lookup
+-- Purpose: MONTH(dob) = MONTH(CURDATE()) cannot use an index, so the daily birthday job scanned every profile.
+-- birth_month/birth_day are derived from dob and kept in sync by triggers, so every writer of dob is covered.
+-- dob is a TIMESTAMP, which rules out a generated column (its value depends on the session time zone).
+-- The index ends with user_id so BirthdayService can page through today's birthdays by keyset.
+
+ALTER TABLE user_profiles
+    ADD COLUMN birth_month TINYINT UNSIGNED NULL AFTER dob,
+    ADD COLUMN birth_day TINYINT UNSIGNED NULL AFTER birth_month;
+
+UPDATE user_profiles
+SET birth_month = MONTH(dob),
+    birth_day = DAY(dob)
+WHERE dob IS NOT NULL;
+
+CREATE INDEX idx_birth_month_day_user ON user_profiles (birth_month, birth_day, user_id);
+
+DELIMITER //
+
+CREATE TRIGGER trg_user_profiles_birthday_insert
+BEFORE INSERT ON user_profiles
+FOR EACH ROW
+BEGIN
+    SET NEW.birth_month = MONTH(NEW.dob);
+    SET NEW.birth_day = DAY(NEW.dob);
+END//
+
+CREATE TRIGGER trg_user_profiles_birthday_update
+BEFORE UPDATE ON user_profiles
+FOR EACH ROW
+BEGIN
+    SET NEW.birth_month = MONTH(NEW.dob);
+    SET NEW.birth_day = DAY(NEW.dob);
+END//
+
+DELIMITER ;
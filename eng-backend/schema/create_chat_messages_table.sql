@@ -10,7 +10,7 @@ CREATE TABLE IF NOT EXISTS chat_messages (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
 
     INDEX idx_user_id (user_id),
-    INDEX idx_session_id (session_id),
+    INDEX idx_session_created_id (session_id, created_at, id),
     INDEX idx_created_at (created_at),
     INDEX idx_user_created (user_id, created_at),
 
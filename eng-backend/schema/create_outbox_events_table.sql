@@ -0,0 +1,27 @@
+-- Migration: Transactional outbox for domain events
+-- Purpose: Request paths record events (emails to send, audit entries) in the same transaction as
+-- their own writes; OutboxRelay publishes unpublished rows to Kafka in batches and stamps published_at.
+-- next_attempt_at doubles as the claim lease of a relay and the backoff after a failed attempt;
+-- rows that exhaust events.outbox.max-attempts get failed_at and are no longer picked up.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id VARCHAR(36) NOT NULL COMMENT 'UUID carried in the event; consumers deduplicate on it',
+    topic VARCHAR(100) NOT NULL,
+    event_key VARCHAR(100) NULL COMMENT 'Kafka record key (ordering scope)',
+    event_type VARCHAR(255) NOT NULL COMMENT 'Event class name',
+    payload LONGTEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000) NULL,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT 'Not claimable before this (claim lease or retry backoff)',
+    failed_at TIMESTAMP(3) NULL COMMENT 'Set when attempts run out; the row is no longer relayed',
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    published_at TIMESTAMP(3) NULL,
+
+    UNIQUE KEY uk_outbox_event_id (event_id),
+    INDEX idx_outbox_pending (published_at, failed_at, next_attempt_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Domain events waiting to be relayed to Kafka';
+
+-- Audit consumers insert with request_id = event id so redelivered events are written once
+CREATE UNIQUE INDEX uk_audit_logs_request_id ON audit_logs (request_id);
@@ -0,0 +1,122 @@
+-- Migration: Materialized platform counters
+-- Purpose: /api/v1/platform/stats is public and ran three COUNT(*) queries per hit.
+-- The figures are kept in platform_counters by triggers on courses, lessons and users, so every writer
+-- (services, admin tools, manual SQL) is covered inside its own transaction.
+-- Lessons removed by the courses -> lessons ON DELETE CASCADE do not fire lesson triggers, so the course
+-- delete trigger subtracts them. StatsService reconciles the rows against COUNT(*) periodically.
+-- Each counter is striped over 16 slot rows (slot = changed row id MOD 16) and read as their SUM, so
+-- concurrent signups or publishes don't all queue on one row lock until their transactions commit.
+-- The slot count must match StatsRepository.COUNTER_SLOTS.
+
+CREATE TABLE IF NOT EXISTS platform_counters (
+    name VARCHAR(50) NOT NULL,
+    slot TINYINT UNSIGNED NOT NULL,
+    value BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (name, slot)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Counts served by the public platform stats endpoint, striped over slot rows';
+
+-- Slot 0 takes the current count, the other slots start at 0
+INSERT INTO platform_counters (name, slot, value)
+SELECT counters.name, slots.slot, IF(slots.slot = 0, counters.value, 0)
+FROM (SELECT 'published_lessons' AS name, (SELECT COUNT(*) FROM lessons WHERE is_published = 1) AS value
+      UNION ALL SELECT 'published_courses', (SELECT COUNT(*) FROM courses WHERE is_published = 1)
+      UNION ALL SELECT 'active_users', (SELECT COUNT(*) FROM users WHERE status = 'ACTIVE')) counters
+CROSS JOIN (SELECT 0 AS slot UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3
+            UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7
+            UNION ALL SELECT 8 UNION ALL SELECT 9 UNION ALL SELECT 10 UNION ALL SELECT 11
+            UNION ALL SELECT 12 UNION ALL SELECT 13 UNION ALL SELECT 14 UNION ALL SELECT 15) slots
+ON DUPLICATE KEY UPDATE value = VALUES(value);
+
+DELIMITER //
+
+CREATE TRIGGER trg_courses_counter_insert
+AFTER INSERT ON courses
+FOR EACH ROW
+BEGIN
+    IF COALESCE(NEW.is_published, 0) = 1 THEN
+        UPDATE platform_counters SET value = value + 1 WHERE name = 'published_courses' AND slot = MOD(NEW.id, 16);
+    END IF;
+END//
+
+CREATE TRIGGER trg_courses_counter_update
+AFTER UPDATE ON courses
+FOR EACH ROW
+BEGIN
+    IF COALESCE(NEW.is_published, 0) <> COALESCE(OLD.is_published, 0) THEN
+        UPDATE platform_counters SET value = value + IF(COALESCE(NEW.is_published, 0) = 1, 1, -1)
+        WHERE name = 'published_courses' AND slot = MOD(NEW.id, 16);
+    END IF;
+END//
+
+CREATE TRIGGER trg_courses_counter_delete
+BEFORE DELETE ON courses
+FOR EACH ROW
+BEGIN
+    UPDATE platform_counters
+    SET value = value - (SELECT COUNT(*) FROM lessons WHERE course_id = OLD.id AND is_published = 1)
+    WHERE name = 'published_lessons' AND slot = MOD(OLD.id, 16);
+    IF COALESCE(OLD.is_published, 0) = 1 THEN
+        UPDATE platform_counters SET value = value - 1 WHERE name = 'published_courses' AND slot = MOD(OLD.id, 16);
+    END IF;
+END//
+
+CREATE TRIGGER trg_lessons_counter_insert
+AFTER INSERT ON lessons
+FOR EACH ROW
+BEGIN
+    IF COALESCE(NEW.is_published, 0) = 1 THEN
+        UPDATE platform_counters SET value = value + 1 WHERE name = 'published_lessons' AND slot = MOD(NEW.id, 16);
+    END IF;
+END//
+
+CREATE TRIGGER trg_lessons_counter_update
+AFTER UPDATE ON lessons
+FOR EACH ROW
+BEGIN
+    IF COALESCE(NEW.is_published, 0) <> COALESCE(OLD.is_published, 0) THEN
+        UPDATE platform_counters SET value = value + IF(COALESCE(NEW.is_published, 0) = 1, 1, -1)
+        WHERE name = 'published_lessons' AND slot = MOD(NEW.id, 16);
+    END IF;
+END//
+
+CREATE TRIGGER trg_lessons_counter_delete
+AFTER DELETE ON lessons
+FOR EACH ROW
+BEGIN
+    IF COALESCE(OLD.is_published, 0) = 1 THEN
+        UPDATE platform_counters SET value = value - 1 WHERE name = 'published_lessons' AND slot = MOD(OLD.id, 16);
+    END IF;
+END//
+
+CREATE TRIGGER trg_users_counter_insert
+AFTER INSERT ON users
+FOR EACH ROW
+BEGIN
+    IF NEW.status = 'ACTIVE' THEN
+        UPDATE platform_counters SET value = value + 1 WHERE name = 'active_users' AND slot = MOD(NEW.id, 16);
+    END IF;
+END//
+
+CREATE TRIGGER trg_users_counter_update
+AFTER UPDATE ON users
+FOR EACH ROW
+BEGIN
+    IF (NEW.status <=> 'ACTIVE') <> (OLD.status <=> 'ACTIVE') THEN
+        UPDATE platform_counters SET value = value + IF(NEW.status <=> 'ACTIVE', 1, -1)
+        WHERE name = 'active_users' AND slot = MOD(NEW.id, 16);
+    END IF;
+END//
+
+CREATE TRIGGER trg_users_counter_delete
+AFTER DELETE ON users
+FOR EACH ROW
+BEGIN
+    IF OLD.status = 'ACTIVE' THEN
+        UPDATE platform_counters SET value = value - 1 WHERE name = 'active_users' AND slot = MOD(OLD.id, 16);
+    END IF;
+END//
+
+DELIMITER ;
@@ -0,0 +1,19 @@
+package com.nemisolv.starter.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bounds in-flight calls to an AI operation with an adaptive concurrency limit.
+ * Requests above the limit are rejected with 503 + Retry-After.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AIConcurrencyLimit {
+    /**
+     * AI operation name, one limiter per name (e.g. "chat", "grammar")
+     */
+    String value();
+}
@@ -0,0 +1,87 @@
+package com.nemisolv.starter.aspect;
+
+import com.nemisolv.starter.annotation.AIConcurrencyLimit;
+import com.nemisolv.starter.exception.ServiceOverloadedException;
+import com.nemisolv.starter.service.ai.AIConcurrencyLimiters;
+import com.nemisolv.starter.service.ai.AdaptiveConcurrencyLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Aspect enforcing adaptive concurrency limits on AI endpoints
+ * - Sheds excess requests fast with 503 instead of letting them queue on the AI service
+ * - Streaming responses take their permit when subscribed and hold it until the stream
+ *   terminates, so a Flux that is never subscribed holds nothing
+ *
+ * Admission only: latency and failures are reported by the services calling the AI service,
+ * so cache hits and client-side time never move the limit.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AIConcurrencyLimitAspect {
+
+    private final AIConcurrencyLimiters limiters;
+
+    @Around("@annotation(concurrencyLimit)")
+    public Object limit(ProceedingJoinPoint joinPoint, AIConcurrencyLimit concurrencyLimit) throws Throwable {
+        if (!limiters.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = concurrencyLimit.value();
+        boolean priority = isPriorityCaller();
+
+        if (Flux.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType())) {
+            return Flux.defer(() -> {
+                AdaptiveConcurrencyLimiter.Permit permit = acquire(operation, priority);
+                Flux<?> flux;
+                try {
+                    flux = (Flux<?>) joinPoint.proceed();
+                } catch (Throwable ex) {
+                    permit.release();
+                    return Flux.error(ex);
+                }
+                return flux.doFinally(signal -> permit.release());
+            });
+        }
+
+        AdaptiveConcurrencyLimiter.Permit permit = acquire(operation, priority);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permit.release();
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter.Permit acquire(String operation, boolean priority) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(operation);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(priority);
+        if (permit == null) {
+            limiters.recordShed(operation, priority);
+            log.warn("Shedding '{}' request: {} in flight, limit {}", operation, limiter.getInFlight(), limiter.getLimit());
+            throw new ServiceOverloadedException(operation, limiters.getConfig().getRetryAfter().toSeconds());
+        }
+        return permit;
+    }
+
+    private boolean isPriorityCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(limiters.getConfig().getPriorityRoles()::contains);
+    }
+}
@@ -0,0 +1,163 @@
+package com.nemisolv.starter.config;
+
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tuning knobs for the AI service integration (caching, batching, resilience)
+ */
+@ConfigurationProperties(prefix = "ai")
+@Configuration
+@Getter
+public class AIServiceProperties {
+    private final Service service = new Service();
+    private final GrammarCache grammarCache = new GrammarCache();
+    private final Batching batching = new Batching();
+    private final Concurrency concurrency = new Concurrency();
+    private final Resilience resilience = new Resilience();
+    private final Chat chat = new Chat();
+    private final ResponseCache responseCache = new ResponseCache();
+    private final PronunciationStream pronunciationStream = new PronunciationStream();
+
+    @Data
+    public static class Service {
+        private String url;
+    }
+
+    @Data
+    public static class GrammarCache {
+        private boolean enabled = true;
+        /**
+         * Bump when the grammar model/ruleset changes so old results stop matching
+         */
+        private String modelVersion = "v1";
+        private int maxLocalEntries = 5_000;
+        private Duration localTtl = Duration.ofMinutes(10);
+        private Duration redisTtl = Duration.ofHours(24);
+        /**
+         * Case folding is off by default because capitalisation mistakes are part of the result
+         */
+        private boolean foldCase = false;
+    }
+
+    @Getter
+    public static class Batching {
+        private final Batch grammar = new Batch();
+        private final Batch pronunciation = new Batch();
+    }
+
+    @Data
+    public static class Batch {
+        private boolean enabled = true;
+        private int maxBatchSize = 16;
+        private Duration maxWait = Duration.ofMillis(20);
+        private int maxConcurrentBatches = 4;
+    }
+
+    @Data
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        /**
+         * A sample slower than baseline x tolerance counts as congestion
+         */
+        private double latencyTolerance = 2.0;
+        /**
+         * Baseline = this percentile of the last baselineWindow upstream latencies
+         */
+        private int baselineWindow = 100;
+        private double baselinePercentile = 0.1;
+        /**
+         * Share of the limit only the priority lane may use
+         */
+        private double priorityReserve = 0.2;
+        private Duration retryAfter = Duration.ofSeconds(2);
+        private List<String> priorityRoles = List.of("ROLE_PREMIUM", "ROLE_ADMIN", "ROLE_TEACHER");
+    }
+
+    @Data
+    public static class Resilience {
+        private boolean enabled = true;
+        private Duration attemptTimeout = Duration.ofSeconds(30);
+        private boolean hedgingEnabled = true;
+        private double hedgePercentile = 0.95;
+        private Duration minHedgeDelay = Duration.ofMillis(50);
+        /**
+         * No hedging until this many latencies have been observed
+         */
+        private int hedgeMinSamples = 20;
+        private int latencyWindow = 256;
+        private int maxRetries = 2;
+        private Duration retryBackoff = Duration.ofMillis(100);
+        private Duration maxRetryBackoff = Duration.ofSeconds(1);
+        /**
+         * Tokens earned per call; one token buys one retry or hedge
+         */
+        private double retryBudgetRatio = 0.1;
+        private double retryBudgetMaxTokens = 10;
+    }
+
+    @Data
+    public static class Chat {
+        /**
+         * Cap on the assistant reply kept for persistence; the client still receives every token
+         */
+        private int maxResponseChars = 32_000;
+        private int writerQueueCapacity = 10_000;
+        private int writerBatchSize = 100;
+        private Duration writerFlushInterval = Duration.ofMillis(200);
+        /**
+         * Approximate token budget (~4 chars per token) for summary + recent turns + new turn
+         */
+        private int contextTokenBudget = 3_000;
+        private int summaryTokenBudget = 500;
+        private int maxStoredTurns = 20;
+        private Duration contextTtl = Duration.ofDays(2);
+        /**
+         * Messages kept per session in the Redis history ring
+         */
+        private int historyCacheSize = 50;
+        private Duration historyCacheTtl = Duration.ofDays(2);
+        private int historyMaxPageSize = 100;
+    }
+
+    @Data
+    public static class ResponseCache {
+        /**
+         * Off by default; when on, only requests that set {@code cacheable=true} are considered
+         */
+        private boolean enabled = false;
+        private int maxEntries = 2_000;
+        private Duration ttl = Duration.ofDays(7);
+        private int maxPromptChars = 500;
+        /**
+         * SimHash bits allowed to differ for a near-duplicate hit; must stay below the
+         * number of LSH bands (4) so every match shares at least one band
+         */
+        private int maxHammingDistance = 3;
+        private int replayChunkChars = 24;
+        private Duration replayChunkDelay = Duration.ofMillis(15);
+    }
+
+    @Data
+    public static class PronunciationStream {
+        private List<String> allowedOrigins = new ArrayList<>(List.of("http://localhost:3000"));
+        /**
+         * Audio chunks buffered per session while the upstream connection catches up
+         */
+        private int maxBufferedChunks = 256;
+        private int maxChunkBytes = 64 * 1024;
+        private Duration sendTimeLimit = Duration.ofSeconds(5);
+        private int sendBufferBytes = 512 * 1024;
+        private Duration maxSessionDuration = Duration.ofMinutes(2);
+    }
+}
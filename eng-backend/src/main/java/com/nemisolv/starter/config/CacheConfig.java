@@ -7,11 +7,14 @@ import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -27,7 +30,8 @@ import java.util.Map;
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     ResponseCacheProperties responseCacheProperties) {
         // Configure ObjectMapper to handle Java 8 date/time types
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -90,7 +94,19 @@ public class CacheConfig {
         cacheConfigurations.put("courseDetail",
             defaultConfig.entryTtl(Duration.ofMinutes(30)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        // Dashboard stats - 1 minute, also evicted when the user's progress is written
+        cacheConfigurations.put("userDashboardStats",
+            defaultConfig.entryTtl(Duration.ofMinutes(1)));
+
+        // HTTP response bodies (ResponseCacheFilter) - raw bytes, JDK serialized
+        RedisCacheConfiguration responseConfig = defaultConfig.serializeValuesWith(
+            RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.java()));
+        responseCacheProperties.getCaches().forEach((name, ttl) ->
+            cacheConfigurations.put(name, responseConfig.entryTtl(ttl)));
+
+        // allEntries evictions SCAN for keys instead of blocking Redis with KEYS
+        return RedisCacheManager.builder(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(cacheConfigurations)
             .transactionAware()
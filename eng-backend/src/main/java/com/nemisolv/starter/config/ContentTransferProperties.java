@@ -0,0 +1,29 @@
+package com.nemisolv.starter.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulk course import/export, see ContentTransferService
+ */
+@ConfigurationProperties(prefix = "content-transfer")
+@Configuration
+@Getter
+@Setter
+public class ContentTransferProperties {
+    /**
+     * Course bundles validated together and written in one transaction; a failed chunk is
+     * rolled back and reported without stopping the upload
+     */
+    private int chunkSize = 50;
+    /**
+     * Courses read per keyset page while exporting
+     */
+    private int exportPageSize = 100;
+    /**
+     * Upper bound on the lessons of one imported course
+     */
+    private int maxLessonsPerCourse = 1000;
+}
@@ -0,0 +1,39 @@
+package com.nemisolv.starter.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Precomputed course outline snapshots kept in Redis
+ */
+@ConfigurationProperties(prefix = "course-outline")
+@Configuration
+@Getter
+@Setter
+public class CourseOutlineProperties {
+    /**
+     * The latest snapshot of a course is rebuilt on the next read after this, even without a change
+     */
+    private Duration latestTtl = Duration.ofHours(6);
+    /**
+     * How long a superseded version stays readable by clients that still hold its number
+     */
+    private Duration versionRetention = Duration.ofHours(24);
+    /**
+     * Store snapshots gzipped and send them as-is to clients accepting gzip
+     */
+    private boolean gzip = true;
+    /**
+     * A missing latest snapshot is rebuilt by one reader holding this lock; it expires on its own
+     * if that reader dies
+     */
+    private Duration rebuildLockTtl = Duration.ofSeconds(10);
+    /**
+     * How long other readers wait for that rebuild before rendering the outline themselves
+     */
+    private Duration rebuildWait = Duration.ofSeconds(2);
+}
@@ -0,0 +1,78 @@
+package com.nemisolv.starter.config;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas behind {@code mariadbDataSource}, see ReplicaRoutingDataSource
+ */
+@ConfigurationProperties(prefix = "datasource-routing")
+@Configuration
+@Getter
+@Setter
+public class DatasourceRoutingProperties {
+    /**
+     * Off: every transaction uses the primary pool
+     */
+    private boolean enabled = false;
+    private Strategy strategy = Strategy.WEIGHTED;
+    /**
+     * Replicas further behind than this are skipped until they catch up
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    /**
+     * After a user's read-write transaction commits, their read-only transactions stay on the
+     * primary this long; keep it above max-lag
+     */
+    private Duration stickiness = Duration.ofSeconds(5);
+    private Duration healthCheckInterval = Duration.ofSeconds(2);
+    /**
+     * Short, so a dead replica fails over to the primary quickly
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+    /**
+     * SHOW ... STATUS reads Seconds_Behind_Master/Source (no row: not replicating, lag 0); any other
+     * query must return the lag in seconds; blank skips lag checks (e.g. two local H2 instances)
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        /**
+         * Defaults to the primary's credentials and driver
+         */
+        private String username;
+        private String password;
+        private String driverClassName;
+        /**
+         * Relative share of reads (WEIGHTED) or capacity (LEAST_CONNECTIONS)
+         */
+        private int weight = 1;
+        /**
+         * 0: same as the primary pool
+         */
+        private int poolSize;
+        private int minIdle = 1;
+    }
+
+    public enum Strategy {
+        /**
+         * Random, proportional to weight
+         */
+        WEIGHTED,
+        /**
+         * Fewest active connections per unit of weight
+         */
+        LEAST_CONNECTIONS
+    }
+}
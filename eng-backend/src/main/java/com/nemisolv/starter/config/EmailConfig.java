@@ -58,7 +58,8 @@ public class EmailConfig {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode("HTML");
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        // Parse each template once; the bulk renderer relies on this for its full-render fallback
+        templateResolver.setCacheable(true);
         return templateResolver;
     }
 }
@@ -0,0 +1,64 @@
+package com.nemisolv.starter.config;
+
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Domain event pipeline: transactional outbox, relay and Kafka topics
+ */
+@ConfigurationProperties(prefix = "events")
+@Configuration
+@Getter
+public class EventProperties {
+    private final Kafka kafka = new Kafka();
+    private final Topics topics = new Topics();
+    private final Outbox outbox = new Outbox();
+
+    @Data
+    public static class Kafka {
+        /**
+         * When false the relay hands events straight to the local consumers instead of Kafka
+         * (single-node dev without a broker); listeners are not started
+         */
+        private boolean enabled = true;
+        /**
+         * How long the relay waits for broker acks of one batch
+         */
+        private Duration sendTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Topics {
+        private String email = "notification.email";
+        private String audit = "audit.log";
+    }
+
+    @Data
+    public static class Outbox {
+        private int batchSize = 200;
+        private Duration pollInterval = Duration.ofMillis(500);
+        /**
+         * Published rows are kept this long for troubleshooting, then purged
+         */
+        private Duration retention = Duration.ofDays(3);
+        /**
+         * Relay attempts before a row is given up on and stamped failed_at; failed rows are left
+         * in the table for inspection and never purged
+         */
+        private int maxAttempts = 10;
+        /**
+         * Delay before the second attempt, doubling after each further failure up to {@code maxBackoff}
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofMinutes(10);
+        /**
+         * How long a claimed batch is reserved for its relay; rows of a relay that dies mid-batch
+         * become claimable again after this. Must exceed the Kafka send timeout
+         */
+        private Duration claimTimeout = Duration.ofMinutes(2);
+    }
+}
@@ -1,22 +1,33 @@
 package com.nemisolv.starter.config;
 
+import com.nemisolv.starter.config.datasource.ReplicaRoutingDataSource;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.List;
 
 @Configuration
 @RequiredArgsConstructor
 public class JdbcConfig {
     private final PersistenceProperties persistenceProperties;
+    private final DatasourceRoutingProperties datasourceRoutingProperties;
 
-    @Bean(name = "mariadbDataSource")
-    public DataSource mariadbDataSource() {
+    @Bean(name = "primaryDataSource")
+    public HikariDataSource primaryDataSource() {
         PersistenceProperties.Mariadb mariadb = persistenceProperties.getMariadb();
         try {
             HikariDataSource dataSource = new HikariDataSource();
@@ -34,6 +45,61 @@ public class JdbcConfig {
         }
     }
 
+    /**
+     * Read replica pools, only with datasource-routing.enabled
+     */
+    @Bean(name = "replicaRoutingDataSource")
+    @ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                             MeterRegistry meterRegistry,
+                                                             StringRedisTemplate stringRedisTemplate) {
+        PersistenceProperties.Mariadb mariadb = persistenceProperties.getMariadb();
+        List<ReplicaRoutingDataSource.Replica> replicas = datasourceRoutingProperties.getReplicas().stream()
+                .map(replica -> {
+                    String name = StringUtils.hasText(replica.getName()) ? replica.getName() : replica.getUrl();
+                    HikariDataSource dataSource = new HikariDataSource();
+                    dataSource.setJdbcUrl(replica.getUrl());
+                    dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : mariadb.getUsername());
+                    dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : mariadb.getPassword());
+                    dataSource.setDriverClassName(replica.getDriverClassName() != null
+                            ? replica.getDriverClassName()
+                            : mariadb.getDriverClassName());
+                    dataSource.setPoolName(mariadb.getPoolName() + "-replica-" + name);
+                    dataSource.setMaximumPoolSize(replica.getPoolSize() > 0 ? replica.getPoolSize() : mariadb.getPoolSize());
+                    dataSource.setMinimumIdle(replica.getMinIdle());
+                    dataSource.setMaxLifetime(mariadb.getMaxLifetime());
+                    dataSource.setConnectionTimeout(datasourceRoutingProperties.getConnectionTimeout().toMillis());
+                    dataSource.setReadOnly(true);
+                    // A replica that is down at startup must not fail the application
+                    dataSource.setInitializationFailTimeout(-1);
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                    return new ReplicaRoutingDataSource.Replica(name, dataSource, replica.getWeight());
+                })
+                .toList();
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                datasourceRoutingProperties, stringRedisTemplate);
+        routing.bindMetrics(meterRegistry);
+        return routing;
+    }
+
+    /**
+     * Connections are taken on the first statement rather than when a transaction begins, once
+     * its read-only flag is known; read-only transactions then go through the replica routing
+     */
+    @Primary
+    @Bean(name = "mariadbDataSource")
+    public DataSource mariadbDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                        ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        ReplicaRoutingDataSource routing = replicaRoutingDataSource.getIfAvailable();
+        if (routing == null) {
+            return new LazyConnectionDataSourceProxy(primaryDataSource);
+        }
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing.writeTracking());
+        dataSource.setReadOnlyDataSource(routing);
+        return dataSource;
+    }
+
     @Bean(name = "mariadbJdbcTemplate")
     public JdbcTemplate mariadbJdbcTemplate(@Qualifier("mariadbDataSource") DataSource dataSource) {
         return new JdbcTemplate(dataSource);
@@ -44,4 +110,3 @@ public class JdbcConfig {
         return new NamedParameterJdbcTemplate(dataSource);
     }
 }
-
@@ -0,0 +1,42 @@
+package com.nemisolv.starter.config;
+
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Redis leaderboards for XP and streaks
+ */
+@ConfigurationProperties(prefix = "leaderboard")
+@Configuration
+@Getter
+public class LeaderboardProperties {
+    private final Query query = new Query();
+    private final Weekly weekly = new Weekly();
+    private final Reconcile reconcile = new Reconcile();
+
+    @Data
+    public static class Query {
+        private int defaultLimit = 20;
+        private int maxLimit = 100;
+        private int defaultNeighbors = 3;
+        private int maxNeighbors = 20;
+    }
+
+    @Data
+    public static class Weekly {
+        /**
+         * Finished weekly boards are kept readable for this many weeks, then expire
+         */
+        private int retainedWeeks = 4;
+    }
+
+    @Data
+    public static class Reconcile {
+        /**
+         * user_stats rows read per keyset page when rebuilding scores
+         */
+        private int pageSize = 1_000;
+    }
+}
@@ -0,0 +1,88 @@
+package com.nemisolv.starter.config;
+
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tuning knobs for scheduled notification campaigns (reminders, birthday wishes)
+ */
+@ConfigurationProperties(prefix = "notification")
+@Configuration
+@Getter
+public class NotificationProperties {
+    private final BulkMail bulkMail = new BulkMail();
+    private final Candidates candidates = new Candidates();
+    private final Scheduler scheduler = new Scheduler();
+
+    @Data
+    public static class BulkMail {
+        /**
+         * Worker threads; each keeps its own SMTP connection open across messages
+         */
+        private int workers = 8;
+        private int queueCapacity = 2_000;
+        /**
+         * Reconnect after this many messages so long-lived sessions don't hit server-side limits
+         */
+        private int maxMessagesPerConnection = 100;
+        private Duration connectionIdleTimeout = Duration.ofSeconds(30);
+        /**
+         * Cap on the SMTP relay as a whole, shared by all workers of this node
+         */
+        private double relayMessagesPerSecond = 50;
+        /**
+         * Cap for recipients whose domain is not listed under {@code providers}
+         */
+        private double defaultProviderMessagesPerSecond = 20;
+        private Map<String, Provider> providers = new LinkedHashMap<>();
+        private int maxAttempts = 4;
+        private Duration retryInitialBackoff = Duration.ofSeconds(30);
+        private Duration retryMaxBackoff = Duration.ofMinutes(10);
+        /**
+         * How long a scheduled job waits for its campaign to drain before returning
+         */
+        private Duration campaignTimeout = Duration.ofHours(2);
+        private int retainedCampaigns = 50;
+    }
+
+    @Data
+    public static class Candidates {
+        /**
+         * Users read per keyset page when selecting campaign recipients
+         */
+        private int pageSize = 500;
+    }
+
+    @Data
+    public static class Scheduler {
+        /**
+         * Ranges the user id space is split into per daily run; replicas claim them independently
+         */
+        private int shards = 16;
+        private Duration leaseTtl = Duration.ofSeconds(60);
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+        /**
+         * How often a node with nothing to claim checks whether other nodes' shards finished or expired
+         */
+        private Duration pollInterval = Duration.ofSeconds(10);
+        private Duration maxRunDuration = Duration.ofHours(3);
+        /**
+         * Lifetime of plans, checkpoints and done markers
+         */
+        private Duration markerTtl = Duration.ofDays(3);
+    }
+
+    @Data
+    public static class Provider {
+        private List<String> domains = new ArrayList<>();
+        private double messagesPerSecond = 20;
+    }
+}
@@ -0,0 +1,26 @@
+package com.nemisolv.starter.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Public platform stats: how stale the served counters may be
+ */
+@ConfigurationProperties(prefix = "platform.stats")
+@Configuration
+@Getter
+@Setter
+public class PlatformStatsProperties {
+    /**
+     * Each node re-reads platform_counters at most this often
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+    /**
+     * Cache-Control max-age sent to browsers and CDNs
+     */
+    private Duration maxAge = Duration.ofSeconds(60);
+}
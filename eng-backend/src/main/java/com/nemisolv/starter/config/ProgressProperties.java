@@ -0,0 +1,42 @@
+package com.nemisolv.starter.config;
+
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Learning progress counters (XP, study time, completions) and how they are written
+ */
+@ConfigurationProperties(prefix = "progress")
+@Configuration
+@Getter
+public class ProgressProperties {
+    private final Aggregation aggregation = new Aggregation();
+    private final Xp xp = new Xp();
+
+    @Data
+    public static class Aggregation {
+        /**
+         * Deltas are held in memory at most this long before being written; it bounds what a crash can lose
+         */
+        private Duration flushInterval = Duration.ofSeconds(5);
+        /**
+         * Flushes a delta may fail before it is dropped (and logged) instead of being kept for the next one
+         */
+        private int maxFlushAttempts = 60;
+        /**
+         * How long a processed idempotency key is remembered
+         */
+        private Duration idempotencyTtl = Duration.ofHours(48);
+    }
+
+    @Data
+    public static class Xp {
+        private int lessonCompleted = 20;
+        private int quizCorrectAnswer = 2;
+        private int videoMinute = 1;
+    }
+}
@@ -0,0 +1,234 @@
+package com.nemisolv.starter.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves configured GET routes from stored response bytes
+ *
+ * On a miss the controller runs as usual and a 200 body is stored together with a strong ETag,
+ * computed once from the bytes unless the controller set its own. Hits skip the controller and
+ * JSON serialization entirely; a matching If-None-Match is answered 304 either way.
+ *
+ * Keys are path + sorted query string, prefixed by the route's scope (the user id for USER
+ * routes). Entries live in Redis caches configured in {@link CacheConfig}, so an eviction from
+ * a write path (e.g. @CacheEvict on CourseService) applies to every node, after the commit.
+ *
+ * Ordered after the Spring Security chain, so authenticated routes never answer anonymous callers.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final CacheManager cacheManager;
+    private final ResponseCacheProperties responseCacheProperties;
+    private final List<CompiledRoute> routes;
+
+    public ResponseCacheFilter(CacheManager cacheManager, ResponseCacheProperties responseCacheProperties) {
+        this.cacheManager = cacheManager;
+        this.responseCacheProperties = responseCacheProperties;
+        this.routes = responseCacheProperties.getRoutes().stream()
+                .map(route -> new CompiledRoute(PathPatternParser.defaultInstance.parse(route.getPattern()), route))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !responseCacheProperties.isEnabled() || !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        ResponseCacheProperties.Route route = findRoute(path);
+        Cache cache = route != null && route.getCache() != null ? cacheManager.getCache(route.getCache()) : null;
+        String key = cache != null ? cacheKey(route, path, request) : null;
+        if (key == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CachedResponse cached = read(cache, key);
+        if (cached != null) {
+            response.setHeader(CACHE_STATUS_HEADER, "HIT");
+            writeCached(cached, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        byte[] body = wrapper.getContentAsByteArray();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || body.length == 0
+                || body.length > responseCacheProperties.getMaxBodySize().toBytes()
+                || wrapper.containsHeader(HttpHeaders.SET_COOKIE)
+                || wrapper.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        String eTag = wrapper.getHeader(HttpHeaders.ETAG);
+        if (eTag == null) {
+            eTag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            wrapper.setHeader(HttpHeaders.ETAG, eTag);
+        }
+        String cacheControl = wrapper.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl == null) {
+            cacheControl = cacheControl(route).getHeaderValue();
+            wrapper.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        write(cache, key, new CachedResponse(wrapper.getContentType(), body, eTag, cacheControl));
+        wrapper.setHeader(CACHE_STATUS_HEADER, "MISS");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            wrapper.resetBuffer();
+            wrapper.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private ResponseCacheProperties.Route findRoute(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (CompiledRoute route : routes) {
+            if (route.pattern().matches(container)) {
+                return route.route();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return null when the request cannot be cached (USER route without a signed-in user)
+     */
+    private String cacheKey(ResponseCacheProperties.Route route, String path, HttpServletRequest request) {
+        String scope = switch (route.getScope()) {
+            case PUBLIC -> "public";
+            case AUTHENTICATED -> "auth";
+            case USER -> {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                yield authentication == null || !authentication.isAuthenticated()
+                        || authentication instanceof AnonymousAuthenticationToken
+                        ? null
+                        : "user:" + authentication.getName();
+            }
+        };
+        if (scope == null) {
+            return null;
+        }
+
+        StringBuilder key = new StringBuilder(scope).append(':').append(path);
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(encode(parameter.getKey())).append('=').append(encode(value));
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private void writeCached(CachedResponse cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, cached.eTag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cached.cacheControl());
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.eTag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    /**
+     * A cache outage only costs the cached path, the request is still served
+     */
+    private CachedResponse read(Cache cache, String key) {
+        try {
+            return cache.get(key, CachedResponse.class);
+        } catch (Exception e) {
+            log.warn("Response cache {} unavailable: {}", cache.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(Cache cache, String key, CachedResponse response) {
+        try {
+            cache.put(key, response);
+        } catch (Exception e) {
+            log.warn("Could not store response in cache {}: {}", cache.getName(), e.getMessage());
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static CacheControl cacheControl(ResponseCacheProperties.Route route) {
+        CacheControl cacheControl = CacheControl.maxAge(route.getMaxAge());
+        return route.getScope() == ResponseCacheProperties.Scope.PUBLIC
+                ? cacheControl.cachePublic()
+                : cacheControl.cachePrivate();
+    }
+
+    /**
+     * Weak comparison as required for If-None-Match
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String expected = stripWeak(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || stripWeak(value).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private record CompiledRoute(PathPattern pattern, ResponseCacheProperties.Route route) {}
+
+    /**
+     * Stored with JDK serialization, see {@link CacheConfig}
+     */
+    public record CachedResponse(String contentType, byte[] body, String eTag, String cacheControl) implements Serializable {}
+}
@@ -0,0 +1,69 @@
+package com.nemisolv.starter.config;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serialized GET responses cached by {@link ResponseCacheFilter}
+ */
+@ConfigurationProperties(prefix = "response-cache")
+@Configuration
+@Getter
+@Setter
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    /**
+     * Larger bodies are passed through without being stored
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+    /**
+     * Cache name -> entry TTL; write paths evict a whole cache with @CacheEvict(allEntries = true)
+     */
+    private Map<String, Duration> caches = new LinkedHashMap<>();
+    /**
+     * First matching route wins
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        /**
+         * PathPattern, e.g. /api/v1/courses/**
+         */
+        private String pattern;
+        /**
+         * One of {@link #caches}; a route without a cache excludes its paths from caching
+         */
+        private String cache;
+        /**
+         * Cache-Control max-age sent to clients, unless the controller already set Cache-Control
+         */
+        private Duration maxAge = Duration.ofSeconds(60);
+        private Scope scope = Scope.AUTHENTICATED;
+    }
+
+    public enum Scope {
+        /**
+         * Same body for everyone, may be stored by shared caches (CDN)
+         */
+        PUBLIC,
+        /**
+         * Same body for every signed-in user; Spring Security has already rejected anonymous callers
+         */
+        AUTHENTICATED,
+        /**
+         * Body depends on the caller, so the user id is part of the key
+         */
+        USER
+    }
+}
@@ -17,6 +17,8 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
 
 import java.util.Collection;
@@ -68,6 +70,21 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Browsers cannot set headers on a WebSocket handshake, so the pronunciation stream
+     * may carry its token as ?access_token=...; every other route only accepts the header.
+     */
+    @Bean
+    public BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver headerResolver = new DefaultBearerTokenResolver();
+        DefaultBearerTokenResolver queryParamResolver = new DefaultBearerTokenResolver();
+        queryParamResolver.setAllowUriQueryParameter(true);
+
+        return request -> WebSocketConfig.PRONUNCIATION_STREAM_PATH.equals(request.getRequestURI())
+                ? queryParamResolver.resolve(request)
+                : headerResolver.resolve(request);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,38 @@
+package com.nemisolv.starter.config;
+
+import com.nemisolv.starter.controller.PronunciationStreamHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+/**
+ * WebSocket endpoints (streaming pronunciation assessment)
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    public static final String PRONUNCIATION_STREAM_PATH = "/api/v1/ai/pronunciation/stream";
+
+    private final PronunciationStreamHandler pronunciationStreamHandler;
+    private final AIServiceProperties aiServiceProperties;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(pronunciationStreamHandler, PRONUNCIATION_STREAM_PATH)
+                .setAllowedOrigins(aiServiceProperties.getPronunciationStream().getAllowedOrigins().toArray(String[]::new));
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(aiServiceProperties.getPronunciationStream().getMaxChunkBytes());
+        container.setMaxTextMessageBufferSize(16 * 1024);
+        return container;
+    }
+}
@@ -0,0 +1,352 @@
+package com.nemisolv.starter.config.datasource;
+
+import com.nemisolv.starter.config.DatasourceRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Read side of {@code mariadbDataSource}: connections for read-only transactions
+ *
+ * Plugged in as the read-only variant of a LazyConnectionDataSourceProxy (see JdbcConfig), so a
+ * {@code @Transactional(readOnly = true)} method gets its connection here on its first statement,
+ * while everything else, including read-only methods joining a read-write transaction, stays on
+ * the primary.
+ *
+ * - A replica is picked among the healthy ones whose lag is within {@code max-lag}, weighted
+ *   randomly or by fewest active connections per weight
+ * - A replica that cannot open a connection is marked down and the next one (finally the primary)
+ *   is tried; {@link #checkReplicas} brings it back once it answers and has caught up. A pool
+ *   timeout with no connection error behind it only means the pool is busy: the next candidate is
+ *   tried but the replica stays up
+ * - Read-your-writes: once a user's read-write transaction commits, their reads go to the primary
+ *   for {@code stickiness}. Tracked by the authenticated user id in Redis
+ *   ({@code db:sticky:<user>}), so it holds whichever node serves the next read; while Redis is
+ *   unreachable reads go to the primary. Writes outside a transaction are not tracked
+ *
+ * Replicas start as down and are enabled by the first health check.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final String[] LAG_COLUMNS = {"seconds_behind_master", "seconds_behind_source"};
+    private static final String STICKY_KEY_PREFIX = "db:sticky:";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final DatasourceRoutingProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Object writeMarkerKey = new Object();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, DatasourceRoutingProperties properties,
+                                    StringRedisTemplate stringRedisTemplate) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * The primary, remembering which users committed a read-write transaction through it
+     */
+    public DataSource writeTracking() {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                trackWrite();
+                return super.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                trackWrite();
+                return super.getConnection(username, password);
+            }
+        };
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (isSticky(currentUser())) {
+            return source.connect(primary);
+        }
+        for (Replica replica : candidates()) {
+            try {
+                return source.connect(replica.getDataSource());
+            } catch (SQLTransientConnectionException e) {
+                if (e.getCause() == null) {
+                    log.debug("Read replica {} pool exhausted, trying the next one: {}", replica.getName(), e.getMessage());
+                    continue;
+                }
+                // Hikari's timeout carries the last failure to open a connection as its cause
+                replica.markDown();
+                log.warn("Read replica {} unavailable, failing over: {}", replica.getName(), e.getCause().getMessage());
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown();
+                log.warn("Read replica {} unavailable, failing over: {}", replica.getName(), e.getMessage());
+            }
+        }
+        return source.connect(primary);
+    }
+
+    /**
+     * Usable replicas, the preferred one first
+     */
+    private List<Replica> candidates() {
+        long maxLagSeconds = properties.getMaxLag().toSeconds();
+        List<Replica> usable = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isUp() && replica.getLagSeconds() <= maxLagSeconds && replica.getWeight() > 0) {
+                usable.add(replica);
+            }
+        }
+        if (usable.size() <= 1) {
+            return usable;
+        }
+        Replica preferred = switch (properties.getStrategy()) {
+            case WEIGHTED -> weightedPick(usable);
+            case LEAST_CONNECTIONS -> usable.stream()
+                    .min(Comparator.comparingDouble(replica -> (double) replica.activeConnections() / replica.getWeight()))
+                    .orElseThrow();
+        };
+        usable.remove(preferred);
+        usable.add(0, preferred);
+        return usable;
+    }
+
+    private static Replica weightedPick(List<Replica> usable) {
+        int total = usable.stream().mapToInt(Replica::getWeight).sum();
+        int point = ThreadLocalRandom.current().nextInt(total);
+        for (Replica replica : usable) {
+            point -= replica.getWeight();
+            if (point < 0) {
+                return replica;
+            }
+        }
+        return usable.get(usable.size() - 1);
+    }
+
+    // ------------------------------
+    // Read-your-writes
+    // ------------------------------
+
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || TransactionSynchronizationManager.hasResource(writeMarkerKey)) {
+            return;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeMarkerKey, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    stringRedisTemplate.opsForValue().set(STICKY_KEY_PREFIX + user, "1", properties.getStickiness());
+                } catch (Exception e) {
+                    log.warn("Could not record recent write of user {}: {}", user, e.getMessage());
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeMarkerKey);
+            }
+        });
+    }
+
+    private boolean isSticky(String user) {
+        if (user == null) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(STICKY_KEY_PREFIX + user));
+        } catch (Exception e) {
+            log.debug("Could not check recent writes of user {}, reading from the primary: {}", user, e.getMessage());
+            return true;
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    // ------------------------------
+    // Health and lag
+    // ------------------------------
+
+    /**
+     * Probe every replica: reachable and lag measured marks it up, otherwise down; a pool
+     * timeout with no connection error behind it leaves the state as it was
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                long lag = measureLag(connection);
+                if (!replica.isUp() || replica.getLagSeconds() != lag) {
+                    log.info("Read replica {} is up, {}s behind", replica.getName(), lag);
+                }
+                replica.markUp(lag);
+            } catch (SQLTransientConnectionException e) {
+                if (e.getCause() == null) {
+                    // Busy pool, not a sign of the replica's health either way
+                    log.debug("Read replica {} pool exhausted during health check", replica.getName());
+                    continue;
+                }
+                if (replica.isUp()) {
+                    log.warn("Read replica {} failed its health check: {}", replica.getName(), e.getCause().getMessage());
+                }
+                replica.markDown();
+            } catch (Exception e) {
+                if (replica.isUp()) {
+                    log.warn("Read replica {} failed its health check: {}", replica.getName(), e.getMessage());
+                }
+                replica.markDown();
+            }
+        }
+    }
+
+    /**
+     * @return seconds behind the primary; {@link Long#MAX_VALUE} while replication is stopped
+     */
+    private long measureLag(Connection connection) throws SQLException {
+        String query = properties.getLagQuery();
+        if (!StringUtils.hasText(query)) {
+            return connection.isValid(1) ? 0 : Long.MAX_VALUE;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(query)) {
+            if (!rs.next()) {
+                // SHOW REPLICA STATUS on a server that is not a replica
+                return 0;
+            }
+            if (!query.trim().toUpperCase(Locale.ROOT).startsWith("SHOW")) {
+                long lag = rs.getLong(1);
+                return rs.wasNull() ? Long.MAX_VALUE : lag;
+            }
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String column = metaData.getColumnLabel(i).toLowerCase(Locale.ROOT);
+                for (String lagColumn : LAG_COLUMNS) {
+                    if (column.equals(lagColumn)) {
+                        long lag = rs.getLong(i);
+                        return rs.wasNull() ? Long.MAX_VALUE : lag;
+                    }
+                }
+            }
+            throw new SQLException("Lag query returned no Seconds_Behind_Master/Source column");
+        }
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica,
+                            r -> r.isUp() && r.getLagSeconds() != Long.MAX_VALUE ? r.getLagSeconds() : -1)
+                    .description("Seconds behind the primary, -1 while down or not replicating")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close read replica pool {}: {}", replica.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    /**
+     * One replica pool and its last known state
+     */
+    @Getter
+    public static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final int weight;
+        private volatile boolean up;
+        private volatile long lagSeconds = Long.MAX_VALUE;
+
+        public Replica(String name, DataSource dataSource, int weight) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.weight = weight;
+        }
+
+        void markUp(long lagSeconds) {
+            this.lagSeconds = lagSeconds;
+            this.up = true;
+        }
+
+        void markDown() {
+            this.up = false;
+        }
+
+        int activeConnections() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool != null ? pool.getActiveConnections() : 0;
+            }
+            return 0;
+        }
+    }
+}
@@ -1,22 +1,35 @@
 package com.nemisolv.starter.controller;
 
+import com.nemisolv.starter.annotation.AIConcurrencyLimit;
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.payload.ApiResponse;
+import com.nemisolv.starter.payload.ai.ChatHistoryPage;
 import com.nemisolv.starter.payload.ai.ChatRequest;
 import com.nemisolv.starter.security.UserPrincipal;
 import com.nemisolv.starter.service.ChatAIService;
 import com.nemisolv.starter.service.ChatMessageService;
+import com.nemisolv.starter.service.chat.BoundedResponseAccumulator;
+import com.nemisolv.starter.service.chat.ChatHistoryService;
+import com.nemisolv.starter.service.chat.ChatResponseCache;
+import com.nemisolv.starter.service.chat.ConversationContextService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -25,33 +38,84 @@ import java.util.stream.Collectors;
 public class ChatController {
     private final ChatMessageService chatMessageService;
     private final ChatAIService chatAIService;
+    private final ConversationContextService conversationContextService;
+    private final ChatHistoryService chatHistoryService;
+    private final ChatResponseCache chatResponseCache;
+    private final AIServiceProperties aiServiceProperties;
 
     @PostMapping(value = "/learning/chat-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("isAuthenticated()")
+    @AIConcurrencyLimit("chat")
     public Flux<String> handleChatStream(@Valid @RequestBody ChatRequest chatRequest, @AuthenticationPrincipal UserPrincipal currentUser) {
+        int maxResponseChars = aiServiceProperties.getChat().getMaxResponseChars();
 
-        // 1. Tiền xử lý: Lấy tin nhắn cuối cùng của user và lưu vào DB
-        chatRequest.getMessages().stream()
-                .filter(msg -> "user".equalsIgnoreCase(msg.getRole()))
-                .reduce((first, second) -> second) // Lấy message cuối cùng
-                .ifPresent(userMessage -> chatMessageService.saveUserMessage(userMessage.getContent(), currentUser));
-
-        // 2. Gọi AI service và stream kết quả
-        Flux<String> aiStream = chatAIService.getChatStream(chatRequest);
-
-        // 3. Hậu xử lý: Thu thập kết quả stream và lưu câu trả lời của AI
-        // Sử dụng cache() để có thể subscribe nhiều lần
-        Flux<String> cachedStream = aiStream.cache();
-
-        // Subscribe để lưu full response (không block stream)
-        cachedStream.collect(Collectors.joining())
-                .subscribe(fullResponse -> {
-                    chatMessageService.saveAssistantMessage(fullResponse, currentUser);
-                }, error -> {
-                    log.error("Error saving assistant message", error);
+        // 1. Tiền xử lý: dựng context từ session (client chỉ gửi lượt mới),
+        // sau đó đưa tin nhắn của user vào hàng đợi ghi DB (không block)
+        String sessionId = chatMessageService.currentSessionId(currentUser.getId());
+        ChatRequest upstreamRequest = conversationContextService.buildContext(sessionId, chatRequest);
+        String userTurn = conversationContextService.latestUserTurn(chatRequest).orElse(null);
+        if (userTurn != null) {
+            chatMessageService.saveUserMessage(userTurn, currentUser);
+        }
+
+        // 2. Câu hỏi một lượt (opt-in) có thể được trả lời từ cache, phát lại dưới dạng stream;
+        // nếu không thì gọi AI service và stream thẳng cho client.
+        // Không dùng cache(): demand và cancel của client được truyền ngược lên upstream
+        String cacheablePrompt = chatResponseCache.cacheablePrompt(chatRequest, upstreamRequest).orElse(null);
+        Optional<String> cachedAnswer = cacheablePrompt != null ? chatResponseCache.lookup(cacheablePrompt) : Optional.empty();
+        Flux<String> answerStream = cachedAnswer
+                .map(chatResponseCache::replay)
+                .orElseGet(() -> chatAIService.getChatStream(upstreamRequest));
+        boolean storeAnswer = cacheablePrompt != null && cachedAnswer.isEmpty();
+
+        BoundedResponseAccumulator accumulator = new BoundedResponseAccumulator(maxResponseChars);
+
+        // 3. Hậu xử lý: giữ tối đa maxResponseChars ký tự và lưu câu trả lời khi stream kết thúc
+        return answerStream
+                .doOnNext(accumulator::append)
+                .doFinally(signal -> {
+                    if (signal == SignalType.ON_ERROR) {
+                        log.error("Chat stream failed for user {}", currentUser.getId());
+                        return;
+                    }
+                    if (signal == SignalType.CANCEL) {
+                        log.info("Chat stream cancelled by user {}", currentUser.getId());
+                    }
+                    if (accumulator.isTruncated()) {
+                        log.warn("Assistant reply for user {} exceeded {} chars, persisting truncated text",
+                                currentUser.getId(), maxResponseChars);
+                    }
+                    if (!accumulator.isEmpty()) {
+                        String reply = accumulator.content();
+                        chatMessageService.saveAssistantMessage(reply, currentUser);
+                        boolean cacheReply = storeAnswer && signal == SignalType.ON_COMPLETE && !accumulator.isTruncated();
+                        // Redis round-trips, keep them off the stream's event loop
+                        Schedulers.boundedElastic().schedule(() -> {
+                            if (userTurn != null) {
+                                conversationContextService.recordExchange(sessionId, userTurn, reply);
+                            }
+                            if (cacheReply) {
+                                chatResponseCache.put(cacheablePrompt, reply);
+                            }
+                        });
+                    }
                 });
+    }
 
-        // 4. Trả về stream cho client
-        return cachedStream;
+    /**
+     * Chat history of a session (today's session by default), newest page first
+     * Pass the returned nextCursor as {@code before} to page backwards
+     */
+    @GetMapping("/learning/chat-history")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResponse<ChatHistoryPage> getChatHistory(@RequestParam(required = false) String sessionId,
+                                                       @RequestParam(required = false) String before,
+                                                       @RequestParam(defaultValue = "30") int limit,
+                                                       @AuthenticationPrincipal UserPrincipal currentUser) {
+        String targetSession = sessionId != null ? sessionId : chatMessageService.currentSessionId(currentUser.getId());
+        if (!chatMessageService.ownsSession(currentUser.getId(), targetSession)) {
+            throw new AccessDeniedException("Chat session does not belong to the current user");
+        }
+        return ApiResponse.success(chatHistoryService.getHistory(targetSession, before, limit));
     }
 }
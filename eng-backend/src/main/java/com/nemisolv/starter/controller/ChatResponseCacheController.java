@@ -0,0 +1,43 @@
+package com.nemisolv.starter.controller;
+
+import com.nemisolv.starter.payload.ApiResponse;
+import com.nemisolv.starter.payload.ai.ChatResponseCacheStats;
+import com.nemisolv.starter.service.chat.ChatResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Admin controls for the shared chat answer cache
+ */
+@RestController
+@RequestMapping("/api/v1/admin/chat-cache")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ChatResponseCacheController {
+
+    private final ChatResponseCache chatResponseCache;
+
+    @GetMapping
+    public ApiResponse<ChatResponseCacheStats> getStats() {
+        return ApiResponse.success(chatResponseCache.getStats());
+    }
+
+    @PutMapping("/max-entries")
+    public ApiResponse<ChatResponseCacheStats> setMaxEntries(@RequestParam int maxEntries) {
+        return ApiResponse.success(chatResponseCache.setMaxEntries(maxEntries));
+    }
+
+    /**
+     * Purge the entry for one prompt, or every entry when no prompt is given
+     */
+    @DeleteMapping
+    public ApiResponse<Map<String, Object>> purge(@RequestParam(required = false) String prompt) {
+        if (prompt != null) {
+            return ApiResponse.success(Map.of("removed", chatResponseCache.purge(prompt)));
+        }
+        return ApiResponse.success(Map.of("deletedKeys", chatResponseCache.purgeAll()));
+    }
+}
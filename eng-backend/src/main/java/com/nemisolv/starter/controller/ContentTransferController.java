@@ -0,0 +1,86 @@
+package com.nemisolv.starter.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nemisolv.starter.payload.content.ContentImportResult;
+import com.nemisolv.starter.payload.content.ContentImportSummary;
+import com.nemisolv.starter.service.content.ContentTransferService;
+import com.nemisolv.starter.util.JwtUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Bulk course import/export as NDJSON streams, one {@code CourseBundle} (course + lessons) per line
+ *
+ * Import takes the raw request body: NDJSON, a JSON array, or a ZIP of .json/.ndjson files
+ * ({@code Content-Type: application/zip}). The response streams one result line per record as
+ * each chunk is written, followed by a summary line.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/content")
+@PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+public class ContentTransferController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ContentTransferService contentTransferService;
+    private final ObjectWriter lineWriter;
+
+    public ContentTransferController(ContentTransferService contentTransferService, ObjectMapper objectMapper) {
+        this.contentTransferService = contentTransferService;
+        this.lineWriter = objectMapper.writer();
+    }
+
+    @PostMapping("/import")
+    public void importContent(HttpServletRequest request,
+                              HttpServletResponse response,
+                              @AuthenticationPrincipal Jwt jwt) throws IOException {
+        Long userId = JwtUtils.getUserId(jwt).longValue();
+        boolean zip = request.getContentType() != null && request.getContentType().toLowerCase(Locale.ROOT).contains("zip");
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        ContentImportSummary summary = contentTransferService.importContent(request.getInputStream(), zip, userId,
+                results -> {
+                    try {
+                        for (ContentImportResult result : results) {
+                            writeLine(out, result);
+                        }
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        writeLine(out, summary);
+        out.flush();
+    }
+
+    @GetMapping("/export")
+    public void exportContent(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("courses-" + LocalDate.now() + ".ndjson")
+                .build()
+                .toString());
+        contentTransferService.exportContent(response.getOutputStream());
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(lineWriter.writeValueAsBytes(value));
+        out.write('\n');
+    }
+}
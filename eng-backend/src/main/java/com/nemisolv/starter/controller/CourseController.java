@@ -4,19 +4,27 @@ import com.nemisolv.starter.payload.ApiResponse;
 import com.nemisolv.starter.payload.PagedResponse;
 import com.nemisolv.starter.payload.course.CourseRequest;
 import com.nemisolv.starter.payload.course.CourseResponse;
+import com.nemisolv.starter.payload.course.CourseTreeResponse;
 import com.nemisolv.starter.payload.course.LessonRequest;
 import com.nemisolv.starter.payload.course.LessonResponseDto;
+import com.nemisolv.starter.service.CourseOutlineService;
 import com.nemisolv.starter.service.CourseService;
 import com.nemisolv.starter.service.LessonService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import com.nemisolv.starter.pagination.Pageable;
 import com.nemisolv.starter.pagination.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -24,8 +32,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CourseController {
 
+    private static final String OUTLINE_VERSION_HEADER = "X-Outline-Version";
+
     private final CourseService courseService;
     private final LessonService lessonService;
+    private final CourseOutlineService courseOutlineService;
 
     @GetMapping
     public ApiResponse<PagedResponse<CourseResponse>> getAllCourses(
@@ -57,12 +68,54 @@ public class CourseController {
         return ApiResponse.success(course);
     }
 
+    /**
+     * Course with ordered lessons and their exercises, for the course overview page
+     */
+    @GetMapping("/{id}/tree")
+    public ApiResponse<CourseTreeResponse> getCourseTree(
+            @PathVariable Long id,
+            @RequestParam(required = false) Boolean isPublished
+    ) {
+        return ApiResponse.success(courseService.getCourseTree(id, isPublished));
+    }
+
     @GetMapping("/slug/{slug}")
     public ApiResponse<CourseResponse> getCourseBySlug(@PathVariable String slug) {
         CourseResponse course = courseService.getCourseBySlug(slug);
         return ApiResponse.success(course);
     }
 
+    /**
+     * Precomputed course page document; with {@code version} the response is immutable.
+     * Gzip-accepting clients get the stored gzip bytes as-is.
+     */
+    @GetMapping("/slug/{slug}/outline")
+    public ResponseEntity<byte[]> getCourseOutline(
+            @PathVariable String slug,
+            @RequestParam(required = false) Long version,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
+    ) {
+        CourseOutlineService.CourseOutlineSnapshot outline = courseOutlineService.getOutline(slug, version);
+        String eTag = "\"" + slug + "-v" + outline.version() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(OUTLINE_VERSION_HEADER, Long.toString(outline.version()))
+                .cacheControl(version != null
+                        ? CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable()
+                        : CacheControl.noCache().cachePrivate());
+        if (outline.gzipped() && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(outline.body());
+        }
+        return response.body(outline.json());
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     public ApiResponse<CourseResponse> createCourse(
@@ -1,4 +1,5 @@
 package com.nemisolv.starter.controller;
+import com.nemisolv.starter.annotation.AIConcurrencyLimit;
 import com.nemisolv.starter.payload.ai.GrammarCheckRequest;
 import com.nemisolv.starter.payload.ai.GrammarCheckResponse;
 import com.nemisolv.starter.security.UserPrincipal;
@@ -22,6 +23,7 @@ public class GrammarController {
 
     @PostMapping("/grammar/check")
     @PreAuthorize("isAuthenticated()")
+    @AIConcurrencyLimit("grammar")
     public ResponseEntity<GrammarCheckResponse> checkGrammar(@Valid @RequestBody GrammarCheckRequest grammarRequest,
                                                              @AuthenticationPrincipal UserPrincipal currentUser) {
         GrammarCheckResponse response = grammarAIService.checkGrammar(grammarRequest);
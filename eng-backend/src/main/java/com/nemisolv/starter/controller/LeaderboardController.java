@@ -0,0 +1,41 @@
+package com.nemisolv.starter.controller;
+
+import com.nemisolv.starter.payload.ApiResponse;
+import com.nemisolv.starter.payload.leaderboard.LeaderboardResponse;
+import com.nemisolv.starter.payload.leaderboard.LeaderboardStanding;
+import com.nemisolv.starter.service.leaderboard.LeaderboardService;
+import com.nemisolv.starter.service.leaderboard.LeaderboardType;
+import com.nemisolv.starter.util.JwtUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Learner rankings: {@code xp}, {@code weekly-xp}, {@code course-xp} (needs courseId) and {@code streak}
+ */
+@RestController
+@RequestMapping("/api/v1/leaderboards")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping("/{board}")
+    public ApiResponse<LeaderboardResponse> getTop(
+            @PathVariable String board,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) Integer limit) {
+        return ApiResponse.success(leaderboardService.top(LeaderboardType.fromSlug(board), courseId, limit));
+    }
+
+    @GetMapping("/{board}/me")
+    public ApiResponse<LeaderboardStanding> getMyStanding(
+            @PathVariable String board,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) Integer neighbors,
+            @AuthenticationPrincipal Jwt jwt) {
+        Long userId = JwtUtils.getUserId(jwt).longValue();
+        return ApiResponse.success(leaderboardService.standing(LeaderboardType.fromSlug(board), courseId, userId, neighbors));
+    }
+}
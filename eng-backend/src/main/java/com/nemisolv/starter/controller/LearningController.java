@@ -12,6 +12,8 @@ import com.nemisolv.starter.payload.response.ProgressResponse;
 import com.nemisolv.starter.payload.response.AIResponse;
 
 import com.nemisolv.starter.service.ChatAIService;
+import com.nemisolv.starter.service.progress.ProgressAggregator;
+import com.nemisolv.starter.util.JwtUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,7 +36,13 @@ import java.util.Map;
 @Slf4j
 public class LearningController {
     
+    /**
+     * Optional client-generated key per activity; a retried request with the same key is counted once
+     */
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final ChatAIService chatAIService;
+    private final ProgressAggregator progressAggregator;
     /**
      * Start a lesson - logs learning activity for AI analysis
      */
@@ -75,9 +83,12 @@ public class LearningController {
             @PathVariable String lessonId,
             @RequestParam int score,
             @RequestParam int timeSpent,
+            @RequestParam(required = false) Long courseId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal Jwt jwt) {
         
         String lessonTitle = "Lesson " + lessonId;
+        progressAggregator.recordLessonCompleted(JwtUtils.getUserId(jwt).longValue(), courseId, idempotencyKey, timeSpent);
         
         LessonResponse response = LessonResponse.completed(lessonId, lessonTitle, score, timeSpent);
         
@@ -100,9 +111,12 @@ public class LearningController {
             @PathVariable String quizId,
             @RequestParam int score,
             @RequestParam int totalQuestions,
+            @RequestParam(required = false) Long courseId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal Jwt jwt) {
         
         String quizTitle = "Quiz " + quizId;
+        progressAggregator.recordQuizAttempted(JwtUtils.getUserId(jwt).longValue(), courseId, idempotencyKey, Math.min(score, totalQuestions));
         
         QuizResponse response = QuizResponse.completed(quizId, quizTitle, score, totalQuestions);
         
@@ -125,8 +139,11 @@ public class LearningController {
             @PathVariable String videoId,
             @RequestParam int watchDuration,
             @RequestParam int totalDuration,
+            @RequestParam(required = false) Long courseId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal Jwt jwt) {
         
+        progressAggregator.recordVideoWatched(JwtUtils.getUserId(jwt).longValue(), courseId, idempotencyKey, watchDuration);
         
         Map<String, Object> response = new HashMap<>();
         response.put("videoId", videoId);
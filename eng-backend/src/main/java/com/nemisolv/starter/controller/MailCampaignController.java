@@ -0,0 +1,35 @@
+package com.nemisolv.starter.controller;
+
+import com.nemisolv.starter.enums.ApiResponseCode;
+import com.nemisolv.starter.exception.NotFoundException;
+import com.nemisolv.starter.payload.ApiResponse;
+import com.nemisolv.starter.payload.admin.MailCampaignProgress;
+import com.nemisolv.starter.service.mail.BulkMailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Progress of recent bulk mail campaigns on this node
+ */
+@RestController
+@RequestMapping("/api/v1/admin/mail-campaigns")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class MailCampaignController {
+
+    private final BulkMailService bulkMailService;
+
+    @GetMapping
+    public ApiResponse<List<MailCampaignProgress>> getCampaigns() {
+        return ApiResponse.success(bulkMailService.getCampaigns());
+    }
+
+    @GetMapping("/{id}")
+    public ApiResponse<MailCampaignProgress> getCampaign(@PathVariable String id) {
+        return ApiResponse.success(bulkMailService.getCampaign(id)
+                .orElseThrow(() -> new NotFoundException(ApiResponseCode.RESOURCE_NOT_FOUND, "MailCampaign", id)));
+    }
+}
@@ -1,13 +1,16 @@
 package com.nemisolv.starter.controller;
 
+import com.nemisolv.starter.config.PlatformStatsProperties;
 import com.nemisolv.starter.payload.ApiResponse;
 import com.nemisolv.starter.payload.stats.PlatformStatsResponse;
 import com.nemisolv.starter.service.StatsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/platform")
@@ -15,10 +18,20 @@ import org.springframework.web.bind.annotation.RestController;
 public class PlatformController {
 
     private final StatsService statsService;
+    private final PlatformStatsProperties platformStatsProperties;
 
+    /**
+     * Public and cacheable; a matching If-None-Match is answered 304 without a body
+     */
     @GetMapping("/stats")
-    public ResponseEntity<ApiResponse<PlatformStatsResponse>> getPlatformStats() {
-        PlatformStatsResponse stats = statsService.getPlatformStats();
-        return ResponseEntity.ok(ApiResponse.success(stats));
+    public ResponseEntity<ApiResponse<PlatformStatsResponse>> getPlatformStats(WebRequest request) {
+        StatsService.PlatformStatsSnapshot snapshot = statsService.getPlatformStatsSnapshot();
+        if (request.checkNotModified(snapshot.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(platformStatsProperties.getMaxAge()).cachePublic())
+                .eTag(snapshot.eTag())
+                .body(ApiResponse.success(snapshot.stats()));
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.nemisolv.starter.controller;
 
+import com.nemisolv.starter.annotation.AIConcurrencyLimit;
 import com.nemisolv.starter.payload.ai.PronunciationRequest;
 import com.nemisolv.starter.payload.ai.PronunciationResponse;
 import com.nemisolv.starter.security.UserPrincipal;
@@ -58,6 +59,7 @@ public class PronunciationController {
      */
     @PostMapping("/analyze")
     @PreAuthorize("isAuthenticated()")
+    @AIConcurrencyLimit("pronunciation")
     public ResponseEntity<PronunciationResponse> analyzePronunciation(
             @Valid @RequestBody PronunciationRequest request,
             @AuthenticationPrincipal UserPrincipal currentUser) {
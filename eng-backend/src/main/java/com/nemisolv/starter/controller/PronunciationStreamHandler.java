@@ -0,0 +1,279 @@
+package com.nemisolv.starter.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.payload.ai.PronunciationStreamEvent;
+import com.nemisolv.starter.service.ai.AIConcurrencyLimiters;
+import com.nemisolv.starter.service.ai.AdaptiveConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming pronunciation assessment over WebSocket
+ *
+ * The learner's audio chunks (16 kHz mono PCM16, binary frames) are relayed to the AI
+ * service's /pronunciation/stream socket as they arrive; partial word scores come back
+ * while the learner is still speaking, followed by the full result after the {@code end} frame.
+ *
+ * Each connection holds a "pronunciation-stream" concurrency permit for its lifetime and
+ * buffers at most {@code max-buffered-chunks} chunks; a client that outruns the upstream
+ * is closed instead of growing the buffer. Session length is mostly the learner speaking, so
+ * it is never sampled as latency; only upstream failures feed the limiter.
+ */
+@Slf4j
+@Component
+public class PronunciationStreamHandler extends AbstractWebSocketHandler {
+
+    private static final String STATE_ATTRIBUTE = "pronunciationStream";
+    private static final String OPERATION = "pronunciation-stream";
+    private static final CloseStatus TRY_AGAIN_LATER = new CloseStatus(1013, "Service is busy");
+
+    private final WebSocketClient upstreamClient = new ReactorNettyWebSocketClient();
+    private final URI upstreamUri;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper upstreamMapper;
+    private final AIConcurrencyLimiters limiters;
+    private final AIServiceProperties.PronunciationStream config;
+
+    public PronunciationStreamHandler(@Value("${ai.service.url}") String aiServiceUrl,
+                                      ObjectMapper objectMapper,
+                                      AIConcurrencyLimiters limiters,
+                                      AIServiceProperties aiServiceProperties) {
+        this.upstreamUri = URI.create(aiServiceUrl.replaceFirst("^http", "ws") + "/api/v1/pronunciation/stream");
+        this.objectMapper = objectMapper;
+        // The AI service speaks snake_case
+        this.upstreamMapper = objectMapper.copy().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        this.limiters = limiters;
+        this.config = aiServiceProperties.getPronunciationStream();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        AdaptiveConcurrencyLimiter.Permit permit = null;
+        if (limiters.isEnabled()) {
+            boolean priority = isPriorityCaller(session);
+            permit = limiters.get(OPERATION).tryAcquire(priority);
+            if (permit == null) {
+                limiters.recordShed(OPERATION, priority);
+                log.warn("Shedding pronunciation stream for session {}", session.getId());
+                session.close(TRY_AGAIN_LATER);
+                return;
+            }
+        }
+
+        WebSocketSession client = new ConcurrentWebSocketSessionDecorator(session,
+                (int) config.getSendTimeLimit().toMillis(), config.getSendBufferBytes());
+        session.getAttributes().put(STATE_ATTRIBUTE, new StreamState(client, permit, extractUserId(session)));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        StreamState state = (StreamState) session.getAttributes().get(STATE_ATTRIBUTE);
+        if (state == null) {
+            return;
+        }
+
+        PronunciationStreamEvent event = objectMapper.readValue(message.getPayload(), PronunciationStreamEvent.class);
+        if (PronunciationStreamEvent.START.equals(event.getType())) {
+            if (state.upstream != null || event.getTargetText() == null || event.getTargetText().isBlank()) {
+                fail(state, CloseStatus.POLICY_VIOLATION, "Send exactly one start frame with a targetText");
+                return;
+            }
+            openUpstream(state, event.getTargetText());
+        } else if (PronunciationStreamEvent.END.equals(event.getType())) {
+            if (state.upstream == null) {
+                fail(state, CloseStatus.POLICY_VIOLATION, "Stream was not started");
+                return;
+            }
+            emit(state, Frame.text(upstreamMapper.writeValueAsString(Map.of("type", PronunciationStreamEvent.END))));
+            state.frames.tryEmitComplete();
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        StreamState state = (StreamState) session.getAttributes().get(STATE_ATTRIBUTE);
+        if (state == null) {
+            return;
+        }
+        if (state.upstream == null) {
+            fail(state, CloseStatus.POLICY_VIOLATION, "Send a start frame before audio");
+            return;
+        }
+
+        byte[] chunk = new byte[message.getPayloadLength()];
+        message.getPayload().get(chunk);
+        emit(state, Frame.binary(chunk));
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.warn("Pronunciation stream transport error on session {}: {}", session.getId(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        StreamState state = (StreamState) session.getAttributes().remove(STATE_ATTRIBUTE);
+        if (state != null) {
+            state.close();
+        }
+    }
+
+    private void openUpstream(StreamState state, String targetText) throws IOException {
+        Map<String, Object> start = new LinkedHashMap<>();
+        start.put("type", PronunciationStreamEvent.START);
+        start.put("target_text", targetText);
+        start.put("user_id", state.userId);
+        state.frames.tryEmitNext(Frame.text(upstreamMapper.writeValueAsString(start)));
+
+        state.upstream = upstreamClient.execute(upstreamUri, upstream -> upstream
+                        .send(state.frames.asFlux().map(frame -> frame.toMessage(upstream)))
+                        .and(upstream.receive()
+                                .map(WebSocketMessage::getPayloadAsText)
+                                .doOnNext(payload -> relayToClient(state, payload))
+                                .then()))
+                .timeout(config.getMaxSessionDuration())
+                .subscribe(
+                        done -> { },
+                        error -> {
+                            log.error("Pronunciation stream upstream failed: {}", error.getMessage());
+                            limiters.recordFailure(OPERATION);
+                            fail(state, CloseStatus.SERVER_ERROR, "Pronunciation service unavailable");
+                        },
+                        () -> closeQuietly(state.client, CloseStatus.NORMAL));
+    }
+
+    private void relayToClient(StreamState state, String upstreamPayload) {
+        try {
+            PronunciationStreamEvent event = upstreamMapper.readValue(upstreamPayload, PronunciationStreamEvent.class);
+            if (PronunciationStreamEvent.FINAL.equals(event.getType())) {
+                log.info("Pronunciation stream completed for user {}. Overall score: {}/100",
+                        state.userId, event.getOverallScore());
+            }
+            state.client.sendMessage(new TextMessage(objectMapper.writeValueAsString(event)));
+        } catch (Exception e) {
+            log.warn("Failed to relay pronunciation stream event: {}", e.getMessage());
+        }
+    }
+
+    private void emit(StreamState state, Frame frame) {
+        Sinks.EmitResult result = state.frames.tryEmitNext(frame);
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            fail(state, CloseStatus.TOO_BIG_TO_PROCESS, "Audio is arriving faster than it can be processed");
+        } else if (result.isFailure()) {
+            log.debug("Dropped pronunciation stream frame: {}", result);
+        }
+    }
+
+    private void fail(StreamState state, CloseStatus status, String reason) {
+        try {
+            if (state.client.isOpen()) {
+                state.client.sendMessage(new TextMessage(objectMapper.writeValueAsString(PronunciationStreamEvent.error(reason))));
+            }
+        } catch (Exception e) {
+            log.debug("Could not send pronunciation stream error: {}", e.getMessage());
+        }
+        closeQuietly(state.client, status);
+    }
+
+    private void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            if (session.isOpen()) {
+                session.close(status);
+            }
+        } catch (IOException e) {
+            log.debug("Error closing pronunciation stream session: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPriorityCaller(WebSocketSession session) {
+        if (!(session.getPrincipal() instanceof Authentication authentication)) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(limiters.getConfig().getPriorityRoles()::contains);
+    }
+
+    private Integer extractUserId(WebSocketSession session) {
+        if (session.getPrincipal() instanceof JwtAuthenticationToken token
+                && token.getToken().getClaim("userId") instanceof Number userId) {
+            return userId.intValue();
+        }
+        return null;
+    }
+
+    /**
+     * Per-connection state
+     */
+    private final class StreamState {
+        private final WebSocketSession client;
+        private final AdaptiveConcurrencyLimiter.Permit permit;
+        private final Integer userId;
+        private final Sinks.Many<Frame> frames;
+        private volatile Disposable upstream;
+
+        private StreamState(WebSocketSession client, AdaptiveConcurrencyLimiter.Permit permit, Integer userId) {
+            this.client = client;
+            this.permit = permit;
+            this.userId = userId;
+            this.frames = Sinks.many().unicast().onBackpressureBuffer(
+                    Queues.<Frame>get(config.getMaxBufferedChunks()).get());
+        }
+
+        /**
+         * Upstream failures are reported to the limiter where they happen; a client hanging up is not an overload signal
+         */
+        private void close() {
+            frames.tryEmitComplete();
+            if (upstream != null) {
+                upstream.dispose();
+            }
+            if (permit != null) {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Audio chunk or control message waiting to be sent upstream
+     */
+    private record Frame(byte[] audio, String text) {
+
+        static Frame binary(byte[] audio) {
+            return new Frame(audio, null);
+        }
+
+        static Frame text(String text) {
+            return new Frame(null, text);
+        }
+
+        WebSocketMessage toMessage(org.springframework.web.reactive.socket.WebSocketSession upstream) {
+            return audio != null
+                    ? upstream.binaryMessage(factory -> factory.wrap(audio))
+                    : upstream.textMessage(text);
+        }
+    }
+}
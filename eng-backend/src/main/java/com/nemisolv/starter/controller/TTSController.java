@@ -1,5 +1,6 @@
 package com.nemisolv.starter.controller;
 
+import com.nemisolv.starter.annotation.AIConcurrencyLimit;
 import com.nemisolv.starter.payload.ai.TTSRequest;
 import com.nemisolv.starter.payload.ai.TTSResponse;
 import com.nemisolv.starter.payload.ai.VoicesListResponse;
@@ -52,6 +53,7 @@ public class TTSController {
      */
     @PostMapping("/synthesize")
     @PreAuthorize("isAuthenticated()")
+    @AIConcurrencyLimit("tts")
     public ResponseEntity<TTSResponse> synthesizeSpeech(
             @Valid @RequestBody TTSRequest request,
             @AuthenticationPrincipal UserPrincipal currentUser) {
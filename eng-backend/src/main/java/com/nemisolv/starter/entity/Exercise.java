@@ -0,0 +1,37 @@
+package com.nemisolv.starter.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exercise row without its JSON {@code content}, which only the exercise player needs
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Exercise {
+    private Long id;
+    private Long lessonId;
+    private Long exerciseTypeId;
+    private String title;
+    private String description;
+    private DifficultyLevel difficultyLevel;
+    private Integer points;
+    private Integer timeLimit;
+    private Integer maxAttempts;
+    private Integer sortOrder;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public enum DifficultyLevel {
+        EASY,
+        MEDIUM,
+        HARD
+    }
+}
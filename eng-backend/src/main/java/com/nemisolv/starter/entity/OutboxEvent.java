@@ -0,0 +1,38 @@
+package com.nemisolv.starter.entity;
+
+import com.nemisolv.starter.util.DbUtil;
+import lombok.Builder;
+import lombok.Data;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Row of the transactional outbox: a serialized domain event waiting to be relayed
+ */
+@Builder
+@Data
+public class OutboxEvent {
+    private Long id;
+    private String eventId;
+    private String topic;
+    private String eventKey;
+    private String eventType;
+    private String payload;
+    private int attempts;
+    private LocalDateTime createdAt;
+
+    public static OutboxEvent fromRs(ResultSet rs) throws SQLException {
+        return OutboxEvent.builder()
+                .id(rs.getLong("id"))
+                .eventId(rs.getString("event_id"))
+                .topic(rs.getString("topic"))
+                .eventKey(rs.getString("event_key"))
+                .eventType(rs.getString("event_type"))
+                .payload(rs.getString("payload"))
+                .attempts(rs.getInt("attempts"))
+                .createdAt(DbUtil.toLocalDatetime(rs.getTimestamp("created_at")))
+                .build();
+    }
+}
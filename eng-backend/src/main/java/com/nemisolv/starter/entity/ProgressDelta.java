@@ -0,0 +1,26 @@
+package com.nemisolv.starter.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Progress a user made on one day, added onto user_stats and that day's learning_streaks row
+ * courseId is set when the activity belonged to a course (used by per-course leaderboards)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressDelta {
+    private Long userId;
+    private LocalDate date;
+    private Long courseId;
+    private int xp;
+    private int studyMinutes;
+    private int lessonsCompleted;
+    private int exercisesCompleted;
+}
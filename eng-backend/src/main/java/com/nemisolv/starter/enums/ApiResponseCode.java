@@ -39,6 +39,7 @@ public enum ApiResponseCode {
     ACCESS_DENIED(4031, "Access denied"),
     CONFLICT(4009, "Resource conflict"),
     DATABASE_ERROR(5001, "Database error occurred"),
+    SERVICE_OVERLOADED(5003, "Service is busy. Please retry shortly"),
 
     OPERATION_FAILED(5000, "Operation failed"),
 
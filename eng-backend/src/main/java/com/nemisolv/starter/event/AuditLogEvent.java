@@ -0,0 +1,16 @@
+package com.nemisolv.starter.event;
+
+import com.nemisolv.starter.entity.AuditLog;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An audit entry to persist; the entry's requestId doubles as the event id
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogEvent {
+    private AuditLog auditLog;
+}
@@ -0,0 +1,22 @@
+package com.nemisolv.starter.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A course or one of its lessons was written; published inside the writing transaction
+ * and handled once it commits
+ */
+@Data
+@AllArgsConstructor
+public class CourseChangedEvent {
+    private Long courseId;
+    /**
+     * Slug the course had before this change (rename or delete), so its outline can be dropped
+     */
+    private String previousSlug;
+
+    public static CourseChangedEvent of(Long courseId) {
+        return new CourseChangedEvent(courseId, null);
+    }
+}
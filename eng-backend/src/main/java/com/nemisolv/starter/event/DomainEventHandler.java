@@ -0,0 +1,15 @@
+package com.nemisolv.starter.event;
+
+import java.util.List;
+
+/**
+ * Consumer side of one event type
+ * Called by its Kafka listener, or directly by the outbox relay when Kafka is disabled.
+ * Delivery is at-least-once, so implementations must tolerate redelivered events.
+ */
+public interface DomainEventHandler<E> {
+
+    Class<E> eventType();
+
+    void handle(List<E> events);
+}
@@ -0,0 +1,23 @@
+package com.nemisolv.starter.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A transactional email to render and send (verification, password reset, welcome)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailRequestedEvent {
+    private String eventId;
+    private String to;
+    private String subject;
+    private String templateName;
+    private Map<String, Object> variables;
+}
@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -81,6 +82,30 @@ public class GlobalExceptionHandler {
 
 
 
+    /**
+     * Load shedding - answer fast with 503 and tell the client when to come back
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(
+            ServiceOverloadedException ex, HttpServletRequest request) {
+        log.warn("Request shed on {}: {}", request.getRequestURI(), ex.getMetadata());
+
+        HttpStatus status = ex.getHttpStatus();
+
+        ErrorResponse response = ErrorResponse.builder()
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .code(String.valueOf(ex.getCode()))
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .requestId(getRequestId())
+                .build();
+
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(ClientBaseException.class)
     public ResponseEntity<ErrorResponse> handleApplicationException(
             ClientBaseException ex, HttpServletRequest request) {
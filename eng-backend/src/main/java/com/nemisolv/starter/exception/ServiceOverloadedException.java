@@ -0,0 +1,22 @@
+package com.nemisolv.starter.exception;
+
+import com.nemisolv.starter.enums.ApiResponseCode;
+import com.nemisolv.starter.exception.base.ServerBaseException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request is shed because a downstream dependency is saturated
+ * Always returns HTTP 503 Service Unavailable with a Retry-After hint
+ */
+public class ServiceOverloadedException extends ServerBaseException {
+
+    public ServiceOverloadedException(String operation, long retryAfterSeconds) {
+        super(ApiResponseCode.SERVICE_OVERLOADED, HttpStatus.SERVICE_UNAVAILABLE);
+        this.withMetadata("operation", operation);
+        this.withMetadata("retryAfter", retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return (long) getMetadata().getOrDefault("retryAfter", 1L);
+    }
+}
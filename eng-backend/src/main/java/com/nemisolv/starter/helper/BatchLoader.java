@@ -0,0 +1,133 @@
+package com.nemisolv.starter.helper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * DataLoader-style batching and memoization for JDBC lookups
+ *
+ * Collect the keys a request needs, call {@link #loadMany} once and the batch function runs one
+ * {@code ... WHERE id IN (:ids)} query for the keys not loaded yet (chunked at {@code maxBatchSize}).
+ * Results, including misses, are remembered, so assembling a tree costs one query per level
+ * instead of one per row.
+ *
+ * Create one per request or service call; it is not thread-safe and never expires entries.
+ *
+ * <pre>
+ * BatchLoader&lt;Long, List&lt;Lesson&gt;&gt; lessons = BatchLoader.grouping(lessonRepository::findByCourseIdIn, Lesson::getCourseId);
+ * Map&lt;Long, List&lt;Lesson&gt;&gt; byCourse = lessons.loadMany(courseIds);
+ * </pre>
+ */
+public final class BatchLoader<K, V> {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final V missingValue;
+    private final int maxBatchSize;
+    private final Map<K, V> loaded = new HashMap<>();
+    private int batches;
+
+    private BatchLoader(Function<Set<K>, Map<K, V>> batchFunction, V missingValue, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.missingValue = missingValue;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * One value per key; keys absent from the batch result are reported as missing
+     */
+    public static <K, V> BatchLoader<K, V> of(Function<Set<K>, Map<K, V>> batchFunction) {
+        return new BatchLoader<>(batchFunction, null, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * One value per key from a batch returning rows; {@code keyOf} extracts each row's key
+     */
+    public static <K, V> BatchLoader<K, V> byKey(Function<Set<K>, ? extends Collection<V>> batchFunction,
+                                                 Function<V, K> keyOf) {
+        return of(keys -> {
+            Map<K, V> values = new HashMap<>();
+            batchFunction.apply(keys).forEach(value -> values.put(keyOf.apply(value), value));
+            return values;
+        });
+    }
+
+    /**
+     * One-to-many: rows grouped by {@code keyOf} in batch order; keys without rows load as an empty list
+     */
+    public static <K, V> BatchLoader<K, List<V>> grouping(Function<Set<K>, ? extends Collection<V>> batchFunction,
+                                                          Function<V, K> keyOf) {
+        return new BatchLoader<>(keys -> {
+            Map<K, List<V>> groups = new HashMap<>();
+            batchFunction.apply(keys).forEach(value ->
+                    groups.computeIfAbsent(keyOf.apply(value), key -> new ArrayList<>()).add(value));
+            return groups;
+        }, List.of(), DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Values for {@code keys} in the order given, loading unseen keys in as few batches as possible;
+     * missing keys are left out (or map to an empty list for {@link #grouping} loaders)
+     */
+    public Map<K, V> loadMany(Collection<K> keys) {
+        Set<K> pending = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (key != null && !loaded.containsKey(key)) {
+                pending.add(key);
+            }
+        }
+        dispatch(pending);
+
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = key != null ? loaded.get(key) : null;
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    public Optional<V> load(K key) {
+        return Optional.ofNullable(loadMany(List.of(key)).get(key));
+    }
+
+    /**
+     * Seed a value already fetched elsewhere so it is not queried again
+     */
+    public void prime(K key, V value) {
+        loaded.put(key, value);
+    }
+
+    /**
+     * Number of batch queries issued so far
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    private void dispatch(Set<K> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(pending);
+        for (int from = 0; from < keys.size(); from += maxBatchSize) {
+            Set<K> chunk = new LinkedHashSet<>(keys.subList(from, Math.min(from + maxBatchSize, keys.size())));
+            Map<K, V> values = batchFunction.apply(chunk);
+            batches++;
+            for (K key : chunk) {
+                V value = values.get(key);
+                loaded.put(key, value != null ? value : missingValue);
+            }
+        }
+    }
+}
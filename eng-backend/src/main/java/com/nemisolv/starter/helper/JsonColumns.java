@@ -0,0 +1,71 @@
+package com.nemisolv.starter.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * JSON columns read and written with the application ObjectMapper
+ *
+ * Readers are bound to their target type once instead of resolving a {@code TypeReference} per
+ * call. Values are decoded into plain {@code ArrayList}/{@code LinkedHashMap}, so they serialize
+ * like any other field in JSON responses and Redis caches. Unparseable JSON reads as empty.
+ */
+@Slf4j
+@Component
+public class JsonColumns {
+
+    private final ObjectReader stringListReader;
+    private final ObjectReader objectMapReader;
+    private final ObjectWriter writer;
+
+    public JsonColumns(ObjectMapper objectMapper) {
+        this.stringListReader = objectMapper.readerFor(new TypeReference<List<String>>() {});
+        this.objectMapReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {});
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * JSON array column as a list; empty for SQL NULL
+     */
+    public List<String> stringList(String json) {
+        if (json == null || json.isBlank()) {
+            return new ArrayList<>();
+        }
+        return decode(stringListReader, json, ArrayList::new);
+    }
+
+    /**
+     * JSON object column as a map; null for SQL NULL or blank
+     */
+    public Map<String, Object> objectMap(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        return decode(objectMapReader, json, LinkedHashMap::new);
+    }
+
+    public String write(Object value) throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+
+    private static <T> T decode(ObjectReader reader, String json, Supplier<T> empty) {
+        try {
+            T value = reader.readValue(json);
+            return value != null ? value : empty.get();
+        } catch (Exception e) {
+            log.warn("Could not decode JSON column: {}", e.getMessage());
+            return empty.get();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.nemisolv.starter.payload.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailCampaignProgress {
+    private String id;
+    private String name;
+    private String status;
+    private long submitted;
+    private long sent;
+    private long failed;
+    private long retried;
+    private long pending;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
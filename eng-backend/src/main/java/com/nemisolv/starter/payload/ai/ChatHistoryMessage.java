@@ -0,0 +1,29 @@
+package com.nemisolv.starter.payload.ai;
+
+import com.nemisolv.starter.entity.ChatMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryMessage {
+    private Long id;
+    private String role;
+    private String content;
+    private LocalDateTime createdAt;
+
+    public static ChatHistoryMessage from(ChatMessage message) {
+        return ChatHistoryMessage.builder()
+                .id(message.getId())
+                .role(message.getRole())
+                .content(message.getContent())
+                .createdAt(message.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.nemisolv.starter.payload.ai;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of chat history, oldest message first
+ * Pass {@code nextCursor} as {@code before} to load the previous (older) page
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatHistoryPage {
+    private String sessionId;
+    private List<ChatHistoryMessage> messages;
+    private String nextCursor;
+    private boolean hasMore;
+}
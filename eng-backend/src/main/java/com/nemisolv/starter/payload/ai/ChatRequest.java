@@ -5,5 +5,23 @@ import lombok.Data;
 
 @Data
 public class ChatRequest {
+    /**
+     * Full conversation history (legacy clients) or the assembled context sent upstream
+     */
     private List<ChatMessage> messages;
-}
\ No newline at end of file
+
+    /**
+     * New user turn only; the server rebuilds the context from the session store
+     */
+    private String message;
+
+    /**
+     * Rolling summary of older turns, sent upstream together with the recent messages
+     */
+    private String summary;
+
+    /**
+     * Opt in to the shared answer cache; only honoured for single-turn, non-personal prompts
+     */
+    private Boolean cacheable;
+}
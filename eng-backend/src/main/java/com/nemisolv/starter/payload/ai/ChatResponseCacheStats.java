@@ -0,0 +1,16 @@
+package com.nemisolv.starter.payload.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatResponseCacheStats {
+    private boolean enabled;
+    private long entries;
+    private int maxEntries;
+}
@@ -0,0 +1,17 @@
+package com.nemisolv.starter.payload.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Several grammar checks sent to the AI service in one call
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GrammarCheckBatchRequest {
+    private List<GrammarCheckRequest> requests;
+}
@@ -0,0 +1,13 @@
+package com.nemisolv.starter.payload.ai;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Batched grammar checks results, in the same order as the requests
+ */
+@Data
+public class GrammarCheckBatchResponse {
+    private List<GrammarCheckResponse> results;
+}
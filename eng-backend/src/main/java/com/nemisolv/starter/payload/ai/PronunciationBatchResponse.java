@@ -0,0 +1,22 @@
+package com.nemisolv.starter.payload.ai;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Batched pronunciation analyses outcomes, in the same order as the requests
+ */
+@Data
+public class PronunciationBatchResponse {
+    private List<Item> results;
+
+    /**
+     * One analysis: {@code result} when it succeeded, otherwise {@code error}
+     */
+    @Data
+    public static class Item {
+        private PronunciationResponse result;
+        private String error;
+    }
+}
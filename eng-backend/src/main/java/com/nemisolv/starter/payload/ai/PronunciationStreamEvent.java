@@ -0,0 +1,50 @@
+package com.nemisolv.starter.payload.ai;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Text frame of the pronunciation stream
+ * - client -> server: {@code start} (with targetText), {@code end}
+ * - server -> client: {@code partial} (wordScores so far), {@code final} (full result), {@code error}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PronunciationStreamEvent {
+
+    public static final String START = "start";
+    public static final String END = "end";
+    public static final String PARTIAL = "partial";
+    public static final String FINAL = "final";
+    public static final String ERROR = "error";
+
+    private String type;
+
+    private String targetText;
+
+    private String recognizedText;
+
+    private List<WordScore> wordScores;
+
+    private Double overallScore;
+
+    private Double wordErrorRate;
+
+    private List<String> feedback;
+
+    private String message;
+
+    public static PronunciationStreamEvent error(String message) {
+        return PronunciationStreamEvent.builder().type(ERROR).message(message).build();
+    }
+}
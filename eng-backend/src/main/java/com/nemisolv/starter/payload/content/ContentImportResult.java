@@ -0,0 +1,39 @@
+package com.nemisolv.starter.payload.content;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one imported record, streamed back as one NDJSON line
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContentImportResult {
+
+    /**
+     * 1-based line the record starts on, counted per file (per ZIP entry for a ZIP upload);
+     * 0 when the parser could not tell
+     */
+    private long line;
+    /**
+     * ZIP entry the record came from
+     */
+    private String source;
+    private Status status;
+    private Long courseId;
+    private String slug;
+    private Integer lessons;
+    private List<String> errors;
+
+    public enum Status {
+        CREATED, FAILED
+    }
+}
@@ -0,0 +1,23 @@
+package com.nemisolv.starter.payload.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last line of an import response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentImportSummary {
+
+    private final boolean summary = true;
+    private long records;
+    private long created;
+    private long failed;
+    private long lessons;
+    private long durationMs;
+}
@@ -0,0 +1,29 @@
+package com.nemisolv.starter.payload.content;
+
+import com.nemisolv.starter.payload.course.CourseRequest;
+import com.nemisolv.starter.payload.course.LessonRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One course with its lessons, the unit of bulk import and export (one NDJSON line)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseBundle {
+
+    @Valid
+    @NotNull(message = "Course is required")
+    private CourseRequest course;
+
+    @Valid
+    private List<LessonRequest> lessons;
+}
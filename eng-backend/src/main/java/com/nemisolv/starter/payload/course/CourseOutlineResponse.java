@@ -0,0 +1,26 @@
+package com.nemisolv.starter.payload.course;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable course page document; counts are taken from the lessons it contains
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseOutlineResponse {
+    private long version;
+    private CourseResponse course;
+    private List<CourseTreeResponse.LessonNode> lessons;
+    private int lessonCount;
+    private int exerciseCount;
+    private int totalDuration;
+    private LocalDateTime generatedAt;
+}
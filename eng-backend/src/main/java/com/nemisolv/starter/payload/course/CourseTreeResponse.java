@@ -0,0 +1,80 @@
+package com.nemisolv.starter.payload.course;
+
+import com.nemisolv.starter.entity.Exercise;
+import com.nemisolv.starter.entity.Lesson;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Course with its ordered lessons and each lesson's active exercises (no lesson/exercise bodies)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseTreeResponse {
+    private CourseResponse course;
+    private List<LessonNode> lessons;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LessonNode {
+        private Long id;
+        private String title;
+        private String slug;
+        private Lesson.LessonType lessonType;
+        private Integer duration;
+        private Integer sortOrder;
+        private Boolean isPublished;
+        private Boolean isPreview;
+        private List<ExerciseNode> exercises;
+
+        public static LessonNode from(Lesson lesson, List<ExerciseNode> exercises) {
+            return LessonNode.builder()
+                    .id(lesson.getId())
+                    .title(lesson.getTitle())
+                    .slug(lesson.getSlug())
+                    .lessonType(lesson.getLessonType())
+                    .duration(lesson.getDuration())
+                    .sortOrder(lesson.getSortOrder())
+                    .isPublished(lesson.getIsPublished())
+                    .isPreview(lesson.getIsPreview())
+                    .exercises(exercises)
+                    .build();
+        }
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExerciseNode {
+        private Long id;
+        private Long exerciseTypeId;
+        private String title;
+        private Exercise.DifficultyLevel difficultyLevel;
+        private Integer points;
+        private Integer timeLimit;
+        private Integer maxAttempts;
+        private Integer sortOrder;
+
+        public static ExerciseNode from(Exercise exercise) {
+            return ExerciseNode.builder()
+                    .id(exercise.getId())
+                    .exerciseTypeId(exercise.getExerciseTypeId())
+                    .title(exercise.getTitle())
+                    .difficultyLevel(exercise.getDifficultyLevel())
+                    .points(exercise.getPoints())
+                    .timeLimit(exercise.getTimeLimit())
+                    .maxAttempts(exercise.getMaxAttempts())
+                    .sortOrder(exercise.getSortOrder())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.nemisolv.starter.payload.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+    /**
+     * 1-based position on the board
+     */
+    private long rank;
+    private Long userId;
+    private String username;
+    private long score;
+}
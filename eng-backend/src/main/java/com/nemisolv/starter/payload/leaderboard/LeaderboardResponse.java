@@ -0,0 +1,19 @@
+package com.nemisolv.starter.payload.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardResponse {
+    private String board;
+    private Long courseId;
+    private long totalParticipants;
+    private List<LeaderboardEntry> entries;
+}
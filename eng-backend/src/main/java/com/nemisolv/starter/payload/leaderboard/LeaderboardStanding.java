@@ -0,0 +1,24 @@
+package com.nemisolv.starter.payload.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A user's own position plus the learners just above and below them
+ * {@code me} is null while the user has no score on the board yet
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardStanding {
+    private String board;
+    private Long courseId;
+    private long totalParticipants;
+    private LeaderboardEntry me;
+    private List<LeaderboardEntry> neighbors;
+}
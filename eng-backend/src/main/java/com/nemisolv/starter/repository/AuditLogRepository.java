@@ -1,8 +1,8 @@
 package com.nemisolv.starter.repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nemisolv.starter.entity.AuditLog;
+import com.nemisolv.starter.helper.JsonColumns;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -27,7 +27,7 @@ public class AuditLogRepository {
     
     private final JdbcTemplate jdbcTemplate;
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
-    private final ObjectMapper objectMapper;
+    private final JsonColumns jsonColumns;
     
     private static final String INSERT_SQL = """
         INSERT INTO audit_logs (user_id, action, resource_type, resource_id, status, error_message, 
@@ -69,6 +69,33 @@ public class AuditLogRepository {
         }
     }
     
+    /**
+     * Batch insert for the audit consumer; entries whose request_id is already stored are skipped
+     */
+    public void saveAll(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL.strip() + " ON DUPLICATE KEY UPDATE id = id", auditLogs, auditLogs.size(),
+            (ps, auditLog) -> {
+                ps.setObject(1, auditLog.getUserId());
+                ps.setString(2, auditLog.getAction());
+                ps.setString(3, auditLog.getResourceType());
+                ps.setString(4, auditLog.getResourceId());
+                ps.setString(5, auditLog.getStatus());
+                ps.setString(6, auditLog.getErrorMessage());
+                ps.setString(7, auditLog.getIpAddress());
+                ps.setString(8, auditLog.getUserAgent());
+                ps.setString(9, auditLog.getSessionId());
+                ps.setString(10, auditLog.getRequestId());
+                ps.setString(11, mapToJson(auditLog.getMetadata()));
+                ps.setString(12, mapToJson(auditLog.getOldValues()));
+                ps.setString(13, mapToJson(auditLog.getNewValues()));
+                ps.setObject(14, auditLog.getEventTimestamp());
+                ps.setObject(15, auditLog.getCreatedAt());
+            });
+    }
+    
     public List<AuditLog> findByUserId(Long userId) {
         String sql = SELECT_BASE + " WHERE user_id = ? ORDER BY event_timestamp DESC";
         return jdbcTemplate.query(sql, this::mapRowToAuditLog, userId);
@@ -234,9 +261,9 @@ public class AuditLogRepository {
             .userAgent(rs.getString("user_agent"))
             .sessionId(rs.getString("session_id"))
             .requestId(rs.getString("request_id"))
-            .metadata(jsonToMap(rs.getString("metadata")))
-            .oldValues(jsonToMap(rs.getString("old_values")))
-            .newValues(jsonToMap(rs.getString("new_values")))
+            .metadata(jsonColumns.objectMap(rs.getString("metadata")))
+            .oldValues(jsonColumns.objectMap(rs.getString("old_values")))
+            .newValues(jsonColumns.objectMap(rs.getString("new_values")))
             .eventTimestamp(rs.getTimestamp("event_timestamp") != null ? 
                 rs.getTimestamp("event_timestamp").toLocalDateTime() : null)
             .createdAt(rs.getTimestamp("created_at") != null ? 
@@ -247,21 +274,10 @@ public class AuditLogRepository {
     private String mapToJson(Map<String, Object> map) {
         if (map == null) return null;
         try {
-            return objectMapper.writeValueAsString(map);
+            return jsonColumns.write(map);
         } catch (JsonProcessingException e) {
             log.error("Failed to convert map to JSON", e);
             return null;
         }
     }
-    
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> jsonToMap(String json) {
-        if (json == null || json.trim().isEmpty()) return null;
-        try {
-            return objectMapper.readValue(json, Map.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to convert JSON to map: {}", json, e);
-            return null;
-        }
-    }
 }
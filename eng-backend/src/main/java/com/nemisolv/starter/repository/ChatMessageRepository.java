@@ -4,15 +4,20 @@ import com.nemisolv.starter.entity.ChatMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @Slf4j
@@ -49,6 +54,55 @@ public class ChatMessageRepository {
         }
     }
 
+    /**
+     * Save several chat messages in one JDBC batch
+     * Generated ids are written back onto the given messages
+     */
+    public void saveAll(List<ChatMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO chat_messages (user_id, role, content, created_at, session_id) " +
+                     "VALUES (?, ?, ?, ?, ?)";
+
+        try {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ChatMessage message = messages.get(i);
+                        if (message.getCreatedAt() == null) {
+                            message.setCreatedAt(LocalDateTime.now());
+                        }
+                        ps.setInt(1, message.getUserId());
+                        ps.setString(2, message.getRole());
+                        ps.setString(3, message.getContent());
+                        ps.setObject(4, message.getCreatedAt());
+                        ps.setString(5, message.getSessionId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return messages.size();
+                    }
+                },
+                keyHolder);
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < keys.size() && i < messages.size(); i++) {
+                Object key = keys.get(i).values().stream().findFirst().orElse(null);
+                if (key instanceof Number number) {
+                    messages.get(i).setId(number.longValue());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error saving {} chat messages: {}", messages.size(), e.getMessage());
+            throw new RuntimeException("Failed to save chat messages", e);
+        }
+    }
+
     /**
      * Get chat history for a user
      */
@@ -83,6 +137,44 @@ public class ChatMessageRepository {
         }
     }
 
+    /**
+     * Get the most recent messages of a session, returned oldest first
+     */
+    public List<ChatMessage> findRecentBySessionId(String sessionId, int limit) {
+        List<ChatMessage> messages = new ArrayList<>(findPageBySessionId(sessionId, null, null, limit));
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * Keyset page of a session's messages, newest first, strictly older than the
+     * ({@code beforeCreatedAt}, {@code beforeId}) cursor when one is given.
+     *
+     * The inner query only touches idx_session_created_id (session_id, created_at, id),
+     * which covers it; full rows are fetched for the page ids alone, so cost is O(page)
+     * no matter how long the conversation is.
+     */
+    public List<ChatMessage> findPageBySessionId(String sessionId, LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        boolean hasCursor = beforeCreatedAt != null && beforeId != null;
+        String sql = "SELECT m.id, m.user_id, m.role, m.content, m.created_at, m.session_id " +
+                     "FROM chat_messages m " +
+                     "JOIN (SELECT id FROM chat_messages WHERE session_id = ? " +
+                     (hasCursor ? "AND (created_at < ? OR (created_at = ? AND id < ?)) " : "") +
+                     "ORDER BY created_at DESC, id DESC LIMIT ?) page ON page.id = m.id " +
+                     "ORDER BY m.created_at DESC, m.id DESC";
+
+        Object[] params = hasCursor
+                ? new Object[]{sessionId, beforeCreatedAt, beforeCreatedAt, beforeId, limit}
+                : new Object[]{sessionId, limit};
+
+        try {
+            return jdbcTemplate.query(sql, (rs, rowNum) -> ChatMessage.fromRs(rs), params);
+        } catch (Exception e) {
+            log.error("Error fetching messages page for session {}: {}", sessionId, e.getMessage());
+            return List.of();
+        }
+    }
+
     /**
      * Count total messages for a user
      */
@@ -1,12 +1,12 @@
 package com.nemisolv.starter.repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nemisolv.starter.entity.Course;
 import com.nemisolv.starter.entity.Course.DifficultyLevel;
+import com.nemisolv.starter.helper.JsonColumns;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
@@ -14,7 +14,10 @@ import org.springframework.stereotype.Repository;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RequiredArgsConstructor
@@ -23,7 +26,10 @@ public class CourseRepository {
 
     @Qualifier("mariadbJdbcTemplate")
     private final JdbcTemplate jdbcTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Qualifier("namedParameterJdbcTemplate")
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final JsonColumns jsonColumns;
 
     // ------------------------------
     // Find by ID
@@ -183,6 +189,69 @@ public class CourseRepository {
         return 1;
     }
 
+    /**
+     * Insert many courses in one JDBC batch; ids are not returned, resolve them with {@link #findIdsBySlugIn}
+     */
+    public int[] batchInsert(List<Course> courses) {
+        String sql = """
+            INSERT INTO courses (
+                category_id, title, slug, description, thumbnail,
+                difficulty_level, estimated_duration, prerequisites,
+                learning_objectives, tags, is_published, is_premium,
+                price, created_by
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+        return jdbcTemplate.batchUpdate(sql, courses.stream()
+                .map(course -> new Object[]{
+                        course.getCategoryId(),
+                        course.getTitle(),
+                        course.getSlug(),
+                        course.getDescription(),
+                        course.getThumbnail(),
+                        course.getDifficultyLevel() != null ? course.getDifficultyLevel().name() : null,
+                        course.getEstimatedDuration(),
+                        toJson(course.getPrerequisites()),
+                        toJson(course.getLearningObjectives()),
+                        toJson(course.getTags()),
+                        course.getIsPublished(),
+                        course.getIsPremium(),
+                        course.getPrice(),
+                        course.getCreatedBy()
+                })
+                .toList());
+    }
+
+    /**
+     * slug -> id for the slugs that exist
+     */
+    public Map<String, Long> findIdsBySlugIn(Collection<String> slugs) {
+        if (slugs.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, slug FROM courses WHERE slug IN (:slugs)",
+                Map.of("slugs", slugs),
+                rs -> {
+                    ids.put(rs.getString("slug"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Keyset page ordered by id, for full scans (export) that must not slow down with depth
+     */
+    public List<Course> findPageAfterId(long afterId, int limit) {
+        String sql = """
+            SELECT c.*, cat.name as category_name, cat.slug as category_slug
+            FROM courses c
+            LEFT JOIN categories cat ON c.category_id = cat.id
+            WHERE c.id > ?
+            ORDER BY c.id
+            LIMIT ?
+        """;
+        return jdbcTemplate.query(sql, this::mapRowToCourse, afterId, limit);
+    }
+
     // ------------------------------
     // Update
     // ------------------------------
@@ -224,16 +293,45 @@ public class CourseRepository {
     // ------------------------------
     // Update counts
     // ------------------------------
-    public void updateCourseCounts(Long courseId) {
+    /**
+     * Incremental fast path for one lesson published/unpublished, inside the caller's transaction
+     */
+    public void adjustTotalLessons(Long courseId, int delta) {
+        String sql = "UPDATE courses SET total_lessons = GREATEST(COALESCE(total_lessons, 0) + ?, 0) WHERE id = ?";
+        jdbcTemplate.update(sql, delta, courseId);
+    }
+
+    /**
+     * Keyset page of course ids, for jobs that walk every course
+     */
+    public List<Long> findIdsAfter(long afterId, int limit) {
+        String sql = "SELECT id FROM courses WHERE id > ? ORDER BY id LIMIT ?";
+        return jdbcTemplate.queryForList(sql, Long.class, afterId, limit);
+    }
+
+    /**
+     * Recompute total_lessons and total_exercises of many courses in one grouped statement
+     */
+    public int recomputeCounts(Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return 0;
+        }
         String sql = """
-            UPDATE courses
-            SET total_lessons = (SELECT COUNT(*) FROM lessons WHERE course_id = ? AND is_published = 1),
-                total_exercises = (SELECT COUNT(*) FROM exercises e
-                                   INNER JOIN lessons l ON e.lesson_id = l.id
-                                   WHERE l.course_id = ?)
-            WHERE id = ?
+            UPDATE courses c
+            LEFT JOIN (SELECT course_id, COUNT(*) AS lessons
+                       FROM lessons
+                       WHERE course_id IN (:courseIds) AND is_published = 1
+                       GROUP BY course_id) l ON l.course_id = c.id
+            LEFT JOIN (SELECT ls.course_id, COUNT(*) AS exercises
+                       FROM exercises e
+                       INNER JOIN lessons ls ON e.lesson_id = ls.id
+                       WHERE ls.course_id IN (:courseIds)
+                       GROUP BY ls.course_id) x ON x.course_id = c.id
+            SET c.total_lessons = COALESCE(l.lessons, 0),
+                c.total_exercises = COALESCE(x.exercises, 0)
+            WHERE c.id IN (:courseIds)
         """;
-        jdbcTemplate.update(sql, courseId, courseId, courseId);
+        return namedParameterJdbcTemplate.update(sql, Map.of("courseIds", courseIds));
     }
 
     // ------------------------------
@@ -241,12 +339,15 @@ public class CourseRepository {
     // ------------------------------
     private String toJson(Object obj) {
         try {
-            return objectMapper.writeValueAsString(obj);
+            return jsonColumns.write(obj);
         } catch (Exception e) {
             return "[]";
         }
     }
 
+    /**
+     * JSON columns are decoded with the shared readers of {@link JsonColumns}; a bad value empties only its own field
+     */
     private Course mapRowToCourse(java.sql.ResultSet rs, int rowNum) throws java.sql.SQLException {
         Course c = new Course();
         c.setId(rs.getLong("id"));
@@ -270,16 +371,9 @@ public class CourseRepository {
         c.setUpdatedAt(rs.getTimestamp("updated_at") != null ? rs.getTimestamp("updated_at").toLocalDateTime() : null);
         c.setCategoryName(rs.getString("category_name"));
         c.setCategorySlug(rs.getString("category_slug"));
-
-        try {
-            c.setPrerequisites(objectMapper.readValue(rs.getString("prerequisites"), new TypeReference<>() {}));
-            c.setLearningObjectives(objectMapper.readValue(rs.getString("learning_objectives"), new TypeReference<>() {}));
-            c.setTags(objectMapper.readValue(rs.getString("tags"), new TypeReference<>() {}));
-        } catch (Exception e) {
-            c.setPrerequisites(List.of());
-            c.setLearningObjectives(List.of());
-            c.setTags(List.of());
-        }
+        c.setPrerequisites(jsonColumns.stringList(rs.getString("prerequisites")));
+        c.setLearningObjectives(jsonColumns.stringList(rs.getString("learning_objectives")));
+        c.setTags(jsonColumns.stringList(rs.getString("tags")));
         return c;
     }
 }
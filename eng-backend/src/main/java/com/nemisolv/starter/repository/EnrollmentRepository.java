@@ -25,4 +25,20 @@ public class EnrollmentRepository {
         Integer count = namedParameterJdbcTemplate.queryForObject(sql, params, Integer.class);
         return count != null && count > 0;
     }
+
+    /**
+     * Enrollments cascade-delete with their course, so this also proves the course exists
+     */
+    public boolean isEnrolled(Long userId, Long courseId) {
+        String sql = """
+                SELECT EXISTS(SELECT 1 FROM enrollments
+                              WHERE user_id = :userId AND course_id = :courseId AND status <> 'DROPPED')
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("courseId", courseId);
+
+        Boolean enrolled = namedParameterJdbcTemplate.queryForObject(sql, params, Boolean.class);
+        return Boolean.TRUE.equals(enrolled);
+    }
 }
\ No newline at end of file
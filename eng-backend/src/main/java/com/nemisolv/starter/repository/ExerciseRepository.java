@@ -0,0 +1,38 @@
+package com.nemisolv.starter.repository;
+
+import com.nemisolv.starter.entity.Exercise;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class ExerciseRepository {
+
+    @Qualifier("namedParameterJdbcTemplate")
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Active exercises of several lessons in one query, ordered per lesson
+     */
+    public List<Exercise> findActiveByLessonIdIn(Set<Long> lessonIds) {
+        if (lessonIds == null || lessonIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = """
+            SELECT id, lesson_id, exercise_type_id, title, description, difficulty_level, points,
+                   time_limit, max_attempts, sort_order, is_active, created_at, updated_at
+            FROM exercises
+            WHERE lesson_id IN (:lessonIds) AND is_active = 1
+            ORDER BY lesson_id, sort_order ASC, id ASC
+        """;
+        return namedParameterJdbcTemplate.query(sql, Map.of("lessonIds", lessonIds),
+                new BeanPropertyRowMapper<>(Exercise.class));
+    }
+}
@@ -1,14 +1,17 @@
 package com.nemisolv.starter.repository;
 
 import com.nemisolv.starter.entity.LearningStreak;
+import com.nemisolv.starter.entity.ProgressDelta;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,11 +46,15 @@ public class LearningStreakRepository {
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
+    /**
+     * Create today's streak row if it does not exist yet; safe to call concurrently
+     */
     public void createInitialStreak(Long userId) {
         String sql = """
             INSERT INTO learning_streaks (user_id, date, minutes_studied, lessons_completed,
                                          exercises_completed, xp_earned, goals_met)
             VALUES (:userId, :date, 0, 0, 0, 0, 0)
+            ON DUPLICATE KEY UPDATE user_id = user_id
         """;
 
         Map<String, Object> params = new HashMap<>();
@@ -55,6 +62,53 @@ public class LearningStreakRepository {
         params.put("date", LocalDate.now());
 
         namedParameterJdbcTemplate.update(sql, params);
-        log.info("Created initial learning streak for userId: {} on date: {}", userId, LocalDate.now());
+        log.debug("Ensured learning streak for userId: {} on date: {}", userId, LocalDate.now());
     }
-}
\ No newline at end of file
+
+    /**
+     * Add accumulated progress onto each (user, day) row in one batch, creating missing rows
+     */
+    public void addDailyProgress(List<ProgressDelta> deltas) {
+        String sql = """
+            INSERT INTO learning_streaks (user_id, date, minutes_studied, lessons_completed,
+                                         exercises_completed, xp_earned, goals_met)
+            VALUES (:userId, :date, :studyMinutes, :lessonsCompleted, :exercisesCompleted, :xp, 0)
+            ON DUPLICATE KEY UPDATE
+                minutes_studied = minutes_studied + :studyMinutes,
+                lessons_completed = lessons_completed + :lessonsCompleted,
+                exercises_completed = exercises_completed + :exercisesCompleted,
+                xp_earned = xp_earned + :xp
+        """;
+
+        namedParameterJdbcTemplate.batchUpdate(sql, SqlParameterSourceUtils.createBatch(deltas));
+        log.debug("Added daily progress for {} user-days", deltas.size());
+    }
+
+    /**
+     * XP earned per user between two dates (inclusive), one keyset page of users in (afterUserId, toUserId]
+     */
+    public Map<Long, Integer> sumXpByUser(long afterUserId, long toUserId, LocalDate from, LocalDate to, int limit) {
+        String sql = """
+            SELECT user_id, SUM(xp_earned) AS xp
+            FROM learning_streaks
+            WHERE user_id > :afterUserId AND user_id <= :toUserId
+              AND date BETWEEN :from AND :to
+            GROUP BY user_id
+            ORDER BY user_id
+            LIMIT :limit
+        """;
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("afterUserId", afterUserId);
+        params.put("toUserId", toUserId);
+        params.put("from", from);
+        params.put("to", to);
+        params.put("limit", limit);
+
+        Map<Long, Integer> xpByUser = new LinkedHashMap<>();
+        namedParameterJdbcTemplate.query(sql, params, rs -> {
+            xpByUser.put(rs.getLong("user_id"), rs.getInt("xp"));
+        });
+        return xpByUser;
+    }
+}
@@ -5,10 +5,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 @RequiredArgsConstructor
@@ -17,6 +20,9 @@ public class LessonRepository {
     @Qualifier("mariadbJdbcTemplate")
     private final JdbcTemplate jdbcTemplate;
 
+    @Qualifier("namedParameterJdbcTemplate")
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
     public Optional<Lesson> findById(Long id) {
         String sql = """
             SELECT l.*, c.title AS course_title, c.slug AS course_slug
@@ -28,6 +34,22 @@ public class LessonRepository {
         return lessons.stream().findFirst();
     }
 
+    /**
+     * Same as {@link #findById}, locking the lesson (and its course row, which the caller's counter
+     * update takes anyway) until the transaction ends, so a state change read here cannot race
+     */
+    public Optional<Lesson> findByIdForUpdate(Long id) {
+        String sql = """
+            SELECT l.*, c.title AS course_title, c.slug AS course_slug
+            FROM lessons l
+            LEFT JOIN courses c ON l.course_id = c.id
+            WHERE l.id = ?
+            FOR UPDATE
+        """;
+        List<Lesson> lessons = jdbcTemplate.query(sql, new BeanPropertyRowMapper<>(Lesson.class), id);
+        return lessons.stream().findFirst();
+    }
+
     public Optional<Lesson> findByCourseIdAndSlug(Long courseId, String slug) {
         String sql = """
             SELECT l.*, c.title AS course_title, c.slug AS course_slug
@@ -39,33 +61,16 @@ public class LessonRepository {
         return lessons.stream().findFirst();
     }
 
+    /**
+     * Without the courses join: callers already hold the course and copy its title/slug
+     */
     public List<Lesson> findByCourseId(Long courseId, String lessonType, Boolean isPublished) {
         StringBuilder sql = new StringBuilder("""
-            SELECT l.*, c.title AS course_title, c.slug AS course_slug
+            SELECT l.*
             FROM lessons l
-            LEFT JOIN courses c ON l.course_id = c.id
             WHERE l.course_id = ?
         """);
 
-        new Object() {}; // dummy line for readability
-
-        new Object(); // ignore
-
-        new Object(); // ignore
-
-        // dynamic conditions
-        new Object();
-        new Object();
-
-        // Build conditions dynamically
-        new Object();
-
-        // Using dynamic parameters
-        new Object();
-
-        new Object();
-
-        // Let's implement correctly:
         var params = new java.util.ArrayList<Object>();
         params.add(courseId);
 
@@ -83,6 +88,28 @@ public class LessonRepository {
         return jdbcTemplate.query(sql.toString(), new BeanPropertyRowMapper<>(Lesson.class), params.toArray());
     }
 
+    /**
+     * Lessons of several courses in one query, ordered per course; course title/slug are not joined
+     */
+    public List<Lesson> findByCourseIdIn(Set<Long> courseIds, Boolean isPublished) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder("""
+            SELECT l.*
+            FROM lessons l
+            WHERE l.course_id IN (:courseIds)
+        """);
+        MapSqlParameterSource params = new MapSqlParameterSource("courseIds", courseIds);
+        if (isPublished != null) {
+            sql.append(" AND l.is_published = :isPublished");
+            params.addValue("isPublished", isPublished);
+        }
+        sql.append(" ORDER BY l.course_id, l.sort_order ASC, l.created_at ASC");
+
+        return namedParameterJdbcTemplate.query(sql.toString(), params, new BeanPropertyRowMapper<>(Lesson.class));
+    }
+
     public List<Lesson> findAll(int limit, int offset) {
         String sql = """
             SELECT l.*, c.title AS course_title, c.slug AS course_slug
@@ -124,6 +151,36 @@ public class LessonRepository {
         );
     }
 
+    /**
+     * Insert many lessons in one JDBC batch; sort order and flags must already be set
+     */
+    public int[] batchInsert(List<Lesson> lessons) {
+        String sql = """
+            INSERT INTO lessons (
+                course_id, title, slug, description, content,
+                video_url, audio_url, transcript, duration,
+                lesson_type, sort_order, is_published, is_preview
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+        return jdbcTemplate.batchUpdate(sql, lessons.stream()
+                .map(lesson -> new Object[]{
+                        lesson.getCourseId(),
+                        lesson.getTitle(),
+                        lesson.getSlug(),
+                        lesson.getDescription(),
+                        lesson.getContent(),
+                        lesson.getVideoUrl(),
+                        lesson.getAudioUrl(),
+                        lesson.getTranscript(),
+                        lesson.getDuration(),
+                        lesson.getLessonType() != null ? lesson.getLessonType().name() : null,
+                        lesson.getSortOrder(),
+                        lesson.getIsPublished(),
+                        lesson.getIsPreview()
+                })
+                .toList());
+    }
+
     public int update(Lesson lesson) {
         String sql = """
             UPDATE lessons SET
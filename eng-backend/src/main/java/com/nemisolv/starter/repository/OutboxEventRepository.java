@@ -0,0 +1,105 @@
+package com.nemisolv.starter.repository;
+
+import com.nemisolv.starter.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+@Slf4j
+public class OutboxEventRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate mariadbJdbcTemplate;
+
+    public OutboxEventRepository(@Qualifier("mariadbJdbcTemplate") JdbcTemplate mariadbJdbcTemplate) {
+        this.mariadbJdbcTemplate = mariadbJdbcTemplate;
+    }
+
+    /**
+     * Joins the caller's transaction, so the event is recorded if and only if the caller commits
+     */
+    public void insert(OutboxEvent event) {
+        String sql = """
+                INSERT INTO outbox_events (event_id, topic, event_key, event_type, payload)
+                VALUES (?, ?, ?, ?, ?)
+                """;
+        mariadbJdbcTemplate.update(sql, event.getEventId(), event.getTopic(), event.getEventKey(),
+                event.getEventType(), event.getPayload());
+    }
+
+    /**
+     * Oldest rows that are due, neither published nor given up on, locked for the current transaction
+     * SKIP LOCKED lets relays on several replicas take disjoint batches instead of waiting on each other
+     */
+    public List<OutboxEvent> lockDue(int limit) {
+        String sql = """
+                SELECT id, event_id, topic, event_key, event_type, payload, attempts, created_at
+                FROM outbox_events
+                WHERE published_at IS NULL
+                  AND failed_at IS NULL
+                  AND next_attempt_at <= CURRENT_TIMESTAMP(3)
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """;
+        return mariadbJdbcTemplate.query(sql, (rs, rowNum) -> OutboxEvent.fromRs(rs), limit);
+    }
+
+    /**
+     * Push the rows' next attempt out by {@code lease}, so other relays skip them once the claiming
+     * transaction commits and the row locks are gone
+     */
+    public void extendClaim(List<Long> ids, Duration lease) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE outbox_events SET next_attempt_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)) WHERE id IN ("
+                + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        Object[] args = new Object[ids.size() + 1];
+        args[0] = lease.toNanos() / 1000;
+        for (int i = 0; i < ids.size(); i++) {
+            args[i + 1] = ids.get(i);
+        }
+        mariadbJdbcTemplate.update(sql, args);
+    }
+
+    public void markPublished(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        mariadbJdbcTemplate.batchUpdate("UPDATE outbox_events SET published_at = CURRENT_TIMESTAMP(3) WHERE id = ?",
+                ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Count a failed attempt and schedule the next one after {@code backoff}; the row is stamped
+     * failed_at instead once it has used up {@code maxAttempts}
+     */
+    public void recordFailure(Long id, String error, Duration backoff, int maxAttempts) {
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        // failed_at comes first: assignments see the values set before them, so attempts is still the old count here
+        String sql = """
+                UPDATE outbox_events
+                SET failed_at = CASE WHEN attempts + 1 >= ? THEN CURRENT_TIMESTAMP(3) END,
+                    attempts = attempts + 1,
+                    last_error = ?,
+                    next_attempt_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3))
+                WHERE id = ?
+                """;
+        mariadbJdbcTemplate.update(sql, maxAttempts, message, backoff.toNanos() / 1000, id);
+    }
+
+    public int deletePublishedBefore(LocalDateTime cutoff) {
+        return mariadbJdbcTemplate.update("DELETE FROM outbox_events WHERE published_at IS NOT NULL AND published_at < ?",
+                Timestamp.valueOf(cutoff));
+    }
+}
@@ -96,6 +96,22 @@ public class RolePermissionRepository {
     }
     
 
+    public List<RolePermission> findByRoleIdIn(Set<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM role_permissions WHERE role_id IN (:roleIds) ORDER BY role_id, id";
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("roleIds", roleIds);
+            return namedParameterJdbcTemplate.query(sql, params, this::mapRowToRolePermission);
+        } catch (Exception e) {
+            log.error("Error finding role-permissions by roleIds {}: {}", roleIds, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+
     public List<RolePermission> findByPermissionId(Long permissionId) {
         String sql = "SELECT * FROM role_permissions WHERE permission_id = ?";
         try {
@@ -5,29 +5,62 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Repository
 @RequiredArgsConstructor
 public class StatsRepository {
 
+    public static final String PUBLISHED_LESSONS = "published_lessons";
+    public static final String PUBLISHED_COURSES = "published_courses";
+    public static final String ACTIVE_USERS = "active_users";
+    public static final List<String> PLATFORM_COUNTERS = List.of(PUBLISHED_LESSONS, PUBLISHED_COURSES, ACTIVE_USERS);
+
+    /**
+     * Slot rows per counter; must match the MOD(id, 16) in the triggers
+     */
+    private static final int COUNTER_SLOTS = 16;
+
+    private static final Map<String, String> COUNT_QUERIES = Map.of(
+            PUBLISHED_LESSONS, "SELECT COUNT(*) FROM lessons WHERE is_published = 1",
+            PUBLISHED_COURSES, "SELECT COUNT(*) FROM courses WHERE is_published = 1",
+            ACTIVE_USERS, "SELECT COUNT(*) FROM users WHERE status = 'ACTIVE'");
+
     @Qualifier("mariadbJdbcTemplate")
     private final JdbcTemplate jdbcTemplate;
 
-    public long countPublishedLessons() {
-        String sql = "SELECT COUNT(*) FROM lessons WHERE is_published = 1";
-        Long count = jdbcTemplate.queryForObject(sql, Long.class);
-        return count != null ? count : 0L;
-    }
-    public long countPublishedCourses() {
-        String sql = "SELECT COUNT(*) FROM courses WHERE is_published = 1";
-        Long count = jdbcTemplate.queryForObject(sql, Long.class);
-        return count != null ? count : 0L;
-    }
-
-    public long countActiveUsers() {
-        String sql = "SELECT COUNT(*) FROM users WHERE status = 'ACTIVE'";
-        Long count = jdbcTemplate.queryForObject(sql, Long.class);
-        return count != null ? count : 0L;
+    /**
+     * Counters maintained by the triggers in create_platform_counters_table.sql, summed over their slot rows
+     */
+    public Map<String, Long> findPlatformCounters() {
+        String sql = "SELECT name, SUM(value) AS value FROM platform_counters GROUP BY name";
+        Map<String, Long> counters = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counters.put(rs.getString("name"), rs.getLong("value"));
+        });
+        return counters;
     }
 
+    /**
+     * Overwrite one counter with a fresh COUNT(*), repairing drift (e.g. rows changed with triggers disabled)
+     * Must run inside a transaction: the counter's slot rows are locked before counting, so triggers of
+     * concurrent writers wait for the new value instead of their increments being lost to a count that
+     * did not see them. The total goes to slot 0 and the other slots are zeroed (recreated if missing).
+     */
+    public void reconcilePlatformCounter(String name) {
+        jdbcTemplate.queryForList("SELECT slot FROM platform_counters WHERE name = ? FOR UPDATE", Integer.class, name);
+        Long count = jdbcTemplate.queryForObject(COUNT_QUERIES.get(name), Long.class);
 
-}
\ No newline at end of file
+        List<Object[]> slots = new ArrayList<>(COUNTER_SLOTS);
+        for (int slot = 0; slot < COUNTER_SLOTS; slot++) {
+            slots.add(new Object[]{name, slot, slot == 0 && count != null ? count : 0L});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO platform_counters (name, slot, value) VALUES (?, ?, ?)
+                ON DUPLICATE KEY UPDATE value = VALUES(value)
+                """, slots);
+    }
+}
@@ -248,4 +248,15 @@ public class UserRepository {
             return Optional.empty();
         }
     }
+
+    public Map<Long, String> findUsernamesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> usernames = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, username FROM users WHERE id IN (:ids)", Map.of("ids", ids), rs -> {
+            usernames.put(rs.getLong("id"), rs.getString("username"));
+        });
+        return usernames;
+    }
 }
@@ -1,13 +1,17 @@
 package com.nemisolv.starter.repository;
 
+import com.nemisolv.starter.entity.ProgressDelta;
 import com.nemisolv.starter.entity.UserStats;
+import com.nemisolv.starter.payload.response.UserDashboardStatsResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,6 +22,11 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserStatsRepository {
 
+    /**
+     * Minutes per day assumed when the user has not set a goal
+     */
+    private static final int DEFAULT_DAILY_STUDY_GOAL = 30;
+
     @Qualifier("namedParameterJdbcTemplate")
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
@@ -51,6 +60,9 @@ public class UserStatsRepository {
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
+    /**
+     * Create the user's stats row if it does not exist yet; safe to call concurrently
+     */
     public void createUserStats(Long userId) {
         String sql = """
             INSERT INTO user_stats (user_id, total_xp, current_level, xp_to_next_level,
@@ -58,6 +70,7 @@ public class UserStatsRepository {
                                    dialogues_completed, current_streak_days, longest_streak_days,
                                    last_activity_date)
             VALUES (:userId, 0, 1, 100, 0, 0, 0, 0, 1, 1, :lastActivityDate)
+            ON DUPLICATE KEY UPDATE user_id = user_id
         """;
 
         Map<String, Object> params = new HashMap<>();
@@ -65,7 +78,43 @@ public class UserStatsRepository {
         params.put("lastActivityDate", LocalDate.now());
 
         namedParameterJdbcTemplate.update(sql, params);
-        log.info("Created user_stats record for userId: {}", userId);
+        log.debug("Ensured user_stats record for userId: {}", userId);
+    }
+
+    /**
+     * Dashboard read model: stats, minutes studied on {@code date} and the daily goal in one query
+     * Empty when the user's stats row or that day's streak row does not exist yet.
+     */
+    public Optional<UserDashboardStatsResponse> findDashboardStats(Long userId, LocalDate date) {
+        String sql = """
+            SELECT us.total_xp, us.current_level, us.total_study_time, us.lessons_completed,
+                   us.exercises_completed, us.current_streak_days,
+                   ls.minutes_studied, up.daily_study_goal
+            FROM user_stats us
+            JOIN learning_streaks ls ON ls.user_id = us.user_id AND ls.date = :date
+            LEFT JOIN user_profiles up ON up.user_id = us.user_id
+            WHERE us.user_id = :userId
+        """;
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("date", date);
+
+        List<UserDashboardStatsResponse> results = namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            int dailyGoal = rs.getInt("daily_study_goal");
+            return UserDashboardStatsResponse.builder()
+                .currentStreakDays(rs.getInt("current_streak_days"))
+                .dailyStudyGoalMinutes(dailyGoal > 0 ? dailyGoal : DEFAULT_DAILY_STUDY_GOAL)
+                .minutesStudiedToday(rs.getInt("minutes_studied"))
+                .totalXp(rs.getInt("total_xp"))
+                .currentLevel(rs.getObject("current_level") != null ? rs.getInt("current_level") : 1)
+                .totalStudyTime(rs.getInt("total_study_time"))
+                .lessonsCompleted(rs.getInt("lessons_completed"))
+                .exercisesCompleted(rs.getInt("exercises_completed"))
+                .build();
+        });
+
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
     public void updateCurrentStreak(Long userId, int streakDays) {
@@ -85,4 +134,66 @@ public class UserStatsRepository {
         namedParameterJdbcTemplate.update(sql, params);
         log.info("Updated streak for userId: {} to {} days", userId, streakDays);
     }
-}
\ No newline at end of file
+
+    /**
+     * Add accumulated progress onto each user's counters in one batch
+     * Rows are created on first activity; callers pass deltas sorted by userId so concurrent
+     * flushes lock rows in the same order.
+     */
+    public void addProgress(List<ProgressDelta> deltas) {
+        String sql = """
+            INSERT INTO user_stats (user_id, total_xp, current_level, xp_to_next_level,
+                                   total_study_time, lessons_completed, exercises_completed,
+                                   dialogues_completed, current_streak_days, longest_streak_days,
+                                   last_activity_date)
+            VALUES (:userId, :xp, 1, 100, :studyMinutes, :lessonsCompleted, :exercisesCompleted, 0, 1, 1, :date)
+            ON DUPLICATE KEY UPDATE
+                total_xp = total_xp + :xp,
+                total_study_time = total_study_time + :studyMinutes,
+                lessons_completed = lessons_completed + :lessonsCompleted,
+                exercises_completed = exercises_completed + :exercisesCompleted,
+                last_activity_date = GREATEST(COALESCE(last_activity_date, :date), :date)
+        """;
+
+        namedParameterJdbcTemplate.batchUpdate(sql, SqlParameterSourceUtils.createBatch(deltas));
+        log.debug("Added progress for {} users", deltas.size());
+    }
+
+    public Map<Long, Integer> findStreakDays(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        String sql = "SELECT user_id, current_streak_days FROM user_stats WHERE user_id IN (:userIds)";
+        Map<Long, Integer> streaks = new HashMap<>();
+        namedParameterJdbcTemplate.query(sql, Map.of("userIds", userIds), rs -> {
+            streaks.put(rs.getLong("user_id"), rs.getInt("current_streak_days"));
+        });
+        return streaks;
+    }
+
+    /**
+     * Keyset page of XP and streak values in (afterUserId, toUserId], for leaderboard reconciliation
+     */
+    public List<UserStats> findScoresPage(long afterUserId, long toUserId, int limit) {
+        String sql = """
+            SELECT user_id, total_xp, current_streak_days
+            FROM user_stats
+            WHERE user_id > :afterUserId AND user_id <= :toUserId
+            ORDER BY user_id
+            LIMIT :limit
+        """;
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("afterUserId", afterUserId);
+        params.put("toUserId", toUserId);
+        params.put("limit", limit);
+
+        return namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) ->
+            UserStats.builder()
+                .userId(rs.getLong("user_id"))
+                .totalXp(rs.getInt("total_xp"))
+                .currentStreakDays(rs.getInt("current_streak_days"))
+                .build()
+        );
+    }
+}
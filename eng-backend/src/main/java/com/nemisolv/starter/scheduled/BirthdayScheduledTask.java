@@ -1,6 +1,7 @@
 package com.nemisolv.starter.scheduled;
 
 import com.nemisolv.starter.service.BirthdayService;
+import com.nemisolv.starter.service.job.ShardedJobRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Component;
 /**
  * Scheduled task to check for users' birthdays and send birthday wishes
  * Runs every day at 9:00 AM
+ * Every replica fires; {@link ShardedJobRunner} splits the run so each user is handled once
  */
 @Component
 @Slf4j
@@ -17,6 +19,8 @@ public class BirthdayScheduledTask {
 
     private final BirthdayService birthdayService;
 
+    private final ShardedJobRunner shardedJobRunner;
+
     /**
      * Check for birthdays and send wishes
      * Runs every day at 9:00 AM (server time)
@@ -34,7 +38,7 @@ public class BirthdayScheduledTask {
         log.info("=== Birthday Check Scheduled Task Started ===");
 
         try {
-            birthdayService.processBirthdayNotifications();
+            shardedJobRunner.run(BirthdayService.BIRTHDAY_JOB, birthdayService::processBirthdayNotifications);
         } catch (Exception e) {
             log.error("Error occurred while processing birthday notifications", e);
         }
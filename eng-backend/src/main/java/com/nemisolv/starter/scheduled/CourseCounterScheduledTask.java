@@ -0,0 +1,36 @@
+package com.nemisolv.starter.scheduled;
+
+import com.nemisolv.starter.service.CourseCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recounts lessons and exercises of courses marked dirty since the last run, and of every course daily
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CourseCounterScheduledTask {
+
+    private final CourseCounterService courseCounterService;
+
+    @Scheduled(fixedDelayString = "${course-counters.flush-interval:2s}")
+    public void flushCourseCounters() {
+        try {
+            courseCounterService.flush();
+        } catch (Exception e) {
+            log.error("Error occurred while recomputing course counters", e);
+        }
+    }
+
+    @Scheduled(cron = "${course-counters.reconcile-cron:0 20 3 * * *}")
+    public void reconcileCourseCounters() {
+        try {
+            courseCounterService.reconcileAll();
+        } catch (Exception e) {
+            log.error("Error occurred while reconciling course counters", e);
+        }
+    }
+}
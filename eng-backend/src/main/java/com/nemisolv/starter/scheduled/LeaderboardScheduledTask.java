@@ -0,0 +1,49 @@
+package com.nemisolv.starter.scheduled;
+
+import com.nemisolv.starter.service.job.ShardedJobRunner;
+import com.nemisolv.starter.service.leaderboard.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leaderboard maintenance; every replica fires and {@link ShardedJobRunner} splits the work
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LeaderboardScheduledTask {
+
+    private final LeaderboardService leaderboardService;
+
+    private final ShardedJobRunner shardedJobRunner;
+
+    /**
+     * Repair drift between the Redis boards and user_stats / learning_streaks
+     * Runs every day at 3:30 AM (server time)
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void reconcileLeaderboards() {
+        log.info("=== Leaderboard Reconciliation Started ===");
+        try {
+            shardedJobRunner.run(LeaderboardService.RECONCILE_JOB, leaderboardService::reconcile);
+        } catch (Exception e) {
+            log.error("Error occurred while reconciling leaderboards", e);
+        }
+        log.info("=== Leaderboard Reconciliation Completed ===");
+    }
+
+    /**
+     * Settle last week's board once the week has rolled over
+     * Runs every Monday at 0:10 AM (server time)
+     */
+    @Scheduled(cron = "0 10 0 * * MON")
+    public void closeWeeklyLeaderboard() {
+        try {
+            shardedJobRunner.run(LeaderboardService.WEEKLY_CLOSE_JOB, leaderboardService::closeLastWeek);
+        } catch (Exception e) {
+            log.error("Error occurred while closing the weekly leaderboard", e);
+        }
+    }
+}
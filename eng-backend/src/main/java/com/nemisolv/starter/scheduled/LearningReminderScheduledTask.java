@@ -1,6 +1,7 @@
 package com.nemisolv.starter.scheduled;
 
 import com.nemisolv.starter.service.LearningReminderService;
+import com.nemisolv.starter.service.job.ShardedJobRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 /**
  * Scheduled tasks for sending daily learning reminders to users
+ * Every replica fires; {@link ShardedJobRunner} splits the run so each user is handled once
  */
 @Component
 @Slf4j
@@ -16,6 +18,8 @@ public class LearningReminderScheduledTask {
 
     private final LearningReminderService learningReminderService;
 
+    private final ShardedJobRunner shardedJobRunner;
+
     /**
      * Send daily learning reminders to users who haven't studied today
      * Runs every day at 10:00 AM (server time)
@@ -33,7 +37,7 @@ public class LearningReminderScheduledTask {
         log.info("=== Daily Learning Reminder Task Started ===");
 
         try {
-            learningReminderService.processDailyReminders();
+            shardedJobRunner.run(LearningReminderService.DAILY_REMINDER_JOB, learningReminderService::processDailyReminders);
         } catch (Exception e) {
             log.error("Error occurred while processing daily learning reminders", e);
         }
@@ -58,7 +62,7 @@ public class LearningReminderScheduledTask {
         log.info("=== Streak Warning Task Started ===");
 
         try {
-            learningReminderService.processStreakWarnings();
+            shardedJobRunner.run(LearningReminderService.STREAK_WARNING_JOB, learningReminderService::processStreakWarnings);
         } catch (Exception e) {
             log.error("Error occurred while processing streak warnings", e);
         }
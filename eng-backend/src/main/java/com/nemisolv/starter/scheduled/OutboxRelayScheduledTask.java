@@ -0,0 +1,48 @@
+package com.nemisolv.starter.scheduled;
+
+import com.nemisolv.starter.config.EventProperties;
+import com.nemisolv.starter.service.event.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drives the outbox relay on every replica; SKIP LOCKED keeps their batches disjoint
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxRelayScheduledTask {
+
+    private final OutboxRelay outboxRelay;
+
+    private final EventProperties eventProperties;
+
+    /**
+     * Relay while full batches go through, then wait for the next poll
+     */
+    @Scheduled(fixedDelayString = "${events.outbox.poll-interval:500ms}")
+    public void relayOutbox() {
+        try {
+            int batchSize = eventProperties.getOutbox().getBatchSize();
+            while (outboxRelay.relayBatch() >= batchSize) {
+                log.debug("Outbox backlog remaining, relaying next batch");
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while relaying outbox events", e);
+        }
+    }
+
+    /**
+     * Purge published events every hour
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void purgePublishedEvents() {
+        try {
+            outboxRelay.purgePublished();
+        } catch (Exception e) {
+            log.error("Error occurred while purging published outbox events", e);
+        }
+    }
+}
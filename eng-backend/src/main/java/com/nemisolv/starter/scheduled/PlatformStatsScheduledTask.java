@@ -0,0 +1,30 @@
+package com.nemisolv.starter.scheduled;
+
+import com.nemisolv.starter.service.StatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repairs drift in the trigger-maintained platform counters
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PlatformStatsScheduledTask {
+
+    private final StatsService statsService;
+
+    /**
+     * Reconcile platform counters every hour
+     */
+    @Scheduled(cron = "${platform.stats.reconcile-cron:0 45 * * * *}")
+    public void reconcilePlatformCounters() {
+        try {
+            statsService.reconcilePlatformCounters();
+        } catch (Exception e) {
+            log.error("Error occurred while reconciling platform counters", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.nemisolv.starter.scheduled;
+
+import com.nemisolv.starter.service.progress.ProgressAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes accumulated learning progress to user_stats and learning_streaks
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProgressFlushScheduledTask {
+
+    private final ProgressAggregator progressAggregator;
+
+    @Scheduled(fixedDelayString = "${progress.aggregation.flush-interval:5s}")
+    public void flushProgress() {
+        try {
+            progressAggregator.flush();
+        } catch (Exception e) {
+            log.error("Error occurred while flushing learning progress", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.nemisolv.starter.scheduled;
+
+import com.nemisolv.starter.config.datasource.ReplicaRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes health and lag of the read replicas, when routing is enabled
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaHealthScheduledTask {
+
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "${datasource-routing.health-check-interval:2s}")
+    public void checkReplicas() {
+        ReplicaRoutingDataSource routing = replicaRoutingDataSource.getIfAvailable();
+        if (routing == null) {
+            return;
+        }
+        try {
+            routing.checkReplicas();
+        } catch (Exception e) {
+            log.error("Error occurred while checking read replicas", e);
+        }
+    }
+}
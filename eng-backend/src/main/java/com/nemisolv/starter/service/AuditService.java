@@ -1,27 +1,40 @@
 package com.nemisolv.starter.service;
 
 import com.nemisolv.starter.entity.AuditLog;
-import com.nemisolv.starter.repository.AuditLogRepository;
+import com.nemisolv.starter.service.event.EventPublisher;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Audit entries are recorded through the event outbox (one local insert) and written to audit_logs
+ * in batches by the audit consumer. Successful operations join the surrounding transaction, so
+ * their entry exists only if the operation commits; failures and errors are recorded in their own
+ * transaction, since the caller's is usually about to roll back and would take the entry with it.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuditService {
     
-    private final AuditLogRepository auditLogRepository;
+    private static final String STATUS_SUCCESS = "SUCCESS";
     
+    private final EventPublisher eventPublisher;
+    private final TransactionTemplate independentTransaction;
+    
+    public AuditService(EventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.eventPublisher = eventPublisher;
+        this.independentTransaction = new TransactionTemplate(transactionManager);
+        this.independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
     
-    @Async("auditTaskExecutor")
     public void logLessonStarted(Long userId, String lessonId, String lessonTitle, String difficulty) {
         try {
             Map<String, Object> metadata = new HashMap<>();
@@ -40,14 +53,13 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged lesson started event for user: {}, lesson: {}", userId, lessonId);
         } catch (Exception e) {
             log.error("Failed to log lesson started event for user: {}, lesson: {}", userId, lessonId, e);
         }
     }
     
-    @Async("auditTaskExecutor")
     public void logLessonCompleted(Long userId, String lessonId, String lessonTitle, int score, int timeSpent) {
         try {
             Map<String, Object> metadata = new HashMap<>();
@@ -67,14 +79,13 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged lesson completed event for user: {}, lesson: {}, score: {}", userId, lessonId, score);
         } catch (Exception e) {
             log.error("Failed to log lesson completed event for user: {}, lesson: {}", userId, lessonId, e);
         }
     }
     
-    @Async("auditTaskExecutor")
     public void logQuizAttempted(Long userId, String quizId, String quizTitle, int score, int totalQuestions) {
         try {
             Map<String, Object> metadata = new HashMap<>();
@@ -94,14 +105,13 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged quiz attempted event for user: {}, quiz: {}, score: {}/{}", userId, quizId, score, totalQuestions);
         } catch (Exception e) {
             log.error("Failed to log quiz attempted event for user: {}, quiz: {}", userId, quizId, e);
         }
     }
     
-    @Async("auditTaskExecutor")
     public void logVideoWatched(Long userId, String videoId, String videoTitle, int watchDuration, int totalDuration) {
         try {
             Map<String, Object> metadata = new HashMap<>();
@@ -121,14 +131,13 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged video watched event for user: {}, video: {}, duration: {}/{}", userId, videoId, watchDuration, totalDuration);
         } catch (Exception e) {
             log.error("Failed to log video watched event for user: {}, video: {}", userId, videoId, e);
         }
     }
     
-    @Async("auditTaskExecutor")
     public void logProgressUpdate(Long userId, String skill, String level, int progressPercentage) {
         try {
             Map<String, Object> metadata = new HashMap<>();
@@ -148,7 +157,7 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged progress update event for user: {}, skill: {}, level: {}, progress: {}%", userId, skill, level, progressPercentage);
         } catch (Exception e) {
             log.error("Failed to log progress update event for user: {}, skill: {}", userId, skill, e);
@@ -173,7 +182,7 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged milestone achieved event for user: {}, milestone: {}", userId, milestone);
         } catch (Exception e) {
             log.error("Failed to log milestone achieved event for user: {}, milestone: {}", userId, milestone, e);
@@ -198,7 +207,7 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged streak update event for user: {}, current: {}, longest: {}", userId, currentStreak, longestStreak);
         } catch (Exception e) {
             log.error("Failed to log streak update event for user: {}", userId, e);
@@ -225,7 +234,7 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged AI interaction event for user: {}, type: {}, responseTime: {}ms", userId, interactionType, responseTime);
         } catch (Exception e) {
             log.error("Failed to log AI interaction event for user: {}, type: {}", userId, interactionType, e);
@@ -251,7 +260,7 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged AI recommendation event for user: {}, type: {}, accepted: {}", userId, recommendationType, accepted);
         } catch (Exception e) {
             log.error("Failed to log AI recommendation event for user: {}, type: {}", userId, recommendationType, e);
@@ -277,7 +286,7 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged user feedback event for user: {}, type: {}, rating: {}", userId, feedbackType, rating);
         } catch (Exception e) {
             log.error("Failed to log user feedback event for user: {}, type: {}", userId, feedbackType, e);
@@ -302,7 +311,7 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged system error event: {}, user: {}", errorType, userId);
         } catch (Exception e) {
             log.error("Failed to log system error event: {}", errorType, e);
@@ -328,7 +337,7 @@ public class AuditService {
                 null, 
                 metadata
             );
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged performance metric: {}, duration: {}ms", metricName, duration);
         } catch (Exception e) {
             log.error("Failed to log performance metric: {}", metricName, e);
@@ -357,7 +366,7 @@ public class AuditService {
                 metadata instanceof Map ? (Map<String, Object>) metadata : null
             );
             
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged audit event with request context: {} for user: {}", action, userId);
         } catch (Exception e) {
             log.error("Failed to log audit event with request context: {}", action, e);
@@ -381,13 +390,21 @@ public class AuditService {
                 metadata instanceof Map ? (Map<String, Object>) metadata : null
             );
             
-            auditLogRepository.save(auditLog);
+            record(auditLog);
             log.info("Logged audit event with request data: {} for user: {}", action, userId);
         } catch (Exception e) {
             log.error("Failed to log audit event with request data: {}", action, e);
         }
     }
     
+    private void record(AuditLog auditLog) {
+        if (STATUS_SUCCESS.equals(auditLog.getStatus())) {
+            eventPublisher.auditRecorded(auditLog);
+        } else {
+            independentTransaction.executeWithoutResult(status -> eventPublisher.auditRecorded(auditLog));
+        }
+    }
+    
     /**
      * Helper method to create AuditLog entity
      */
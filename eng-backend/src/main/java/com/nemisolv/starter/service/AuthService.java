@@ -432,7 +432,7 @@ public class AuthService {
                     .build();
 
             notificationService.sendEmail(emailRequest);
-            log.info("Verification email sent to: {}", user.getEmail());
+            log.info("Verification email queued for: {}", user.getEmail());
         } catch (Exception e) {
             log.error("Failed to send verification email to: {}", user.getEmail(), e);
             // Don't fail registration if email sending fails
@@ -471,7 +471,7 @@ public class AuthService {
                     .build();
 
             notificationService.sendEmail(emailRequest);
-            log.info("Password reset email sent to: {}", user.getEmail());
+            log.info("Password reset email queued for: {}", user.getEmail());
         } catch (Exception e) {
             log.error("Failed to send password reset email to: {}", user.getEmail(), e);
         }
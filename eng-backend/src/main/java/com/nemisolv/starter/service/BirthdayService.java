@@ -1,5 +1,11 @@
 package com.nemisolv.starter.service;
 
+import com.nemisolv.starter.config.NotificationProperties;
+import com.nemisolv.starter.payload.admin.MailCampaignProgress;
+import com.nemisolv.starter.service.job.JobShard;
+import com.nemisolv.starter.service.mail.BulkMailService;
+import com.nemisolv.starter.service.mail.MailCampaign;
+import com.nemisolv.starter.service.mail.MailJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -10,17 +16,24 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class BirthdayService {
 
+    public static final String BIRTHDAY_JOB = "birthday-wishes";
+
     @Qualifier("mariadbJdbcTemplate")
     private final JdbcTemplate mariadbJdbcTemplate;
 
     private final EmailService emailService;
 
+    private final BulkMailService bulkMailService;
+
+    private final NotificationProperties notificationProperties;
+
     /**
      * DTO for users with birthdays
      */
@@ -32,9 +45,12 @@ public class BirthdayService {
     ) {}
 
     /**
-     * Find all users who have birthday today
+     * Stream users who have birthday today, in keyset pages of user_id
+     * Uses the (birth_month, birth_day, user_id) index; see schema/add_user_profiles_birthday_index.sql
+     *
+     * @return number of users handed to the consumer
      */
-    public List<UserBirthday> findUsersWithBirthdayToday() {
+    public long forEachUserWithBirthdayToday(JobShard shard, Consumer<UserBirthday> consumer) {
         String sql = """
             SELECT
                 up.user_id,
@@ -44,21 +60,36 @@ public class BirthdayService {
             FROM user_profiles up
             JOIN users u ON up.user_id = u.id
             WHERE
-                up.dob IS NOT NULL
-                AND MONTH(up.dob) = MONTH(CURDATE())
-                AND DAY(up.dob) = DAY(CURDATE())
+                up.birth_month = MONTH(CURDATE())
+                AND up.birth_day = DAY(CURDATE())
+                AND up.user_id > ?
+                AND up.user_id <= ?
                 AND u.status = 'ACTIVE'
                 AND up.notification_enabled = 1
+            ORDER BY up.user_id
+            LIMIT ?
             """;
 
-        return mariadbJdbcTemplate.query(sql, (rs, rowNum) ->
-            new UserBirthday(
-                rs.getLong("user_id"),
-                rs.getString("name"),
-                rs.getString("email"),
-                rs.getDate("dob").toLocalDate()
-            )
-        );
+        int pageSize = Math.max(1, notificationProperties.getCandidates().getPageSize());
+        long lastUserId = shard.getAfterUserId();
+        long total = 0;
+        while (shard.isLeaseHeld()) {
+            List<UserBirthday> page = mariadbJdbcTemplate.query(sql, (rs, rowNum) ->
+                new UserBirthday(
+                    rs.getLong("user_id"),
+                    rs.getString("name"),
+                    rs.getString("email"),
+                    rs.getDate("dob").toLocalDate()
+                ), lastUserId, shard.getToUserId(), pageSize);
+            page.forEach(consumer);
+            total += page.size();
+            if (page.size() < pageSize) {
+                break;
+            }
+            lastUserId = page.get(page.size() - 1).userId();
+            shard.checkpoint(lastUserId);
+        }
+        return total;
     }
 
     /**
@@ -66,18 +97,8 @@ public class BirthdayService {
      */
     public void sendBirthdayEmail(UserBirthday user) {
         try {
-            int age = calculateAge(user.dob());
-
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("userName", user.name());
-            variables.put("age", age);
-
-            emailService.sendEmail(
-                user.email(),
-                "🎉 Happy Birthday from English Learning Platform! 🎂",
-                "birthday-wishes",
-                variables
-            );
+            MailJob job = birthdayJob(user);
+            emailService.sendEmail(job.to(), job.subject(), job.templateName(), job.variables());
 
             log.info("Birthday email sent successfully to user: {} ({})", user.name(), user.email());
 
@@ -86,26 +107,43 @@ public class BirthdayService {
         }
     }
 
+    private MailJob birthdayJob(UserBirthday user) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("userName", user.name());
+        variables.put("age", calculateAge(user.dob()));
+
+        return new MailJob(
+            user.email(),
+            "🎉 Happy Birthday from English Learning Platform! 🎂",
+            "birthday-wishes",
+            variables
+        );
+    }
+
     /**
      * Send birthday emails to all users with birthday today
      */
     public void processBirthdayNotifications() {
-        log.info("Starting birthday notification process...");
+        processBirthdayNotifications(JobShard.unbounded(BIRTHDAY_JOB));
+    }
 
-        List<UserBirthday> usersWithBirthday = findUsersWithBirthdayToday();
+    /**
+     * Send birthday emails to users of one shard of the user id space
+     */
+    public void processBirthdayNotifications(JobShard shard) {
+        log.info("Starting birthday notification process for {}...", shard.getLabel());
 
-        if (usersWithBirthday.isEmpty()) {
+        MailCampaign campaign = bulkMailService.startCampaign(shard.getLabel());
+        long found = forEachUserWithBirthdayToday(shard, user -> bulkMailService.submit(campaign, birthdayJob(user)));
+        MailCampaignProgress progress = bulkMailService.finish(campaign);
+
+        if (found == 0) {
             log.info("No users with birthday today");
             return;
         }
 
-        log.info("Found {} user(s) with birthday today", usersWithBirthday.size());
-
-        for (UserBirthday user : usersWithBirthday) {
-            sendBirthdayEmail(user);
-        }
-
-        log.info("Birthday notification process completed. Sent {} email(s)", usersWithBirthday.size());
+        log.info("Birthday notification process completed. Found {} user(s), sent {} email(s), {} failed",
+                found, progress.getSent(), progress.getFailed());
     }
 
     /**
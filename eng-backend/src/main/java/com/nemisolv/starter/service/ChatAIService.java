@@ -2,25 +2,46 @@
 package com.nemisolv.starter.service;
 
 import com.nemisolv.starter.payload.ai.ChatRequest;
+import com.nemisolv.starter.service.ai.AIConcurrencyLimiters;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @Service
 public class ChatAIService {
 
+    private static final String OPERATION = "chat";
+
     private final WebClient webClient;
+    private final AIConcurrencyLimiters limiters;
 
-    public ChatAIService(WebClient.Builder webClientBuilder, @Value("${ai.service.url}") String aiServiceUrl) {
+    public ChatAIService(WebClient.Builder webClientBuilder, @Value("${ai.service.url}") String aiServiceUrl,
+                         AIConcurrencyLimiters limiters) {
         this.webClient = webClientBuilder.baseUrl(aiServiceUrl).build();
+        this.limiters = limiters;
     }
 
+    /**
+     * Time to first token of the upstream stream feeds the chat concurrency limiter
+     */
     public Flux<String> getChatStream(ChatRequest chatRequest) {
-        return this.webClient.post()
-                .uri("/chat/stream")
-                .bodyValue(chatRequest)
-                .retrieve()
-                .bodyToFlux(String.class);
+        return Flux.defer(() -> {
+            long startNanos = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean(true);
+            return this.webClient.post()
+                    .uri("/chat/stream")
+                    .bodyValue(chatRequest)
+                    .retrieve()
+                    .bodyToFlux(String.class)
+                    .doOnNext(token -> {
+                        if (firstToken.compareAndSet(true, false)) {
+                            limiters.recordLatency(OPERATION, System.nanoTime() - startNanos);
+                        }
+                    })
+                    .doOnError(error -> limiters.recordFailure(OPERATION));
+        });
     }
 }
\ No newline at end of file
@@ -1,59 +1,65 @@
 package com.nemisolv.starter.service;
 
 import com.nemisolv.starter.entity.ChatMessage;
-import com.nemisolv.starter.repository.ChatMessageRepository;
 import com.nemisolv.starter.security.UserPrincipal;
+import com.nemisolv.starter.service.chat.ChatMessageWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.time.temporal.ChronoUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChatMessageService {
 
-    private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageWriter chatMessageWriter;
 
     /**
      * Save user message to database for training/audit purposes
+     * The write is queued and batched, so this never blocks the request thread
      */
     public void saveUserMessage(String content, UserPrincipal currentUser) {
-        try {
-            ChatMessage message = ChatMessage.builder()
-                    .userId(currentUser.getId())
-                    .role("user")
-                    .content(content)
-                    .createdAt(LocalDateTime.now())
-                    .sessionId(generateSessionId(currentUser.getId()))
-                    .build();
-
-            chatMessageRepository.save(message);
-            log.info("Saved user message from user {}", currentUser.getId());
-        } catch (Exception e) {
-            log.error("Failed to save user message for user {}: {}", currentUser.getId(), e.getMessage());
-        }
+        save("user", content, currentUser);
     }
 
     /**
      * Save assistant (AI) message to database for training/audit purposes
      */
     public void saveAssistantMessage(String content, UserPrincipal currentUser) {
-        try {
-            ChatMessage message = ChatMessage.builder()
-                    .userId(currentUser.getId())
-                    .role("assistant")
-                    .content(content)
-                    .createdAt(LocalDateTime.now())
-                    .sessionId(generateSessionId(currentUser.getId()))
-                    .build();
+        save("assistant", content, currentUser);
+    }
+
+    /**
+     * Session id for the user's conversation right now
+     */
+    public String currentSessionId(Integer userId) {
+        return generateSessionId(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Session ids embed the owning user id (see {@link #generateSessionId})
+     */
+    public boolean ownsSession(Integer userId, String sessionId) {
+        return sessionId != null && sessionId.startsWith(userId + "-");
+    }
+
+    private void save(String role, String content, UserPrincipal currentUser) {
+        // chat_messages.created_at keeps whole seconds; the cached copy and history cursors must
+        // carry exactly the stored value
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        ChatMessage message = ChatMessage.builder()
+                .userId(currentUser.getId())
+                .role(role)
+                .content(content)
+                .createdAt(now)
+                .sessionId(generateSessionId(currentUser.getId(), now))
+                .build();
 
-            chatMessageRepository.save(message);
-            log.info("Saved assistant message for user {}", currentUser.getId());
-        } catch (Exception e) {
-            log.error("Failed to save assistant message for user {}: {}", currentUser.getId(), e.getMessage());
+        if (chatMessageWriter.enqueue(message)) {
+            log.debug("Queued {} message from user {}", role, currentUser.getId());
         }
     }
 
@@ -61,8 +67,8 @@ public class ChatMessageService {
      * Generate a simple session ID based on user ID and current date
      * This groups messages from the same user on the same day
      */
-    private String generateSessionId(Integer userId) {
-        String dateStr = LocalDateTime.now().toLocalDate().toString();
+    private String generateSessionId(Integer userId, LocalDateTime at) {
+        String dateStr = at.toLocalDate().toString();
         return userId + "-" + dateStr;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package com.nemisolv.starter.service;
+
+import com.nemisolv.starter.event.CourseChangedEvent;
+import com.nemisolv.starter.repository.CourseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains courses.total_lessons / total_exercises
+ *
+ * A single lesson published or removed adjusts total_lessons by ±1 in the writer's own
+ * transaction. Anything else (exercise changes, lesson deletes cascading exercises, bulk imports)
+ * only marks the course dirty once the transaction commits; {@link #flush} then recomputes every
+ * dirty course in one grouped UPDATE, so a burst of writes to a course costs one recount.
+ *
+ * The dirty set lives in memory, so a node that dies before its flush loses those recounts;
+ * {@link #reconcileAll} recounts every course periodically to repair that and any other drift.
+ */
+@Slf4j
+@Service
+public class CourseCounterService {
+
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public CourseCounterService(CourseRepository courseRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                CacheManager cacheManager,
+                                MeterRegistry meterRegistry) {
+        this.courseRepository = courseRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        meterRegistry.gauge("courses.counters.dirty", dirty, Set::size);
+    }
+
+    /**
+     * One published lesson more (+1) or fewer (-1)
+     */
+    public void adjustPublishedLessons(Long courseId, int delta) {
+        if (delta != 0) {
+            courseRepository.adjustTotalLessons(courseId, delta);
+        }
+    }
+
+    /**
+     * Recount the course after the current transaction commits, or at the next flush without one
+     */
+    public void markDirty(Long courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dirty.add(courseId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dirty.add(courseId);
+            }
+        });
+    }
+
+    /**
+     * Recompute the counts of all dirty courses; on failure they stay dirty for the next flush
+     */
+    public int flush() {
+        List<Long> drained = new ArrayList<>();
+        for (Long courseId : dirty) {
+            if (dirty.remove(courseId)) {
+                drained.add(courseId);
+            }
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            for (int from = 0; from < drained.size(); from += FLUSH_CHUNK_SIZE) {
+                courseRepository.recomputeCounts(drained.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, drained.size())));
+            }
+        } catch (Exception e) {
+            log.error("Failed to recompute counts of {} courses, retrying at the next flush", drained.size(), e);
+            dirty.addAll(drained);
+            return 0;
+        }
+        log.debug("Recomputed counts of {} courses", drained.size());
+
+        try {
+            Cache responses = cacheManager.getCache("courseResponses");
+            if (responses != null) {
+                responses.clear();
+            }
+        } catch (Exception e) {
+            log.warn("Could not evict course responses after recount: {}", e.getMessage());
+        }
+        drained.forEach(courseId -> eventPublisher.publishEvent(CourseChangedEvent.of(courseId)));
+        return drained.size();
+    }
+
+    /**
+     * Recount every course, chunk by chunk
+     *
+     * @return number of courses recounted
+     */
+    public int reconcileAll() {
+        int recounted = 0;
+        long lastId = 0;
+        List<Long> chunk;
+        do {
+            chunk = courseRepository.findIdsAfter(lastId, FLUSH_CHUNK_SIZE);
+            if (!chunk.isEmpty()) {
+                courseRepository.recomputeCounts(chunk);
+                recounted += chunk.size();
+                lastId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == FLUSH_CHUNK_SIZE);
+        log.info("Reconciled lesson/exercise counts of {} courses", recounted);
+
+        try {
+            Cache responses = cacheManager.getCache("courseResponses");
+            if (responses != null) {
+                responses.clear();
+            }
+        } catch (Exception e) {
+            log.warn("Could not evict course responses after reconciliation: {}", e.getMessage());
+        }
+        return recounted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
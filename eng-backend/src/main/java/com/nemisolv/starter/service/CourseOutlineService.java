@@ -0,0 +1,326 @@
+package com.nemisolv.starter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nemisolv.starter.config.CourseOutlineProperties;
+import com.nemisolv.starter.entity.Course;
+import com.nemisolv.starter.enums.ApiResponseCode;
+import com.nemisolv.starter.event.CourseChangedEvent;
+import com.nemisolv.starter.exception.NotFoundException;
+import com.nemisolv.starter.payload.ApiResponse;
+import com.nemisolv.starter.payload.course.CourseOutlineResponse;
+import com.nemisolv.starter.payload.course.CourseTreeResponse;
+import com.nemisolv.starter.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Precomputed course page documents
+ *
+ * After a course or lesson write commits, the course's outline (metadata, ordered published
+ * lessons with their exercises, counts) is rendered once into the final JSON response body,
+ * gzipped, and stored in Redis under a new version. A read is then a single HMGET whose bytes
+ * go to the client untouched, so its cost does not grow with the lesson count.
+ *
+ * The latest outline of a slug expires after {@code latest-ttl} and is rebuilt on the next
+ * read, which also covers a cold or flushed Redis; superseded versions stay readable for
+ * {@code version-retention}. Only published courses have an outline.
+ *
+ * The latest hash is only ever overwritten in place by a script that keeps it when it already
+ * holds a newer version, so concurrent publishes cannot move it backwards and readers never see
+ * it missing mid-update. A rebuild after a miss is single-flight: one reader takes
+ * {@code course:outline:lock:<slug>}, the others wait up to {@code rebuild-wait} for its result.
+ *
+ * Keys: {@code course:outline:<slug>} (latest), {@code course:outline:<slug>:v<n>},
+ * {@code course:outline:version:<courseId>} (counter); outlines are hashes of version + body.
+ * The counter has no TTL but can still be evicted or flushed, so each increment is raised past
+ * the latest stored version; otherwise it would restart at 1 and every publish would be rejected
+ * as older than the latest.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseOutlineService {
+
+    private static final String KEY_PREFIX = "course:outline:";
+    private static final byte[] VERSION_FIELD = "version".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BODY_FIELD = "body".getBytes(StandardCharsets.UTF_8);
+    private static final Duration REBUILD_POLL_INTERVAL = Duration.ofMillis(50);
+
+    /**
+     * KEYS[1] latest hash; ARGV version, body, ttl millis. Returns 0 when a newer version is already there
+     */
+    private static final byte[] SET_LATEST_SCRIPT = """
+            local current = redis.call('hget', KEYS[1], 'version')
+            if current and tonumber(current) >= tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('hset', KEYS[1], 'version', ARGV[1], 'body', ARGV[2])
+            redis.call('pexpire', KEYS[1], ARGV[3])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * KEYS[1] version counter, KEYS[2] latest hash. Returns max(INCR, stored latest version + 1)
+     */
+    private static final RedisScript<Long> NEXT_VERSION_SCRIPT = new DefaultRedisScript<>("""
+            local next = redis.call('incr', KEYS[1])
+            local stored = tonumber(redis.call('hget', KEYS[2], 'version') or '0')
+            if next <= stored then
+                next = stored + 1
+                redis.call('set', KEYS[1], next)
+            end
+            return next
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final CourseRepository courseRepository;
+    private final CourseService courseService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CourseOutlineProperties courseOutlineProperties;
+
+    /**
+     * @param version null for the latest outline
+     */
+    public CourseOutlineSnapshot getOutline(String slug, Long version) {
+        CourseOutlineSnapshot stored = read(outlineKey(slug, version));
+        if (stored != null) {
+            return stored;
+        }
+        if (version != null) {
+            throw new NotFoundException(ApiResponseCode.RESOURCE_NOT_FOUND, "Course outline", slug + " v" + version);
+        }
+        return rebuild(slug);
+    }
+
+    /**
+     * Rebuild a missing latest outline, once across nodes: whoever gets the lock publishes, the
+     * others poll for its result and only render themselves if it does not show up in time
+     */
+    private CourseOutlineSnapshot rebuild(String slug) {
+        String lockKey = KEY_PREFIX + "lock:" + slug;
+        String token = UUID.randomUUID().toString();
+        boolean locked = tryLock(lockKey, token);
+        if (!locked) {
+            long deadline = System.nanoTime() + courseOutlineProperties.getRebuildWait().toNanos();
+            while (System.nanoTime() - deadline < 0 && sleep(REBUILD_POLL_INTERVAL)) {
+                CourseOutlineSnapshot stored = read(outlineKey(slug, null));
+                if (stored != null) {
+                    return stored;
+                }
+            }
+            log.debug("Outline rebuild of {} did not finish in time, rendering it here", slug);
+        }
+        try {
+            Course course = courseRepository.findBySlug(slug)
+                    .filter(found -> Boolean.TRUE.equals(found.getIsPublished()))
+                    .orElseThrow(() -> new NotFoundException(ApiResponseCode.RESOURCE_NOT_FOUND, "Course outline", slug));
+            return publish(course);
+        } finally {
+            if (locked) {
+                unlock(lockKey, token);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        try {
+            Optional<Course> course = courseRepository.findById(event.getCourseId());
+            String previousSlug = event.getPreviousSlug();
+            if (previousSlug != null && !previousSlug.equals(course.map(Course::getSlug).orElse(null))) {
+                stringRedisTemplate.delete(outlineKey(previousSlug, null));
+            }
+            if (course.isEmpty()) {
+                return;
+            }
+            if (Boolean.TRUE.equals(course.get().getIsPublished())) {
+                publish(course.get());
+            } else {
+                stringRedisTemplate.delete(outlineKey(course.get().getSlug(), null));
+            }
+        } catch (Exception e) {
+            // The stale outline expires after latest-ttl at the latest
+            log.warn("Could not rebuild outline of course {}: {}", event.getCourseId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Render the outline under a new version and make it the latest; if Redis is down the
+     * document is still returned, unstored, as version 0
+     */
+    private CourseOutlineSnapshot publish(Course course) {
+        long version;
+        try {
+            Long next = stringRedisTemplate.execute(NEXT_VERSION_SCRIPT,
+                    List.of(KEY_PREFIX + "version:" + course.getId(), outlineKey(course.getSlug(), null)));
+            version = Objects.requireNonNull(next);
+        } catch (Exception e) {
+            log.warn("Could not version outline of course {}: {}", course.getId(), e.getMessage());
+            return render(course, 0);
+        }
+
+        CourseOutlineSnapshot snapshot = render(course, version);
+        byte[] latestKey = bytes(outlineKey(course.getSlug(), null));
+        byte[] versionKey = bytes(outlineKey(course.getSlug(), version));
+        Map<byte[], byte[]> fields = Map.of(VERSION_FIELD, bytes(Long.toString(version)), BODY_FIELD, snapshot.body());
+        byte[] latestTtlMillis = bytes(Long.toString(Math.max(1, courseOutlineProperties.getLatestTtl().toMillis())));
+        try {
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.scriptingCommands().eval(SET_LATEST_SCRIPT, ReturnType.INTEGER, 1,
+                        latestKey, bytes(Long.toString(version)), snapshot.body(), latestTtlMillis);
+                connection.hashCommands().hMSet(versionKey, fields);
+                connection.keyCommands().expire(versionKey, seconds(courseOutlineProperties.getVersionRetention()));
+                return null;
+            });
+            if (Long.valueOf(0).equals(results.get(0))) {
+                log.debug("Outline v{} of course {} stored, a newer version is already the latest", version, course.getId());
+            } else {
+                log.debug("Published outline v{} of course {} ({} bytes)", version, course.getId(), snapshot.body().length);
+            }
+        } catch (Exception e) {
+            log.warn("Could not store outline of course {}: {}", course.getId(), e.getMessage());
+        }
+        return snapshot;
+    }
+
+    private CourseOutlineSnapshot render(Course course, long version) {
+        CourseTreeResponse tree = courseService.buildCourseTrees(List.of(course), true).get(0);
+        CourseOutlineResponse outline = CourseOutlineResponse.builder()
+                .version(version)
+                .course(tree.getCourse())
+                .lessons(tree.getLessons())
+                .lessonCount(tree.getLessons().size())
+                .exerciseCount(tree.getLessons().stream().mapToInt(lesson -> lesson.getExercises().size()).sum())
+                .totalDuration(tree.getLessons().stream()
+                        .mapToInt(lesson -> lesson.getDuration() != null ? lesson.getDuration() : 0)
+                        .sum())
+                .generatedAt(LocalDateTime.now())
+                .build();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success(outline));
+            boolean gzip = courseOutlineProperties.isGzip();
+            return new CourseOutlineSnapshot(version, gzip ? gzip(json) : json, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CourseOutlineSnapshot read(String key) {
+        try {
+            List<byte[]> values = stringRedisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.hashCommands().hMGet(bytes(key), VERSION_FIELD, BODY_FIELD));
+            if (values == null || values.get(0) == null || values.get(1) == null) {
+                return null;
+            }
+            byte[] body = values.get(1);
+            return new CourseOutlineSnapshot(Long.parseLong(new String(values.get(0), StandardCharsets.UTF_8)),
+                    body, isGzip(body));
+        } catch (Exception e) {
+            log.warn("Could not read course outline {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * If Redis is unreachable every reader rebuilds on its own, as without the lock
+     */
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return !Boolean.FALSE.equals(stringRedisTemplate.opsForValue()
+                    .setIfAbsent(lockKey, token, courseOutlineProperties.getRebuildLockTtl()));
+        } catch (Exception e) {
+            log.warn("Could not lock outline rebuild {}: {}", lockKey, e.getMessage());
+            return true;
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+        } catch (Exception e) {
+            // Expires after rebuild-lock-ttl anyway
+            log.debug("Could not release outline rebuild lock {}: {}", lockKey, e.getMessage());
+        }
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String outlineKey(String slug, Long version) {
+        return version == null ? KEY_PREFIX + slug : KEY_PREFIX + slug + ":v" + version;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long seconds(Duration duration) {
+        return Math.max(1, duration.toSeconds());
+    }
+
+    private static boolean isGzip(byte[] body) {
+        return body.length > 1 && (body[0] & 0xff) == 0x1f && (body[1] & 0xff) == 0x8b;
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A rendered {@code ApiResponse<CourseOutlineResponse>} body, gzipped or plain JSON
+     */
+    public record CourseOutlineSnapshot(long version, byte[] body, boolean gzipped) {
+
+        public byte[] json() {
+            if (!gzipped) {
+                return body;
+            }
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,19 +1,29 @@
 package com.nemisolv.starter.service;
 
 import com.nemisolv.starter.entity.Course;
+import com.nemisolv.starter.entity.Exercise;
+import com.nemisolv.starter.entity.Lesson;
+import com.nemisolv.starter.event.CourseChangedEvent;
 import com.nemisolv.starter.exception.ResourceNotFoundException;
+import com.nemisolv.starter.helper.BatchLoader;
 import com.nemisolv.starter.payload.PagedResponse;
 import com.nemisolv.starter.payload.course.CourseRequest;
 import com.nemisolv.starter.payload.course.CourseResponse;
+import com.nemisolv.starter.payload.course.CourseTreeResponse;
 import com.nemisolv.starter.repository.CourseRepository;
+import com.nemisolv.starter.repository.ExerciseRepository;
+import com.nemisolv.starter.repository.LessonRepository;
 import com.nemisolv.starter.util.SlugUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.nemisolv.starter.pagination.Pageable;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +32,10 @@ import java.util.stream.Collectors;
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final ExerciseRepository exerciseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CourseCounterService courseCounterService;
 
     @Transactional(readOnly = true)
     public PagedResponse<CourseResponse> getAllCourses(Long categoryId, String difficultyLevel,
@@ -66,7 +80,47 @@ public class CourseService {
         return CourseResponse.from(course);
     }
 
+    /**
+     * Course -> lessons -> exercises in three queries whatever the lesson count
+     */
+    @Transactional(readOnly = true)
+    public CourseTreeResponse getCourseTree(Long id, Boolean publishedLessonsOnly) {
+        Course course = courseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+        return buildCourseTrees(List.of(course), publishedLessonsOnly).get(0);
+    }
+
+    /**
+     * One query per tree level for any number of courses; lessons and exercises are batch-loaded
+     * and grouped in memory
+     */
+    List<CourseTreeResponse> buildCourseTrees(List<Course> courses, Boolean publishedLessonsOnly) {
+        BatchLoader<Long, List<Lesson>> lessonsByCourse = BatchLoader.grouping(
+                courseIds -> lessonRepository.findByCourseIdIn(courseIds, publishedLessonsOnly), Lesson::getCourseId);
+        BatchLoader<Long, List<Exercise>> exercisesByLesson = BatchLoader.grouping(
+                exerciseRepository::findActiveByLessonIdIn, Exercise::getLessonId);
+
+        Map<Long, List<Lesson>> lessons = lessonsByCourse.loadMany(courses.stream().map(Course::getId).toList());
+        Map<Long, List<Exercise>> exercises = exercisesByLesson.loadMany(lessons.values().stream()
+                .flatMap(List::stream)
+                .map(Lesson::getId)
+                .toList());
+
+        return courses.stream()
+                .map(course -> CourseTreeResponse.builder()
+                        .course(CourseResponse.from(course))
+                        .lessons(lessons.getOrDefault(course.getId(), List.of()).stream()
+                                .map(lesson -> CourseTreeResponse.LessonNode.from(lesson,
+                                        exercises.getOrDefault(lesson.getId(), List.of()).stream()
+                                                .map(CourseTreeResponse.ExerciseNode::from)
+                                                .toList()))
+                                .toList())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     @Transactional
+    @CacheEvict(value = "courseResponses", allEntries = true)
     public CourseResponse createCourse(CourseRequest request, Long createdBy) {
         Course course = Course.builder()
                 .categoryId(request.getCategoryId())
@@ -87,14 +141,17 @@ public class CourseService {
 
         courseRepository.insert(course);
         log.info("Created course with id: {}", course.getId());
+        eventPublisher.publishEvent(CourseChangedEvent.of(course.getId()));
 
         return getCourseById(course.getId());
     }
 
     @Transactional
+    @CacheEvict(value = "courseResponses", allEntries = true)
     public CourseResponse updateCourse(Long id, CourseRequest request) {
         Course existingCourse = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+        String previousSlug = existingCourse.getSlug();
 
         existingCourse.setCategoryId(request.getCategoryId());
         existingCourse.setTitle(request.getTitle());
@@ -112,23 +169,29 @@ public class CourseService {
 
         courseRepository.update(existingCourse);
         log.info("Updated course with id: {}", id);
+        eventPublisher.publishEvent(new CourseChangedEvent(id, previousSlug));
 
         return getCourseById(id);
     }
 
     @Transactional
+    @CacheEvict(value = "courseResponses", allEntries = true)
     public void deleteCourse(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
 
         courseRepository.deleteById(id);
         log.info("Deleted course with id: {}", id);
+        eventPublisher.publishEvent(new CourseChangedEvent(id, course.getSlug()));
     }
 
+    /**
+     * Recounted by {@link CourseCounterService} after commit, together with other pending courses
+     */
     @Transactional
     public void updateCourseCounts(Long courseId) {
-        courseRepository.updateCourseCounts(courseId);
-        log.info("Updated course counts for course id: {}", courseId);
+        courseCounterService.markDirty(courseId);
+        log.debug("Marked course counts dirty for course id: {}", courseId);
     }
 
     private String generateSlug(String title, String providedSlug) {
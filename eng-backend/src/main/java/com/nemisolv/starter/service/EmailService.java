@@ -12,12 +12,15 @@ import org.thymeleaf.spring6.SpringTemplateEngine;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.Map;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailService {
+
+    public static final String TEMPLATE_PREFIX = "email/";
     
     private final JavaMailSender mailSender;
     private final SpringTemplateEngine emailTemplateEngine;
@@ -34,28 +37,7 @@ public class EmailService {
 
     public void sendEmail(String to, String subject, String templateName, Map<String, Object> variables) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setTo(to);
-            helper.setFrom(defaultFromEmail);
-            helper.setReplyTo(defaultReplyTo);
-            helper.setSubject(subject);
-            
-            // Prepare context for Thymeleaf template
-            Context context = new Context();
-            if (variables != null) {
-                context.setVariables(variables);
-            }
-            
-            // Add common variables
-            context.setVariable("appName", appName);
-            context.setVariable("supportEmail", defaultReplyTo);
-            context.setVariable("currentYear", LocalDateTime.now().getYear());
-            
-            // Process template
-            String htmlContent = emailTemplateEngine.process("email/" + templateName, context);
-            helper.setText(htmlContent, true);
+            MimeMessage message = createTemplatedMessage(to, subject, templateName, variables);
             
             // Send email
             mailSender.send(message);
@@ -67,6 +49,64 @@ public class EmailService {
             throw new RuntimeException("Failed to send email", e);
         }
     }
+
+    /**
+     * Render a template into a ready-to-send message without sending it
+     */
+    public MimeMessage createTemplatedMessage(String to, String subject, String templateName,
+                                              Map<String, Object> variables) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        
+        helper.setTo(to);
+        helper.setFrom(defaultFromEmail);
+        helper.setReplyTo(defaultReplyTo);
+        helper.setSubject(subject);
+        helper.setText(renderTemplate(templateName, variables), true);
+        
+        helper.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+
+    /**
+     * Build a single-part HTML message from already rendered content
+     * Used by the bulk mail engine, which renders through its own template skeletons
+     * and sends over its own pooled connections
+     */
+    public MimeMessage createHtmlMessage(String to, String subject, String htmlContent) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+
+        helper.setTo(to);
+        helper.setFrom(defaultFromEmail);
+        helper.setReplyTo(defaultReplyTo);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+
+        helper.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+
+    /**
+     * Process an email template with the given variables plus the common ones (appName, supportEmail, currentYear)
+     */
+    public String renderTemplate(String templateName, Map<String, Object> variables) {
+        // Prepare context for Thymeleaf template
+        Context context = new Context();
+        if (variables != null) {
+            context.setVariables(variables);
+        }
+        
+        // Add common variables
+        context.setVariable("appName", appName);
+        context.setVariable("supportEmail", defaultReplyTo);
+        context.setVariable("currentYear", LocalDateTime.now().getYear());
+        
+        // Process template
+        return emailTemplateEngine.process(TEMPLATE_PREFIX + templateName, context);
+    }
     
 
     public void sendSimpleEmail(String to, String subject, String content) {
@@ -1,41 +1,101 @@
 package com.nemisolv.starter.service;
 
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.exception.technical.ExternalServiceException;
+import com.nemisolv.starter.payload.ai.GrammarCheckBatchRequest;
+import com.nemisolv.starter.payload.ai.GrammarCheckBatchResponse;
 import com.nemisolv.starter.payload.ai.GrammarCheckRequest;
 import com.nemisolv.starter.payload.ai.GrammarCheckResponse;
+import com.nemisolv.starter.service.ai.AICallExecutor;
+import com.nemisolv.starter.service.ai.GrammarResultCache;
+import com.nemisolv.starter.service.ai.MicroBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 @Service
 @Slf4j
 public class GrammarAIService {
 
     private final WebClient webClient;
+    private final GrammarResultCache grammarResultCache;
+    private final AICallExecutor aiCallExecutor;
+    private final MicroBatcher<GrammarCheckRequest, GrammarCheckResponse> batcher;
 
-    public GrammarAIService(WebClient.Builder webClientBuilder, @Value("${ai.service.url}") String aiServiceUrl) {
+    public GrammarAIService(WebClient.Builder webClientBuilder,
+                            @Value("${ai.service.url}") String aiServiceUrl,
+                            GrammarResultCache grammarResultCache,
+                            AICallExecutor aiCallExecutor,
+                            AIServiceProperties aiServiceProperties,
+                            MeterRegistry meterRegistry) {
         this.webClient = webClientBuilder.baseUrl(aiServiceUrl).build();
+        this.grammarResultCache = grammarResultCache;
+        this.aiCallExecutor = aiCallExecutor;
+
+        AIServiceProperties.Batch batching = aiServiceProperties.getBatching().getGrammar();
+        this.batcher = batching.isEnabled()
+                ? new MicroBatcher<>("grammar", true, batching.getMaxBatchSize(), batching.getMaxWait(),
+                        batching.getMaxConcurrentBatches(), this::callCheckBatch, this::callCheck, meterRegistry)
+                : null;
     }
 
     public GrammarCheckResponse checkGrammar(GrammarCheckRequest request) {
+        Optional<GrammarCheckResponse> cached = grammarResultCache.get(request.getText());
+        if (cached.isPresent()) {
+            log.debug("Grammar check served from cache");
+            return cached.get();
+        }
+
         log.info("Sending grammar check request to AI service for text: {}", request.getText());
 
         try {
-            Mono<GrammarCheckResponse> responseMono = this.webClient.post()
-                    .uri("/api/v1/grammar/check")
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(GrammarCheckResponse.class);
-
-            GrammarCheckResponse response = responseMono.block();
+            GrammarCheckResponse response = batcher != null
+                    ? batcher.submit(request).join()
+                    : callCheck(request);
             log.info("Received grammar check response with {} errors",
                     response != null && response.getErrors() != null ? response.getErrors().size() : 0);
 
+            grammarResultCache.put(request.getText(), response);
             return response;
         } catch (Exception e) {
-            log.error("Error calling AI service for grammar check: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to check grammar: " + e.getMessage(), e);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Error calling AI service for grammar check: {}", cause.getMessage(), cause);
+            throw new ExternalServiceException("ai-service/grammar", cause);
+        }
+    }
+
+    // Grammar checks have no side effects, so they are safe to hedge and retry
+    private GrammarCheckResponse callCheck(GrammarCheckRequest request) {
+        return aiCallExecutor.execute("grammar", true, () -> this.webClient.post()
+                        .uri("/api/v1/grammar/check")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(GrammarCheckResponse.class))
+                .block();
+    }
+
+    private List<GrammarCheckResponse> callCheckBatch(List<GrammarCheckRequest> requests) {
+        GrammarCheckBatchResponse response = aiCallExecutor.execute("grammar-batch", true, () -> this.webClient.post()
+                        .uri("/api/v1/grammar/check/batch")
+                        .bodyValue(new GrammarCheckBatchRequest(requests))
+                        .retrieve()
+                        .bodyToMono(GrammarCheckBatchResponse.class))
+                .block();
+
+        return response != null ? response.getResults() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (batcher != null) {
+            batcher.close();
         }
     }
 }
@@ -1,15 +1,23 @@
 package com.nemisolv.starter.service;
 
+import com.nemisolv.starter.config.NotificationProperties;
+import com.nemisolv.starter.payload.admin.MailCampaignProgress;
+import com.nemisolv.starter.service.job.JobShard;
+import com.nemisolv.starter.service.mail.BulkMailService;
+import com.nemisolv.starter.service.mail.MailCampaign;
+import com.nemisolv.starter.service.mail.MailJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service for sending daily learning reminders to users
@@ -19,11 +27,18 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class LearningReminderService {
 
+    public static final String DAILY_REMINDER_JOB = "learning-reminder";
+    public static final String STREAK_WARNING_JOB = "streak-warning";
+
     @Qualifier("mariadbJdbcTemplate")
     private final JdbcTemplate mariadbJdbcTemplate;
 
     private final EmailService emailService;
 
+    private final BulkMailService bulkMailService;
+
+    private final NotificationProperties notificationProperties;
+
     /**
      * DTO for users who need learning reminders
      */
@@ -39,45 +54,82 @@ public class LearningReminderService {
     ) {}
 
     /**
-     * Find users who haven't studied today and should receive a reminder
+     * Shared by both reminder queries; {@code %s} is the job-specific filter
+     * Paged by user_id (keyset on the user_profiles.user_id unique key) so every page is an index range scan
+     */
+    private static final String CANDIDATE_SQL = """
+        SELECT
+            up.user_id,
+            up.name,
+            up.email,
+            up.daily_study_goal,
+            COALESCE(us.current_streak_days, 0) as current_streak,
+            COALESCE(us.total_xp, 0) as total_xp,
+            COALESCE(us.current_level, 1) as current_level,
+            us.last_activity_date
+        FROM user_profiles up
+        JOIN users u ON up.user_id = u.id
+        LEFT JOIN user_stats us ON up.user_id = us.user_id
+        WHERE
+            up.user_id > ?
+            AND up.user_id <= ?
+            AND u.status = 'ACTIVE'
+            AND up.notification_enabled = 1
+            %s
+        ORDER BY up.user_id
+        LIMIT ?
+        """;
+
+    private static final RowMapper<UserReminderInfo> USER_REMINDER_ROW_MAPPER = (rs, rowNum) -> {
+        java.sql.Date lastActivityDate = rs.getDate("last_activity_date");
+        return new UserReminderInfo(
+            rs.getLong("user_id"),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getInt("daily_study_goal"),
+            rs.getInt("current_streak"),
+            rs.getInt("total_xp"),
+            rs.getInt("current_level"),
+            lastActivityDate != null ? lastActivityDate.toLocalDate() : null
+        );
+    };
+
+    /**
+     * Stream users who haven't studied today and should receive a reminder
      * Only sends to users who:
      * 1. Have notifications enabled
      * 2. Are active
      * 3. Haven't studied today (last_activity_date is not today)
+     *
+     * @return number of users handed to the consumer
      */
-    public List<UserReminderInfo> findUsersNeedingReminder() {
-        String sql = """
-            SELECT
-                up.user_id,
-                up.name,
-                up.email,
-                up.daily_study_goal,
-                COALESCE(us.current_streak_days, 0) as current_streak,
-                COALESCE(us.total_xp, 0) as total_xp,
-                COALESCE(us.current_level, 1) as current_level,
-                us.last_activity_date
-            FROM user_profiles up
-            JOIN users u ON up.user_id = u.id
-            LEFT JOIN user_stats us ON up.user_id = us.user_id
-            WHERE
-                u.status = 'ACTIVE'
-                AND up.notification_enabled = 1
-                AND (us.last_activity_date IS NULL OR us.last_activity_date < CURDATE())
-            """;
-
-        return mariadbJdbcTemplate.query(sql, (rs, rowNum) -> {
-            java.sql.Date lastActivityDate = rs.getDate("last_activity_date");
-            return new UserReminderInfo(
-                rs.getLong("user_id"),
-                rs.getString("name"),
-                rs.getString("email"),
-                rs.getInt("daily_study_goal"),
-                rs.getInt("current_streak"),
-                rs.getInt("total_xp"),
-                rs.getInt("current_level"),
-                lastActivityDate != null ? lastActivityDate.toLocalDate() : null
-            );
-        });
+    public long forEachUserNeedingReminder(JobShard shard, Consumer<UserReminderInfo> consumer) {
+        return forEachCandidate(shard, """
+            AND (us.last_activity_date IS NULL OR us.last_activity_date < CURDATE())
+            """, consumer);
+    }
+
+    /**
+     * Walk the shard's candidates page by page; each page is fetched, the connection released,
+     * and only then handed to the consumer, which may block on the mail queue
+     */
+    private long forEachCandidate(JobShard shard, String filter, Consumer<UserReminderInfo> consumer) {
+        String sql = CANDIDATE_SQL.formatted(filter);
+        int pageSize = Math.max(1, notificationProperties.getCandidates().getPageSize());
+        long lastUserId = shard.getAfterUserId();
+        long total = 0;
+        while (shard.isLeaseHeld()) {
+            List<UserReminderInfo> page = mariadbJdbcTemplate.query(sql, USER_REMINDER_ROW_MAPPER,
+                    lastUserId, shard.getToUserId(), pageSize);
+            page.forEach(consumer);
+            total += page.size();
+            if (page.size() < pageSize) {
+                break;
+            }
+            lastUserId = page.get(page.size() - 1).userId();
+            shard.checkpoint(lastUserId);
+        }
+        return total;
     }
 
     /**
@@ -85,32 +137,8 @@ public class LearningReminderService {
      */
     public void sendReminderEmail(UserReminderInfo user) {
         try {
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("userName", user.name());
-            variables.put("dailyGoal", user.dailyStudyGoal() != null ? user.dailyStudyGoal() : 30);
-            variables.put("currentStreak", user.currentStreak());
-            variables.put("currentLevel", user.currentLevel());
-            variables.put("totalXp", user.totalXp());
-
-            // Add motivational message based on streak
-            String motivation;
-            if (user.currentStreak() == 0) {
-                motivation = "Start your learning journey today!";
-            } else if (user.currentStreak() < 7) {
-                motivation = "Keep it up! You're building a great habit!";
-            } else if (user.currentStreak() < 30) {
-                motivation = "Amazing streak! Don't break it now!";
-            } else {
-                motivation = "Incredible dedication! You're unstoppable!";
-            }
-            variables.put("motivation", motivation);
-
-            emailService.sendEmail(
-                user.email(),
-                "⏰ Daily Learning Reminder - Keep Your Streak Going!",
-                "learning-reminder",
-                variables
-            );
+            MailJob job = reminderJob(user);
+            emailService.sendEmail(job.to(), job.subject(), job.templateName(), job.variables());
 
             log.info("Learning reminder email sent successfully to user: {} ({})", user.name(), user.email());
 
@@ -119,65 +147,71 @@ public class LearningReminderService {
         }
     }
 
+    private MailJob reminderJob(UserReminderInfo user) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("userName", user.name());
+        variables.put("dailyGoal", user.dailyStudyGoal() != null ? user.dailyStudyGoal() : 30);
+        variables.put("currentStreak", user.currentStreak());
+        variables.put("currentLevel", user.currentLevel());
+        variables.put("totalXp", user.totalXp());
+
+        // Add motivational message based on streak
+        String motivation;
+        if (user.currentStreak() == 0) {
+            motivation = "Start your learning journey today!";
+        } else if (user.currentStreak() < 7) {
+            motivation = "Keep it up! You're building a great habit!";
+        } else if (user.currentStreak() < 30) {
+            motivation = "Amazing streak! Don't break it now!";
+        } else {
+            motivation = "Incredible dedication! You're unstoppable!";
+        }
+        variables.put("motivation", motivation);
+
+        return new MailJob(
+            user.email(),
+            "⏰ Daily Learning Reminder - Keep Your Streak Going!",
+            "learning-reminder",
+            variables
+        );
+    }
+
     /**
      * Process daily learning reminders for all eligible users
      */
     public void processDailyReminders() {
-        log.info("Starting daily learning reminder process...");
+        processDailyReminders(JobShard.unbounded(DAILY_REMINDER_JOB));
+    }
+
+    /**
+     * Process daily learning reminders for one shard of the user id space
+     */
+    public void processDailyReminders(JobShard shard) {
+        log.info("Starting daily learning reminder process for {}...", shard.getLabel());
 
-        List<UserReminderInfo> usersNeedingReminder = findUsersNeedingReminder();
+        MailCampaign campaign = bulkMailService.startCampaign(shard.getLabel());
+        long found = forEachUserNeedingReminder(shard, user -> bulkMailService.submit(campaign, reminderJob(user)));
+        MailCampaignProgress progress = bulkMailService.finish(campaign);
 
-        if (usersNeedingReminder.isEmpty()) {
+        if (found == 0) {
             log.info("No users need learning reminders today");
             return;
         }
 
-        log.info("Found {} user(s) who need learning reminders", usersNeedingReminder.size());
-
-        for (UserReminderInfo user : usersNeedingReminder) {
-            sendReminderEmail(user);
-        }
-
-        log.info("Daily learning reminder process completed. Sent {} email(s)", usersNeedingReminder.size());
+        log.info("Daily learning reminder process completed. Found {} user(s), sent {} email(s), {} failed",
+                found, progress.getSent(), progress.getFailed());
     }
 
     /**
-     * Find users at risk of losing their streak (haven't studied today and have an active streak)
+     * Stream users at risk of losing their streak (haven't studied today and have an active streak)
+     *
+     * @return number of users handed to the consumer
      */
-    public List<UserReminderInfo> findUsersAtRiskOfLosingStreak() {
-        String sql = """
-            SELECT
-                up.user_id,
-                up.name,
-                up.email,
-                up.daily_study_goal,
-                COALESCE(us.current_streak_days, 0) as current_streak,
-                COALESCE(us.total_xp, 0) as total_xp,
-                COALESCE(us.current_level, 1) as current_level,
-                us.last_activity_date
-            FROM user_profiles up
-            JOIN users u ON up.user_id = u.id
-            LEFT JOIN user_stats us ON up.user_id = us.user_id
-            WHERE
-                u.status = 'ACTIVE'
-                AND up.notification_enabled = 1
-                AND us.current_streak_days > 0
-                AND (us.last_activity_date IS NULL OR us.last_activity_date < CURDATE())
-            """;
-
-        return mariadbJdbcTemplate.query(sql, (rs, rowNum) -> {
-            java.sql.Date lastActivityDate = rs.getDate("last_activity_date");
-            return new UserReminderInfo(
-                rs.getLong("user_id"),
-                rs.getString("name"),
-                rs.getString("email"),
-                rs.getInt("daily_study_goal"),
-                rs.getInt("current_streak"),
-                rs.getInt("total_xp"),
-                rs.getInt("current_level"),
-                lastActivityDate != null ? lastActivityDate.toLocalDate() : null
-            );
-        });
+    public long forEachUserAtRiskOfLosingStreak(JobShard shard, Consumer<UserReminderInfo> consumer) {
+        return forEachCandidate(shard, """
+            AND us.current_streak_days > 0
+            AND (us.last_activity_date IS NULL OR us.last_activity_date < CURDATE())
+            """, consumer);
     }
 
     /**
@@ -185,17 +219,8 @@ public class LearningReminderService {
      */
     public void sendStreakWarningEmail(UserReminderInfo user) {
         try {
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("userName", user.name());
-            variables.put("currentStreak", user.currentStreak());
-            variables.put("dailyGoal", user.dailyStudyGoal() != null ? user.dailyStudyGoal() : 30);
-
-            emailService.sendEmail(
-                user.email(),
-                "🔥 Don't Lose Your " + user.currentStreak() + "-Day Streak!",
-                "streak-warning",
-                variables
-            );
+            MailJob job = streakWarningJob(user);
+            emailService.sendEmail(job.to(), job.subject(), job.templateName(), job.variables());
 
             log.info("Streak warning email sent to user: {} ({})", user.name(), user.email());
 
@@ -204,25 +229,43 @@ public class LearningReminderService {
         }
     }
 
+    private MailJob streakWarningJob(UserReminderInfo user) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("userName", user.name());
+        variables.put("currentStreak", user.currentStreak());
+        variables.put("dailyGoal", user.dailyStudyGoal() != null ? user.dailyStudyGoal() : 30);
+
+        return new MailJob(
+            user.email(),
+            "🔥 Don't Lose Your " + user.currentStreak() + "-Day Streak!",
+            "streak-warning",
+            variables
+        );
+    }
+
     /**
      * Process streak warnings (typically in the evening)
      */
     public void processStreakWarnings() {
-        log.info("Starting streak warning process...");
+        processStreakWarnings(JobShard.unbounded(STREAK_WARNING_JOB));
+    }
 
-        List<UserReminderInfo> usersAtRisk = findUsersAtRiskOfLosingStreak();
+    /**
+     * Process streak warnings for one shard of the user id space
+     */
+    public void processStreakWarnings(JobShard shard) {
+        log.info("Starting streak warning process for {}...", shard.getLabel());
 
-        if (usersAtRisk.isEmpty()) {
+        MailCampaign campaign = bulkMailService.startCampaign(shard.getLabel());
+        long found = forEachUserAtRiskOfLosingStreak(shard, user -> bulkMailService.submit(campaign, streakWarningJob(user)));
+        MailCampaignProgress progress = bulkMailService.finish(campaign);
+
+        if (found == 0) {
             log.info("No users at risk of losing their streak");
             return;
         }
 
-        log.info("Found {} user(s) at risk of losing their streak", usersAtRisk.size());
-
-        for (UserReminderInfo user : usersAtRisk) {
-            sendStreakWarningEmail(user);
-        }
-
-        log.info("Streak warning process completed. Sent {} email(s)", usersAtRisk.size());
+        log.info("Streak warning process completed. Found {} user(s), sent {} email(s), {} failed",
+                found, progress.getSent(), progress.getFailed());
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.nemisolv.starter.service;
 
+import com.nemisolv.starter.entity.Course;
 import com.nemisolv.starter.entity.Lesson;
+import com.nemisolv.starter.event.CourseChangedEvent;
 import com.nemisolv.starter.exception.ResourceNotFoundException;
 import com.nemisolv.starter.payload.course.LessonRequest;
 import com.nemisolv.starter.payload.course.LessonResponseDto;
@@ -9,6 +11,8 @@ import com.nemisolv.starter.repository.LessonRepository;
 import com.nemisolv.starter.util.SlugUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,16 +26,22 @@ public class LessonService {
 
     private final LessonRepository lessonRepository;
     private final CourseRepository courseRepository;
+    private final CourseCounterService courseCounterService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<LessonResponseDto> getLessonsByCourseId(Long courseId, String lessonType, Boolean isPublished) {
-        // Verify course exists
-        courseRepository.findById(courseId)
+        // Verify course exists; its title/slug are copied instead of joining courses per lesson row
+        Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
 
         List<Lesson> lessons = lessonRepository.findByCourseId(courseId, lessonType, isPublished);
         return lessons.stream()
-                .map(LessonResponseDto::from)
+                .map(lesson -> {
+                    lesson.setCourseTitle(course.getTitle());
+                    lesson.setCourseSlug(course.getSlug());
+                    return LessonResponseDto.from(lesson);
+                })
                 .collect(Collectors.toList());
     }
 
@@ -51,6 +61,7 @@ public class LessonService {
     }
 
     @Transactional
+    @CacheEvict(value = "courseResponses", allEntries = true)
     public LessonResponseDto createLesson(Long courseId, LessonRequest request) {
         // Verify course exists
         courseRepository.findById(courseId)
@@ -83,15 +94,21 @@ public class LessonService {
         log.info("Created lesson with id: {} for course: {}", lesson.getId(), courseId);
 
         // Update course lesson count
-        courseRepository.updateCourseCounts(courseId);
+        if (Boolean.TRUE.equals(lesson.getIsPublished())) {
+            courseCounterService.adjustPublishedLessons(courseId, 1);
+        }
+        eventPublisher.publishEvent(CourseChangedEvent.of(courseId));
 
         return getLessonById(lesson.getId());
     }
 
     @Transactional
+    @CacheEvict(value = "courseResponses", allEntries = true)
     public LessonResponseDto updateLesson(Long id, LessonRequest request) {
-        Lesson existingLesson = lessonRepository.findById(id)
+        // Locked: the published-lesson delta below depends on the state read here
+        Lesson existingLesson = lessonRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson not found with id: " + id));
+        boolean wasPublished = Boolean.TRUE.equals(existingLesson.getIsPublished());
 
         existingLesson.setTitle(request.getTitle());
         existingLesson.setSlug(generateSlug(request.getTitle(), request.getSlug()));
@@ -112,22 +129,31 @@ public class LessonService {
         log.info("Updated lesson with id: {}", id);
 
         // Update course lesson count
-        courseRepository.updateCourseCounts(existingLesson.getCourseId());
+        boolean published = Boolean.TRUE.equals(existingLesson.getIsPublished());
+        if (published != wasPublished) {
+            courseCounterService.adjustPublishedLessons(existingLesson.getCourseId(), published ? 1 : -1);
+        }
+        eventPublisher.publishEvent(CourseChangedEvent.of(existingLesson.getCourseId()));
 
         return getLessonById(id);
     }
 
     @Transactional
+    @CacheEvict(value = "courseResponses", allEntries = true)
     public void deleteLesson(Long id) {
-        Lesson lesson = lessonRepository.findById(id)
+        Lesson lesson = lessonRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson not found with id: " + id));
 
         Long courseId = lesson.getCourseId();
         lessonRepository.deleteById(id);
         log.info("Deleted lesson with id: {}", id);
 
-        // Update course lesson count
-        courseRepository.updateCourseCounts(courseId);
+        // Update course lesson count; its exercises went with the lesson, so recount those later
+        if (Boolean.TRUE.equals(lesson.getIsPublished())) {
+            courseCounterService.adjustPublishedLessons(courseId, -1);
+        }
+        courseCounterService.markDirty(courseId);
+        eventPublisher.publishEvent(CourseChangedEvent.of(courseId));
     }
 
     private String generateSlug(String title, String providedSlug) {
@@ -1,12 +1,13 @@
 package com.nemisolv.starter.service;
 
+import com.nemisolv.starter.event.EmailRequestedEvent;
 import com.nemisolv.starter.notification.*;
 
+import com.nemisolv.starter.service.event.EventPublisher;
 import com.nemisolv.starter.util.Constants;
 import com.nemisolv.starter.util.TimeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -18,30 +19,20 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class NotificationService  {
     
-    private final EmailService emailService;
+    private final EventPublisher eventPublisher;
     
 
-    @Async
+    /**
+     * Queue the email in the outbox; it is sent by the email consumer once the caller's transaction commits
+     */
     public void sendEmail(BaseEmailRequest emailRequest) {
-        try {
-            String templateName = getTemplateName(emailRequest.getType());
-            Map<String, Object> variables = buildTemplateVariables(emailRequest);
-            
-            emailService.sendEmail(
-                emailRequest.getTo(),
-                emailRequest.getSubject(),
-                templateName,
-                variables
-            );
-            
-            log.info("Email sent successfully to: {} with type: {}", 
-                emailRequest.getTo(), emailRequest.getType());
-            
-        } catch (Exception e) {
-            log.error("Failed to send email to: {} with type: {}", 
-                emailRequest.getTo(), emailRequest.getType(), e);
-            throw new RuntimeException("Failed to send email", e);
-        }
+        eventPublisher.emailRequested(EmailRequestedEvent.builder()
+                .to(emailRequest.getTo())
+                .subject(emailRequest.getSubject())
+                .templateName(getTemplateName(emailRequest.getType()))
+                .variables(buildTemplateVariables(emailRequest))
+                .build());
+        log.debug("Email queued for: {} with type: {}", emailRequest.getTo(), emailRequest.getType());
     }
     
     private String getTemplateName(EmailType emailType) {
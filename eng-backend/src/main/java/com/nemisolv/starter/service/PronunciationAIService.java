@@ -1,7 +1,15 @@
 package com.nemisolv.starter.service;
 
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.exception.technical.ExternalServiceException;
+import com.nemisolv.starter.payload.ai.PronunciationBatchRequest;
+import com.nemisolv.starter.payload.ai.PronunciationBatchResponse;
 import com.nemisolv.starter.payload.ai.PronunciationRequest;
 import com.nemisolv.starter.payload.ai.PronunciationResponse;
+import com.nemisolv.starter.service.ai.AICallExecutor;
+import com.nemisolv.starter.service.ai.MicroBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
@@ -9,6 +17,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
 /**
  * Service for Pronunciation Assessment integration with AI service
  * Handles communication with Azure Pronunciation Assessment via AI service
@@ -18,10 +29,22 @@ import reactor.core.publisher.Mono;
 public class PronunciationAIService {
 
     private final WebClient webClient;
+    private final AICallExecutor aiCallExecutor;
+    private final MicroBatcher<PronunciationRequest, PronunciationResponse> batcher;
 
     public PronunciationAIService(WebClient.Builder webClientBuilder,
-                                 @Value("${ai.service.url}") String aiServiceUrl) {
+                                 @Value("${ai.service.url}") String aiServiceUrl,
+                                 AICallExecutor aiCallExecutor,
+                                 AIServiceProperties aiServiceProperties,
+                                 MeterRegistry meterRegistry) {
         this.webClient = webClientBuilder.baseUrl(aiServiceUrl).build();
+        this.aiCallExecutor = aiCallExecutor;
+
+        AIServiceProperties.Batch batching = aiServiceProperties.getBatching().getPronunciation();
+        this.batcher = batching.isEnabled()
+                ? new MicroBatcher<>("pronunciation", false, batching.getMaxBatchSize(), batching.getMaxWait(),
+                        batching.getMaxConcurrentBatches(), this::callAnalyzeBatch, this::callAnalyze, meterRegistry)
+                : null;
         log.info("PronunciationAIService initialized with AI service URL: {}", aiServiceUrl);
     }
 
@@ -35,22 +58,9 @@ public class PronunciationAIService {
         log.info("Requesting pronunciation analysis for target text: '{}'", request.getTargetText());
 
         try {
-            PronunciationResponse response = webClient.post()
-                    .uri("/api/v1/pronunciation/analyze")
-                    .bodyValue(request)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::is4xxClientError, clientResponse ->
-                            clientResponse.bodyToMono(String.class).flatMap(errorBody -> {
-                                log.error("Pronunciation analysis failed with 4xx error: {}", errorBody);
-                                return Mono.error(new RuntimeException("Pronunciation request failed: " + errorBody));
-                            }))
-                    .onStatus(HttpStatusCode::is5xxServerError, clientResponse ->
-                            clientResponse.bodyToMono(String.class).flatMap(errorBody -> {
-                                log.error("Pronunciation analysis failed with 5xx error: {}", errorBody);
-                                return Mono.error(new RuntimeException("Pronunciation service error: " + errorBody));
-                            }))
-                    .bodyToMono(PronunciationResponse.class)
-                    .block();
+            PronunciationResponse response = batcher != null
+                    ? batcher.submit(request).join()
+                    : callAnalyze(request);
 
             log.info("Pronunciation analysis successful. Overall score: {}/100, Recognized: '{}'",
                     response.getOverallScore(), response.getRecognizedText());
@@ -69,11 +79,64 @@ public class PronunciationAIService {
             return response;
 
         } catch (Exception e) {
-            log.error("Error calling Pronunciation AI service", e);
-            throw new RuntimeException("Failed to analyze pronunciation: " + e.getMessage(), e);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Error calling Pronunciation AI service", cause);
+            throw new ExternalServiceException("ai-service/pronunciation", cause);
         }
     }
 
+    /**
+     * Every analysis stores a row on the AI service side, so attempts are never hedged or
+     * retried: a duplicate attempt would record the same recording twice.
+     * 5xx responses surface as WebClientResponseException so they count as upstream failures.
+     */
+    private PronunciationResponse callAnalyze(PronunciationRequest request) {
+        return aiCallExecutor.execute("pronunciation", false, () -> webClient.post()
+                        .uri("/api/v1/pronunciation/analyze")
+                        .bodyValue(request)
+                        .retrieve()
+                        .onStatus(HttpStatusCode::is4xxClientError, clientResponse ->
+                                clientResponse.bodyToMono(String.class).flatMap(errorBody -> {
+                                    log.error("Pronunciation analysis failed with 4xx error: {}", errorBody);
+                                    return Mono.error(new RuntimeException("Pronunciation request failed: " + errorBody));
+                                }))
+                        .onStatus(HttpStatusCode::is5xxServerError, clientResponse -> {
+                            log.error("Pronunciation analysis failed with {} error", clientResponse.statusCode());
+                            return clientResponse.createException();
+                        })
+                        .bodyToMono(PronunciationResponse.class))
+                .block();
+    }
+
+    /**
+     * Not hedged or retried as a whole, for the same reason as {@link #callAnalyze}. Items the
+     * AI service could not analyze come back as {@code null}, so the batcher retries just those.
+     * A 4xx means the batch was refused before any item ran.
+     */
+    private List<PronunciationResponse> callAnalyzeBatch(List<PronunciationRequest> requests) {
+        PronunciationBatchResponse response = aiCallExecutor.execute("pronunciation-batch", false, () -> webClient.post()
+                        .uri("/api/v1/pronunciation/analyze/batch")
+                        .bodyValue(new PronunciationBatchRequest(requests))
+                        .retrieve()
+                        .onStatus(HttpStatusCode::is4xxClientError, clientResponse ->
+                                Mono.error(new MicroBatcher.BatchRejectedException(
+                                        "Pronunciation batch refused with " + clientResponse.statusCode())))
+                        .bodyToMono(PronunciationBatchResponse.class))
+                .block();
+
+        if (response == null || response.getResults() == null) {
+            return null;
+        }
+        return response.getResults().stream()
+                .map(item -> {
+                    if (item.getError() != null) {
+                        log.warn("Pronunciation batch item failed: {}", item.getError());
+                    }
+                    return item.getResult();
+                })
+                .toList();
+    }
+
     /**
      * Check if pronunciation analysis service is available
      *
@@ -92,4 +155,11 @@ public class PronunciationAIService {
             return false;
         }
     }
+
+    @PreDestroy
+    public void shutdown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
 }
@@ -5,6 +5,7 @@ import com.nemisolv.starter.entity.Role;
 import com.nemisolv.starter.entity.RolePermission;
 import com.nemisolv.starter.entity.User;
 import com.nemisolv.starter.enums.RoleName;
+import com.nemisolv.starter.helper.BatchLoader;
 import com.nemisolv.starter.repository.PermissionRepository;
 import com.nemisolv.starter.repository.RolePermissionRepository;
 import com.nemisolv.starter.repository.RoleRepository;
@@ -167,12 +168,31 @@ public class RbacService {
     
     @Transactional(readOnly = true)
     public List<Permission> getPermissionsForRole(Long roleId) {
-        List<RolePermission> rolePermissions = rolePermissionRepository.findByRoleId(roleId);
-        return rolePermissions.stream()
-                .map(rp -> permissionRepository.findById(rp.getPermissionId()))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+        return getPermissionsForRoles(List.of(roleId)).getOrDefault(roleId, List.of());
+    }
+
+    /**
+     * Permissions of several roles in two queries (mappings, then permissions by id) however many rows they have
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<Permission>> getPermissionsForRoles(Collection<Long> roleIds) {
+        BatchLoader<Long, List<RolePermission>> mappings =
+                BatchLoader.grouping(rolePermissionRepository::findByRoleIdIn, RolePermission::getRoleId);
+        BatchLoader<Long, Permission> permissions =
+                BatchLoader.byKey(permissionRepository::findByIdIn, Permission::getId);
+
+        Map<Long, List<RolePermission>> mappingsByRole = mappings.loadMany(roleIds);
+        Map<Long, Permission> permissionsById = permissions.loadMany(mappingsByRole.values().stream()
+                .flatMap(List::stream)
+                .map(RolePermission::getPermissionId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        Map<Long, List<Permission>> result = new LinkedHashMap<>();
+        mappingsByRole.forEach((roleId, rolePermissions) -> result.put(roleId, rolePermissions.stream()
+                .map(rp -> permissionsById.get(rp.getPermissionId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())));
+        return result;
     }
     
     @Transactional(readOnly = true)
@@ -330,14 +350,13 @@ public class RbacService {
     @Transactional(readOnly = true)
     public List<Permission> getPermissionsForUser(Integer userId) {
         List<Role> userRoles = getRolesForUser(userId);
-        List<Permission> allPermissions = new ArrayList<>();
-        
-        for (Role role : userRoles) {
-            allPermissions.addAll(getPermissionsForRole(role.getId()));
-        }
-        
+        Map<Long, List<Permission>> permissionsByRole = getPermissionsForRoles(userRoles.stream()
+                .map(Role::getId)
+                .collect(Collectors.toList()));
+
         // Remove duplicates
-        return allPermissions.stream()
+        return permissionsByRole.values().stream()
+                .flatMap(List::stream)
                 .distinct()
                 .collect(Collectors.toList());
     }
@@ -345,14 +364,13 @@ public class RbacService {
     @Transactional(readOnly = true)
     public List<Permission> getPermissionsForUser(String email) {
         List<Role> userRoles = getRolesForUser(email);
-        List<Permission> allPermissions = new ArrayList<>();
-        
-        for (Role role : userRoles) {
-            allPermissions.addAll(getPermissionsForRole(role.getId()));
-        }
-        
+        Map<Long, List<Permission>> permissionsByRole = getPermissionsForRoles(userRoles.stream()
+                .map(Role::getId)
+                .collect(Collectors.toList()));
+
         // Remove duplicates
-        return allPermissions.stream()
+        return permissionsByRole.values().stream()
+                .flatMap(List::stream)
                 .distinct()
                 .collect(Collectors.toList());
     }
@@ -1,27 +1,92 @@
 package com.nemisolv.starter.service;
 
+import com.nemisolv.starter.config.PlatformStatsProperties;
 import com.nemisolv.starter.payload.stats.PlatformStatsResponse;
 import com.nemisolv.starter.repository.StatsRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Public platform stats, served from the trigger-maintained platform_counters table
+ *
+ * Each node keeps the last read in memory and re-reads the counters at most once per
+ * {@code refresh-interval}; concurrent callers during a refresh get the previous snapshot
+ * instead of queueing on the database.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StatsService {
 
     private final StatsRepository statsRepository;
+    private final PlatformStatsProperties platformStatsProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile PlatformStatsSnapshot snapshot;
+    private final ReentrantLock refreshLock = new ReentrantLock();
 
-    @Transactional(readOnly = true)
     public PlatformStatsResponse getPlatformStats() {
-        long lessonCount = statsRepository.countPublishedLessons();
-        long userCount = statsRepository.countActiveUsers();
-        long courseCount = statsRepository.countPublishedCourses();
-
-        return PlatformStatsResponse.builder()
-            .lessonCount(lessonCount)
-            .courseCount(courseCount)
-            .userCount(userCount)
-            .build();
+        return getPlatformStatsSnapshot().stats();
+    }
+
+    public PlatformStatsSnapshot getPlatformStatsSnapshot() {
+        PlatformStatsSnapshot current = snapshot;
+        if (current != null && !isExpired(current)) {
+            return current;
+        }
+        // Stale: one caller refreshes, the others keep serving the previous counters
+        if (current != null && !refreshLock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            refreshLock.lock();
+        }
+        try {
+            PlatformStatsSnapshot latest = snapshot;
+            return latest == null || isExpired(latest) ? refresh() : latest;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Recompute the counters with COUNT(*) and reload this node's snapshot
+     * One transaction per counter, so writers are only held up for the duration of a single count
+     */
+    public void reconcilePlatformCounters() {
+        StatsRepository.PLATFORM_COUNTERS.forEach(name ->
+                transactionTemplate.executeWithoutResult(status -> statsRepository.reconcilePlatformCounter(name)));
+        refreshLock.lock();
+        try {
+            log.info("Reconciled platform counters: {}", refresh().eTag());
+        } finally {
+            refreshLock.unlock();
+        }
     }
-}
\ No newline at end of file
+
+    private PlatformStatsSnapshot refresh() {
+        Map<String, Long> counters = statsRepository.findPlatformCounters();
+        PlatformStatsResponse stats = PlatformStatsResponse.builder()
+                .lessonCount(counters.getOrDefault(StatsRepository.PUBLISHED_LESSONS, 0L))
+                .courseCount(counters.getOrDefault(StatsRepository.PUBLISHED_COURSES, 0L))
+                .userCount(counters.getOrDefault(StatsRepository.ACTIVE_USERS, 0L))
+                .build();
+        String eTag = String.format("\"%d-%d-%d\"", stats.getLessonCount(), stats.getCourseCount(), stats.getUserCount());
+        snapshot = new PlatformStatsSnapshot(stats, eTag, System.nanoTime());
+        return snapshot;
+    }
+
+    private boolean isExpired(PlatformStatsSnapshot current) {
+        return System.nanoTime() - current.loadedAtNanos() >= platformStatsProperties.getRefreshInterval().toNanos();
+    }
+
+    /**
+     * @param eTag strong validator derived from the counter values
+     */
+    public record PlatformStatsSnapshot(PlatformStatsResponse stats, String eTag, long loadedAtNanos) {}
+}
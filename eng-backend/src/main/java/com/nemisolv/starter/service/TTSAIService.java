@@ -3,6 +3,7 @@ package com.nemisolv.starter.service;
 import com.nemisolv.starter.payload.ai.TTSRequest;
 import com.nemisolv.starter.payload.ai.TTSResponse;
 import com.nemisolv.starter.payload.ai.VoicesListResponse;
+import com.nemisolv.starter.service.ai.AICallExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
@@ -20,10 +21,13 @@ import reactor.core.publisher.Mono;
 public class TTSAIService {
 
     private final WebClient webClient;
+    private final AICallExecutor aiCallExecutor;
 
     public TTSAIService(WebClient.Builder webClientBuilder,
-                       @Value("${ai.service.url}") String aiServiceUrl) {
+                       @Value("${ai.service.url}") String aiServiceUrl,
+                       AICallExecutor aiCallExecutor) {
         this.webClient = webClientBuilder.baseUrl(aiServiceUrl).build();
+        this.aiCallExecutor = aiCallExecutor;
         log.info("TTSAIService initialized with AI service URL: {}", aiServiceUrl);
     }
 
@@ -38,21 +42,22 @@ public class TTSAIService {
                 request.getText().substring(0, Math.min(50, request.getText().length())));
 
         try {
-            TTSResponse response = webClient.post()
-                    .uri("/api/v1/tts/synthesize")
-                    .bodyValue(request)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::is4xxClientError, clientResponse ->
-                            clientResponse.bodyToMono(String.class).flatMap(errorBody -> {
-                                log.error("TTS synthesis failed with 4xx error: {}", errorBody);
-                                return Mono.error(new RuntimeException("TTS request failed: " + errorBody));
-                            }))
-                    .onStatus(HttpStatusCode::is5xxServerError, clientResponse ->
-                            clientResponse.bodyToMono(String.class).flatMap(errorBody -> {
-                                log.error("TTS synthesis failed with 5xx error: {}", errorBody);
-                                return Mono.error(new RuntimeException("TTS service error: " + errorBody));
-                            }))
-                    .bodyToMono(TTSResponse.class)
+            // Each synthesis writes a new audio file, so it is never hedged or retried;
+            // 5xx surfaces as WebClientResponseException so it counts as an upstream failure
+            TTSResponse response = aiCallExecutor.execute("tts", false, () -> webClient.post()
+                            .uri("/api/v1/tts/synthesize")
+                            .bodyValue(request)
+                            .retrieve()
+                            .onStatus(HttpStatusCode::is4xxClientError, clientResponse ->
+                                    clientResponse.bodyToMono(String.class).flatMap(errorBody -> {
+                                        log.error("TTS synthesis failed with 4xx error: {}", errorBody);
+                                        return Mono.error(new RuntimeException("TTS request failed: " + errorBody));
+                                    }))
+                            .onStatus(HttpStatusCode::is5xxServerError, clientResponse -> {
+                                log.error("TTS synthesis failed with {} error", clientResponse.statusCode());
+                                return clientResponse.createException();
+                            })
+                            .bodyToMono(TTSResponse.class))
                     .block();
 
             log.info("TTS synthesis successful. Audio file: {}", response.getAudioFilePath());
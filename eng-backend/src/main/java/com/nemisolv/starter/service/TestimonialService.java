@@ -11,6 +11,7 @@ import com.nemisolv.starter.payload.testimonial.TestimonialUpdateRequest;
 import com.nemisolv.starter.repository.TestimonialRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -89,6 +90,7 @@ public class TestimonialService {
      * @return DTO của Testimonial vừa được tạo.
      */
     @Transactional
+    @CacheEvict(value = "testimonialResponses", allEntries = true)
     public TestimonialResponse createTestimonial(TestimonialCreateRequest createRequest) {
         log.info("Creating a new testimonial for author: {}", createRequest.getAuthorName());
 
@@ -114,6 +116,7 @@ public class TestimonialService {
      * @return DTO của Testimonial sau khi đã được cập nhật.
      */
     @Transactional
+    @CacheEvict(value = "testimonialResponses", allEntries = true)
     public TestimonialResponse updateTestimonial(Long id, TestimonialUpdateRequest updateRequest) {
         log.info("Updating testimonial with id: {}", id);
 
@@ -136,6 +139,7 @@ public class TestimonialService {
      * @param id ID của Testimonial cần xóa.
      */
     @Transactional
+    @CacheEvict(value = "testimonialResponses", allEntries = true)
     public void deleteTestimonial(Long id) {
         log.info("Deleting testimonial with id: {}", id);
 
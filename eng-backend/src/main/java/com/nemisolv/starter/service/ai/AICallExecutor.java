@@ -0,0 +1,165 @@
+package com.nemisolv.starter.service.ai;
+
+import com.nemisolv.starter.config.AIServiceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Wraps calls to the AI service with tail-latency and failure handling
+ *
+ * For idempotent operations:
+ * - Hedging: if the first attempt has not answered after the operation's observed p95,
+ *   a second attempt is fired and whichever answers first wins
+ * - Retries: transient failures (connection errors, timeouts, 5xx) are retried with
+ *   jittered exponential backoff
+ *
+ * Both hedges and retries draw from a per-operation {@link RetryBudget}, so extra
+ * attempts stay a small fraction of real traffic even when the AI service is down.
+ *
+ * Every attempt, idempotent or not, also reports its latency or transient failure to the
+ * operation's adaptive concurrency limiter, so the limiter only ever sees real upstream calls.
+ * Batch operations have their own limiter key, so a batch's longer latency never reads as
+ * congestion of the single-item operation.
+ */
+@Slf4j
+@Component
+public class AICallExecutor {
+
+    private final AIServiceProperties.Resilience config;
+    private final MeterRegistry meterRegistry;
+    private final AIConcurrencyLimiters limiters;
+    private final Map<String, OperationState> operations = new ConcurrentHashMap<>();
+
+    public AICallExecutor(AIServiceProperties aiServiceProperties, MeterRegistry meterRegistry,
+                          AIConcurrencyLimiters limiters) {
+        this.config = aiServiceProperties.getResilience();
+        this.meterRegistry = meterRegistry;
+        this.limiters = limiters;
+    }
+
+    /**
+     * @param operation  name used for latency tracking, budgets and metrics
+     * @param idempotent only idempotent calls are hedged or retried
+     * @param call       supplier creating a fresh attempt each time it is invoked
+     */
+    public <T> Mono<T> execute(String operation, boolean idempotent, Supplier<Mono<T>> call) {
+        OperationState state = operations.computeIfAbsent(operation, this::createState);
+        state.budget.onCall();
+
+        Mono<T> attempt = Mono.defer(() -> {
+                    long startNanos = System.nanoTime();
+                    return call.get()
+                            .doOnSuccess(result -> limiters.recordLatency(operation, System.nanoTime() - startNanos));
+                })
+                .timeout(config.getAttemptTimeout())
+                .doOnError(error -> {
+                    if (isRetryable(error)) {
+                        limiters.recordFailure(operation);
+                    }
+                })
+                .elapsed()
+                .doOnNext(timed -> state.latencies.record(timed.getT1()))
+                .map(timed -> timed.getT2());
+
+        if (!idempotent || !config.isEnabled()) {
+            return attempt;
+        }
+
+        return hedge(state, attempt)
+                .retryWhen(Retry.backoff(config.getMaxRetries(), config.getRetryBackoff())
+                        .maxBackoff(config.getMaxRetryBackoff())
+                        .jitter(0.5)
+                        .filter(error -> isRetryable(error) && withdraw(state))
+                        .doBeforeRetry(signal -> {
+                            state.retries.increment();
+                            log.debug("Retrying '{}' (attempt {}): {}", operation,
+                                    signal.totalRetries() + 1, signal.failure().getMessage());
+                        })
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private <T> Mono<T> hedge(OperationState state, Mono<T> attempt) {
+        long hedgeDelay = hedgeDelayMillis(state);
+        if (hedgeDelay < 0) {
+            return attempt;
+        }
+
+        return Mono.defer(() -> {
+            AtomicBoolean hedgeIssued = new AtomicBoolean();
+
+            // Once a hedge is in flight a failed primary must not cut it short
+            Mono<T> primary = attempt.onErrorResume(error ->
+                    hedgeIssued.get() ? Mono.never() : Mono.error(error));
+
+            Mono<T> backup = Mono.delay(Duration.ofMillis(hedgeDelay))
+                    .flatMap(tick -> {
+                        if (!withdraw(state)) {
+                            return Mono.never();
+                        }
+                        hedgeIssued.set(true);
+                        state.hedges.increment();
+                        return attempt;
+                    });
+
+            return Mono.firstWithSignal(primary, backup);
+        });
+    }
+
+    private long hedgeDelayMillis(OperationState state) {
+        if (!config.isHedgingEnabled() || state.latencies.getCount() < config.getHedgeMinSamples()) {
+            return -1;
+        }
+        long percentile = state.latencies.percentile(config.getHedgePercentile());
+        return Math.max(config.getMinHedgeDelay().toMillis(), percentile);
+    }
+
+    private boolean withdraw(OperationState state) {
+        if (state.budget.tryWithdraw()) {
+            return true;
+        }
+        state.budgetExhausted.increment();
+        return false;
+    }
+
+    private boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+
+    private OperationState createState(String operation) {
+        RetryBudget budget = new RetryBudget(config.getRetryBudgetRatio(), config.getRetryBudgetMaxTokens());
+        Gauge.builder("ai.calls.retry_budget.tokens", budget, RetryBudget::getTokens)
+                .tag("operation", operation)
+                .register(meterRegistry);
+
+        return new OperationState(
+                new LatencyTracker(config.getLatencyWindow()),
+                budget,
+                Counter.builder("ai.calls.hedges").tag("operation", operation).register(meterRegistry),
+                Counter.builder("ai.calls.retries").tag("operation", operation).register(meterRegistry),
+                Counter.builder("ai.calls.retry_budget.exhausted").tag("operation", operation).register(meterRegistry)
+        );
+    }
+
+    private record OperationState(LatencyTracker latencies,
+                                  RetryBudget budget,
+                                  Counter hedges,
+                                  Counter retries,
+                                  Counter budgetExhausted) {}
+}
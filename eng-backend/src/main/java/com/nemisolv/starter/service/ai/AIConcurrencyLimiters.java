@@ -0,0 +1,77 @@
+package com.nemisolv.starter.service.ai;
+
+import com.nemisolv.starter.config.AIServiceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One adaptive limiter per AI operation, created on first use
+ * Exports limit / in-flight gauges and shed counters per operation and lane
+ *
+ * Permits are taken where requests enter (controllers, stream handler); latency and failures
+ * are reported by the code that actually calls the AI service.
+ */
+@Component
+public class AIConcurrencyLimiters {
+
+    private final AIServiceProperties.Concurrency config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AIConcurrencyLimiters(AIServiceProperties aiServiceProperties, MeterRegistry meterRegistry) {
+        this.config = aiServiceProperties.getConcurrency();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public AIServiceProperties.Concurrency getConfig() {
+        return config;
+    }
+
+    public AdaptiveConcurrencyLimiter get(String operation) {
+        return limiters.computeIfAbsent(operation, this::create);
+    }
+
+    public void recordLatency(String operation, long latencyNanos) {
+        if (config.isEnabled()) {
+            get(operation).recordLatency(latencyNanos);
+        }
+    }
+
+    public void recordFailure(String operation) {
+        if (config.isEnabled()) {
+            get(operation).recordFailure();
+        }
+    }
+
+    public void recordShed(String operation, boolean priority) {
+        Counter.builder("ai.concurrency.shed")
+                .tag("operation", operation)
+                .tag("lane", priority ? "priority" : "standard")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private AdaptiveConcurrencyLimiter create(String operation) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(operation,
+                config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                config.getBackoffRatio(), config.getLatencyTolerance(), config.getPriorityReserve(),
+                config.getBaselineWindow(), config.getBaselinePercentile());
+
+        Gauge.builder("ai.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder("ai.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
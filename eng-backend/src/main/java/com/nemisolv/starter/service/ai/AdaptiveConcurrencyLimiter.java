@@ -0,0 +1,131 @@
+package com.nemisolv.starter.service.ai;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limiter driven by observed latency
+ *
+ * - Additive increase: +1 on a healthy sample while the limit is actually being used
+ * - Multiplicative decrease: limit * backoffRatio when a sample is slower than
+ *   {@code latencyTolerance} x the baseline, or when a call fails
+ *
+ * Samples are upstream calls only ({@link #recordLatency}, {@link #recordFailure}), never cache
+ * hits or whole stream sessions. The baseline is a low percentile of the last
+ * {@code baselineWindow} samples, so it follows the AI service when its normal latency drifts
+ * instead of sticking to the fastest call ever seen.
+ *
+ * Standard requests may only use {@code 1 - priorityReserve} of the current limit,
+ * the rest is kept for the priority lane.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_BASELINE_SAMPLES = 10;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double priorityReserve;
+    private final double baselinePercentile;
+    private final LatencyTracker recentLatencies;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double latencyTolerance, double priorityReserve,
+                                      int baselineWindow, double baselinePercentile) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.priorityReserve = priorityReserve;
+        this.baselinePercentile = baselinePercentile;
+        this.recentLatencies = new LatencyTracker(baselineWindow);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Try to admit a request
+     *
+     * @param priority true for the priority lane
+     * @return a permit, or null when the request must be shed
+     */
+    public Permit tryAcquire(boolean priority) {
+        int admissionLimit = priority
+                ? (int) limit
+                : Math.max(1, (int) (limit * (1 - priorityReserve)));
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= admissionLimit) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Latency of one upstream call
+     */
+    public synchronized void recordLatency(long latencyNanos) {
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        if (recentLatencies.getCount() >= MIN_BASELINE_SAMPLES) {
+            long baselineMicros = recentLatencies.percentile(baselinePercentile);
+            if (latencyMicros > baselineMicros * latencyTolerance) {
+                decrease();
+            } else if (inFlight.get() * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+        recentLatencies.record(latencyMicros);
+    }
+
+    /**
+     * An upstream call failed or timed out
+     */
+    public void recordFailure() {
+        decrease();
+    }
+
+    private synchronized void decrease() {
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        if ((int) previous != (int) limit) {
+            log.debug("Concurrency limit for '{}' reduced from {} to {}", name, (int) previous, (int) limit);
+        }
+    }
+
+    /**
+     * One admitted request, release exactly once
+     */
+    public class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.nemisolv.starter.service.ai;
+
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.payload.ai.GrammarCheckResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Two-tier cache for grammar check results
+ * - Local tier: bounded LRU map, answers repeated checks without leaving the JVM
+ * - Redis tier: shared between replicas, survives restarts
+ *
+ * Keys are built from the normalized text plus the configured model version,
+ * so bumping {@code ai.grammar-cache.model-version} invalidates every old entry
+ * (they simply stop matching and age out through their TTL).
+ */
+@Slf4j
+@Component
+public class GrammarResultCache {
+
+    private static final String REDIS_KEY_PREFIX = "ai:grammar:";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final AIServiceProperties.GrammarCache config;
+    private final Map<String, LocalEntry> localEntries;
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public GrammarResultCache(RedisTemplate<String, Object> redisTemplate,
+                              AIServiceProperties aiServiceProperties,
+                              MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.config = aiServiceProperties.getGrammarCache();
+
+        int maxEntries = config.getMaxLocalEntries();
+        this.localEntries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.localHits = Counter.builder("ai.grammar.cache.requests")
+                .tag("result", "hit").tag("tier", "local")
+                .register(meterRegistry);
+        this.redisHits = Counter.builder("ai.grammar.cache.requests")
+                .tag("result", "hit").tag("tier", "redis")
+                .register(meterRegistry);
+        this.misses = Counter.builder("ai.grammar.cache.requests")
+                .tag("result", "miss").tag("tier", "none")
+                .register(meterRegistry);
+        meterRegistry.gauge("ai.grammar.cache.local.size", localEntries, this::localSize);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Look up a previous result for the same (normalized) text
+     */
+    public Optional<GrammarCheckResponse> get(String text) {
+        if (!config.isEnabled() || text == null) {
+            return Optional.empty();
+        }
+
+        String key = buildKey(text);
+
+        LocalEntry local;
+        synchronized (localEntries) {
+            local = localEntries.get(key);
+            if (local != null && local.isExpired()) {
+                localEntries.remove(key);
+                local = null;
+            }
+        }
+        if (local != null) {
+            localHits.increment();
+            return Optional.of(local.response());
+        }
+
+        try {
+            Object cached = redisTemplate.opsForValue().get(key);
+            if (cached instanceof GrammarCheckResponse response) {
+                putLocal(key, response);
+                redisHits.increment();
+                return Optional.of(response);
+            }
+        } catch (Exception e) {
+            log.warn("Grammar cache lookup in Redis failed for key {}: {}", key, e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a fresh result in both tiers
+     */
+    public void put(String text, GrammarCheckResponse response) {
+        if (!config.isEnabled() || text == null || response == null) {
+            return;
+        }
+
+        String key = buildKey(text);
+        putLocal(key, response);
+
+        try {
+            redisTemplate.opsForValue().set(key, response, config.getRedisTtl());
+        } catch (Exception e) {
+            log.warn("Grammar cache write to Redis failed for key {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop every entry held by this node (Redis entries expire on their own)
+     */
+    public void clearLocal() {
+        synchronized (localEntries) {
+            localEntries.clear();
+        }
+    }
+
+    /**
+     * Normalize text so trivial re-submissions share one entry:
+     * Unicode compatibility folding (NFKC), collapsed whitespace and optional case folding
+     */
+    String normalize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        if (config.isFoldCase()) {
+            normalized = normalized.toLowerCase(Locale.ROOT);
+        }
+        return normalized;
+    }
+
+    private String buildKey(String text) {
+        return REDIS_KEY_PREFIX + config.getModelVersion() + ":" + DigestUtils.sha256Hex(normalize(text));
+    }
+
+    private void putLocal(String key, GrammarCheckResponse response) {
+        long expiresAt = System.currentTimeMillis() + config.getLocalTtl().toMillis();
+        synchronized (localEntries) {
+            localEntries.put(key, new LocalEntry(response, expiresAt));
+        }
+    }
+
+    private double localSize(Map<String, LocalEntry> entries) {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record LocalEntry(GrammarCheckResponse response, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.nemisolv.starter.service.ai;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recent call latencies, used to derive the hedge delay and the
+ * concurrency limiter baseline. Values are in whatever unit the owner records.
+ */
+public class LatencyTracker {
+
+    private final long[] window;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int windowSize) {
+        this.window = new long[Math.max(1, windowSize)];
+    }
+
+    public synchronized void record(long latency) {
+        window[next] = latency;
+        next = (next + 1) % window.length;
+        if (count < window.length) {
+            count++;
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * @param percentile value between 0 and 1, e.g. 0.95
+     * @return latency at the given percentile, or -1 when no samples exist yet
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(window, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.min(count - 1, Math.max(0, index))];
+    }
+}
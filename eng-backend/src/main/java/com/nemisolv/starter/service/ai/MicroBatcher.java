@@ -0,0 +1,223 @@
+package com.nemisolv.starter.service.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Collects individual AI calls for up to {@code maxWait} or {@code maxBatchSize} items
+ * and sends them upstream as one batched request, then completes each caller's future
+ * with its own result.
+ *
+ * A batch result may hold {@code null} for an item the upstream reported as failed; only
+ * those items are retried through the single-item call. If the whole batch call fails:
+ * - {@link BatchRejectedException} (endpoint missing, batch refused): nothing was processed,
+ *   so every item is retried through the single-item call
+ * - anything else: items of an idempotent operation are retried the same way; for a
+ *   non-idempotent one the upstream may already have applied some of them, so callers get
+ *   the failure instead of a replay
+ *
+ * @param <I> request type
+ * @param <O> response type
+ */
+@Slf4j
+public class MicroBatcher<I, O> implements AutoCloseable {
+
+    private final String name;
+    private final boolean idempotent;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Function<List<I>, List<O>> batchCall;
+    private final Function<I, O> singleCall;
+
+    private final Object lock = new Object();
+    private List<Pending<I, O>> pending = new ArrayList<>();
+    private ScheduledFuture<?> flushTimer;
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService dispatcher;
+
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+
+    public MicroBatcher(String name,
+                        boolean idempotent,
+                        int maxBatchSize,
+                        Duration maxWait,
+                        int maxConcurrentBatches,
+                        Function<List<I>, List<O>> batchCall,
+                        Function<I, O> singleCall,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.idempotent = idempotent;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWait = maxWait;
+        this.batchCall = batchCall;
+        this.singleCall = singleCall;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "Batch-" + name + "-timer"));
+        this.dispatcher = Executors.newFixedThreadPool(Math.max(1, maxConcurrentBatches),
+                r -> daemon(r, "Batch-" + name + "-" + threadCounter.incrementAndGet()));
+
+        this.batchSizes = DistributionSummary.builder("ai.batch.size")
+                .tag("operation", name)
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("ai.batch.fallbacks")
+                .tag("operation", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a request; the returned future completes when its batch comes back
+     */
+    public CompletableFuture<O> submit(I request) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        List<Pending<I, O>> ready = null;
+
+        synchronized (lock) {
+            pending.add(new Pending<>(request, future));
+            if (pending.size() >= maxBatchSize) {
+                ready = drainLocked();
+            } else if (flushTimer == null) {
+                flushTimer = timer.schedule(this::flushOnTimer, maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return future;
+    }
+
+    private void flushOnTimer() {
+        List<Pending<I, O>> ready;
+        synchronized (lock) {
+            flushTimer = null;
+            ready = drainLocked();
+        }
+        dispatch(ready);
+    }
+
+    private List<Pending<I, O>> drainLocked() {
+        if (flushTimer != null) {
+            flushTimer.cancel(false);
+            flushTimer = null;
+        }
+        List<Pending<I, O>> drained = pending;
+        pending = new ArrayList<>();
+        return drained;
+    }
+
+    private void dispatch(List<Pending<I, O>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> execute(batch));
+        } catch (Exception e) {
+            // Dispatcher shut down - fail fast rather than leave callers hanging
+            batch.forEach(p -> p.future().completeExceptionally(e));
+        }
+    }
+
+    private void execute(List<Pending<I, O>> batch) {
+        batchSizes.record(batch.size());
+
+        if (batch.size() == 1) {
+            runSingle(batch.get(0));
+            return;
+        }
+
+        List<O> results;
+        try {
+            results = batchCall.apply(batch.stream().map(Pending::request).toList());
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("Batch returned " + (results == null ? 0 : results.size())
+                        + " results for " + batch.size() + " requests");
+            }
+        } catch (Exception e) {
+            fallbacks.increment();
+            if (idempotent || e instanceof BatchRejectedException) {
+                log.warn("Batch '{}' of {} item(s) failed, falling back to single calls: {}",
+                        name, batch.size(), e.getMessage());
+                batch.forEach(this::runSingle);
+            } else {
+                log.warn("Batch '{}' of {} item(s) failed and is not safe to replay: {}",
+                        name, batch.size(), e.getMessage());
+                batch.forEach(p -> p.future().completeExceptionally(e));
+            }
+            return;
+        }
+
+        int failed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            O result = results.get(i);
+            if (result != null) {
+                batch.get(i).future().complete(result);
+            } else {
+                failed++;
+                runSingle(batch.get(i));
+            }
+        }
+        if (failed > 0) {
+            log.warn("Batch '{}' had {} of {} item(s) fail upstream, retried them as single calls",
+                    name, failed, batch.size());
+        } else {
+            log.debug("Batch '{}' completed with {} item(s)", name, batch.size());
+        }
+    }
+
+    private void runSingle(Pending<I, O> item) {
+        try {
+            item.future().complete(singleCall.apply(item.request()));
+        } catch (Exception e) {
+            item.future().completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        List<Pending<I, O>> remaining;
+        synchronized (lock) {
+            remaining = drainLocked();
+        }
+        // Never sent upstream, so flush them the normal way
+        if (!remaining.isEmpty()) {
+            execute(remaining);
+        }
+        timer.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    private static Thread daemon(Runnable runnable, String threadName) {
+        Thread thread = new Thread(runnable, threadName);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Thrown by a batch call when the upstream refused the batch as a whole, so none of its
+     * items were processed and all of them can safely go through the single-item call
+     */
+    public static class BatchRejectedException extends RuntimeException {
+        public BatchRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private record Pending<I, O>(I request, CompletableFuture<O> future) {}
+}
@@ -0,0 +1,39 @@
+package com.nemisolv.starter.service.ai;
+
+/**
+ * Token-bucket retry budget
+ * Every original call deposits {@code depositPerCall} tokens (capped at {@code maxTokens}),
+ * every retry or hedge withdraws one. With a deposit of 0.1 extra attempts can never exceed
+ * ~10% of traffic, so retries cannot multiply load during an outage.
+ */
+public class RetryBudget {
+
+    private final double depositPerCall;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double depositPerCall, double maxTokens) {
+        this.depositPerCall = depositPerCall;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onCall() {
+        tokens = Math.min(maxTokens, tokens + depositPerCall);
+    }
+
+    /**
+     * @return true if an extra attempt may be made
+     */
+    public synchronized boolean tryWithdraw() {
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized double getTokens() {
+        return tokens;
+    }
+}
@@ -0,0 +1,47 @@
+package com.nemisolv.starter.service.chat;
+
+/**
+ * Collects streamed chat tokens up to a fixed number of characters
+ * Tokens past the cap are counted but not kept, so memory per chat stays bounded
+ * no matter how long the upstream stream runs.
+ */
+public class BoundedResponseAccumulator {
+
+    private final int maxChars;
+    private final StringBuilder buffer;
+    private boolean truncated;
+
+    public BoundedResponseAccumulator(int maxChars) {
+        this.maxChars = Math.max(0, maxChars);
+        this.buffer = new StringBuilder(Math.min(this.maxChars, 1024));
+    }
+
+    public synchronized void append(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        int remaining = maxChars - buffer.length();
+        if (remaining <= 0) {
+            truncated = true;
+            return;
+        }
+        if (token.length() > remaining) {
+            buffer.append(token, 0, remaining);
+            truncated = true;
+        } else {
+            buffer.append(token);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return buffer.isEmpty();
+    }
+
+    public synchronized boolean isTruncated() {
+        return truncated;
+    }
+
+    public synchronized String content() {
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,219 @@
+package com.nemisolv.starter.service.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.entity.ChatMessage;
+import com.nemisolv.starter.enums.ApiResponseCode;
+import com.nemisolv.starter.exception.BadRequestException;
+import com.nemisolv.starter.payload.ai.ChatHistoryMessage;
+import com.nemisolv.starter.payload.ai.ChatHistoryPage;
+import com.nemisolv.starter.repository.ChatMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chat history reads
+ * - Recent messages: per-session ring in Redis (last {@code history-cache-size} messages),
+ *   appended when the writer persists a batch and trimmed to size
+ * - Older messages: keyset pagination backwards over (created_at, id)
+ *
+ * The ring is only appended to while it exists; a missing ring is rebuilt from the
+ * database on the next read, so it never holds a partial tail of a conversation.
+ */
+@Slf4j
+@Service
+public class ChatHistoryService {
+
+    private static final String KEY_PREFIX = "chat:history:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ObjectMapper objectMapper;
+    private final AIServiceProperties.Chat config;
+
+    public ChatHistoryService(StringRedisTemplate stringRedisTemplate,
+                              ChatMessageRepository chatMessageRepository,
+                              ObjectMapper objectMapper,
+                              AIServiceProperties aiServiceProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.chatMessageRepository = chatMessageRepository;
+        this.objectMapper = objectMapper;
+        this.config = aiServiceProperties.getChat();
+    }
+
+    /**
+     * Load one page of history, newest page first
+     *
+     * @param before cursor returned as {@code nextCursor} by the previous page, or null for the latest page
+     */
+    public ChatHistoryPage getHistory(String sessionId, String before, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, config.getHistoryMaxPageSize()));
+
+        if (!StringUtils.hasText(before)) {
+            List<ChatHistoryMessage> recent = loadRecent(sessionId);
+            // A ring shorter than its cap holds the whole session
+            boolean ringIsComplete = recent.size() < config.getHistoryCacheSize();
+            if (recent.size() >= pageSize || ringIsComplete) {
+                List<ChatHistoryMessage> page = recent.subList(Math.max(0, recent.size() - pageSize), recent.size());
+                boolean hasMore = recent.size() > pageSize || !ringIsComplete;
+                return toPage(sessionId, new ArrayList<>(page), hasMore);
+            }
+        }
+
+        Cursor cursor = StringUtils.hasText(before) ? Cursor.decode(before) : null;
+        // Fetch one extra row to know whether an older page exists
+        List<ChatMessage> rows = chatMessageRepository.findPageBySessionId(sessionId,
+                cursor != null ? cursor.createdAt() : null,
+                cursor != null ? cursor.id() : null,
+                pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatHistoryMessage> page = new ArrayList<>(rows.subList(0, Math.min(pageSize, rows.size())).stream()
+                .map(ChatHistoryMessage::from)
+                .toList());
+        Collections.reverse(page);
+        return toPage(sessionId, page, hasMore);
+    }
+
+    /**
+     * Append freshly persisted messages to their sessions' rings
+     * Messages without an id (insert failed to report keys) are skipped and picked up on the next rebuild
+     */
+    public void append(List<ChatMessage> persisted) {
+        Map<String, List<String>> bySession = new LinkedHashMap<>();
+        for (ChatMessage message : persisted) {
+            if (message.getId() == null || message.getSessionId() == null) {
+                continue;
+            }
+            String json = serialize(ChatHistoryMessage.from(message));
+            if (json != null) {
+                bySession.computeIfAbsent(message.getSessionId(), id -> new ArrayList<>()).add(json);
+            }
+        }
+
+        bySession.forEach((sessionId, entries) -> {
+            String key = key(sessionId);
+            try {
+                if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+                    return;
+                }
+                stringRedisTemplate.opsForList().rightPushAll(key, entries);
+                stringRedisTemplate.opsForList().trim(key, -config.getHistoryCacheSize(), -1);
+                stringRedisTemplate.expire(key, config.getHistoryCacheTtl());
+            } catch (Exception e) {
+                log.warn("Failed to append chat history for session {}: {}", sessionId, e.getMessage());
+            }
+        });
+    }
+
+    private List<ChatHistoryMessage> loadRecent(String sessionId) {
+        String key = key(sessionId);
+        try {
+            List<String> cached = stringRedisTemplate.opsForList().range(key, 0, -1);
+            if (cached != null && !cached.isEmpty()) {
+                return dedupe(cached.stream().map(this::deserialize).toList());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read chat history cache for session {}: {}", sessionId, e.getMessage());
+        }
+
+        List<ChatHistoryMessage> recent = chatMessageRepository
+                .findRecentBySessionId(sessionId, config.getHistoryCacheSize()).stream()
+                .map(ChatHistoryMessage::from)
+                .toList();
+
+        if (!recent.isEmpty()) {
+            try {
+                List<String> entries = recent.stream().map(this::serialize).toList();
+                stringRedisTemplate.delete(key);
+                stringRedisTemplate.opsForList().rightPushAll(key, entries);
+                stringRedisTemplate.expire(key, config.getHistoryCacheTtl());
+            } catch (Exception e) {
+                log.warn("Failed to rebuild chat history cache for session {}: {}", sessionId, e.getMessage());
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * A concurrent rebuild and append can push the same row twice; keep the first copy
+     */
+    private List<ChatHistoryMessage> dedupe(List<ChatHistoryMessage> messages) {
+        Map<Long, ChatHistoryMessage> byId = new LinkedHashMap<>();
+        for (ChatHistoryMessage message : messages) {
+            if (message != null) {
+                byId.putIfAbsent(message.getId(), message);
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    private ChatHistoryPage toPage(String sessionId, List<ChatHistoryMessage> page, boolean hasMore) {
+        String nextCursor = hasMore && !page.isEmpty() ? Cursor.encode(page.get(0)) : null;
+        return ChatHistoryPage.builder()
+                .sessionId(sessionId)
+                .messages(page)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private String serialize(ChatHistoryMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize chat history message {}: {}", message.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private ChatHistoryMessage deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, ChatHistoryMessage.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable chat history cache entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String key(String sessionId) {
+        return KEY_PREFIX + sessionId;
+    }
+
+    /**
+     * Opaque keyset cursor: base64url of "createdAt|id" of the oldest message already returned
+     */
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        static String encode(ChatHistoryMessage oldest) {
+            String raw = oldest.getCreatedAt() + "|" + oldest.getId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                // Cursors issued before created_at was truncated may carry fractions of a second
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)).truncatedTo(ChronoUnit.SECONDS),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+                throw new BadRequestException(ApiResponseCode.INVALID_PARAMETER, "Invalid history cursor");
+            }
+        }
+    }
+}
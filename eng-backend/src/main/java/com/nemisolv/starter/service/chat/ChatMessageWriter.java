@@ -0,0 +1,129 @@
+package com.nemisolv.starter.service.chat;
+
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.entity.ChatMessage;
+import com.nemisolv.starter.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking, batched writer for chat messages
+ * - Callers only enqueue; a single background thread drains the queue and
+ *   writes up to {@code writerBatchSize} rows per JDBC batch
+ * - The queue is bounded: when the database falls behind, new messages are
+ *   dropped (and counted) instead of piling up in memory or blocking requests
+ */
+@Slf4j
+@Component
+public class ChatMessageWriter {
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatHistoryService chatHistoryService;
+    private final BlockingQueue<ChatMessage> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final ExecutorService worker;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public ChatMessageWriter(ChatMessageRepository chatMessageRepository,
+                             ChatHistoryService chatHistoryService,
+                             AIServiceProperties aiServiceProperties,
+                             MeterRegistry meterRegistry) {
+        AIServiceProperties.Chat config = aiServiceProperties.getChat();
+        this.chatMessageRepository = chatMessageRepository;
+        this.chatHistoryService = chatHistoryService;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, config.getWriterQueueCapacity()));
+        this.batchSize = Math.max(1, config.getWriterBatchSize());
+        this.flushIntervalMillis = config.getWriterFlushInterval().toMillis();
+
+        Gauge.builder("chat.writer.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.written = Counter.builder("chat.writer.messages").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("chat.writer.messages").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("chat.writer.messages").tag("result", "failed").register(meterRegistry);
+
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ChatMessageWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.worker.submit(this::drainLoop);
+    }
+
+    /**
+     * Queue a message for persistence without blocking the caller
+     *
+     * @return false if the queue is full and the message was dropped
+     */
+    public boolean enqueue(ChatMessage message) {
+        if (queue.offer(message)) {
+            return true;
+        }
+        dropped.increment();
+        log.warn("Chat message queue full, dropping {} message for user {}", message.getRole(), message.getUserId());
+        return false;
+    }
+
+    private void drainLoop() {
+        List<ChatMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatMessage first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<ChatMessage> batch) {
+        try {
+            chatMessageRepository.saveAll(batch);
+            written.increment(batch.size());
+            log.debug("Persisted {} chat messages", batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.error("Failed to persist {} chat messages: {}", batch.size(), e.getMessage());
+            return;
+        }
+        chatHistoryService.append(batch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Chat message writer did not drain in time, {} messages lost", queue.size());
+                worker.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            worker.shutdownNow();
+        }
+    }
+}
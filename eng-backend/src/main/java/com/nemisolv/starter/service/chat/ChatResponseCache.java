@@ -0,0 +1,360 @@
+package com.nemisolv.starter.service.chat;
+
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.payload.ai.ChatRequest;
+import com.nemisolv.starter.payload.ai.ChatResponseCacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Shared cache of full chat answers for single-turn, non-personal prompts
+ *
+ * Lookup:
+ * - Exact: SHA-256 of the normalized prompt
+ * - Near duplicate: 64-bit SimHash over word unigrams and bigrams, indexed with
+ *   4 LSH bands of 16 bits; a candidate hits when its SimHash is within
+ *   {@code max-hamming-distance} bits
+ *
+ * Entries are capped at {@code max-entries} (least recently used evicted first, the cap
+ * can be changed at runtime by an admin) and expire after {@code ttl}.
+ */
+@Slf4j
+@Service
+public class ChatResponseCache {
+
+    private static final String KEY_PREFIX = "chat:answer:";
+    private static final String ENTRY_PREFIX = KEY_PREFIX + "entry:";
+    private static final String BAND_PREFIX = KEY_PREFIX + "band:";
+    private static final String INDEX_KEY = KEY_PREFIX + "index";
+    private static final String MAX_ENTRIES_KEY = KEY_PREFIX + "max-entries";
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 64 / BANDS;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\p{P}\\s]+$");
+
+    private final StringRedisTemplate redisTemplate;
+    private final AIServiceProperties.ResponseCache config;
+
+    private final Counter exactHits;
+    private final Counter nearHits;
+    private final Counter misses;
+
+    public ChatResponseCache(StringRedisTemplate redisTemplate,
+                             AIServiceProperties aiServiceProperties,
+                             MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.config = aiServiceProperties.getResponseCache();
+
+        this.exactHits = Counter.builder("chat.response.cache.requests").tag("result", "exact").register(meterRegistry);
+        this.nearHits = Counter.builder("chat.response.cache.requests").tag("result", "near").register(meterRegistry);
+        this.misses = Counter.builder("chat.response.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * The prompt to cache under, if the request opted in and carries a single turn with no prior context
+     */
+    public Optional<String> cacheablePrompt(ChatRequest incoming, ChatRequest upstream) {
+        if (!config.isEnabled() || !Boolean.TRUE.equals(incoming.getCacheable())) {
+            return Optional.empty();
+        }
+        if (StringUtils.hasText(upstream.getSummary())
+                || upstream.getMessages() == null || upstream.getMessages().size() != 1) {
+            return Optional.empty();
+        }
+        String prompt = upstream.getMessages().get(0).getContent();
+        if (!StringUtils.hasText(prompt) || prompt.length() > config.getMaxPromptChars()) {
+            return Optional.empty();
+        }
+        return normalize(prompt).isEmpty() ? Optional.empty() : Optional.of(prompt);
+    }
+
+    public Optional<String> lookup(String prompt) {
+        String normalized = normalize(prompt);
+        try {
+            String exactId = DigestUtils.sha256Hex(normalized);
+            Object answer = redisTemplate.opsForHash().get(ENTRY_PREFIX + exactId, "answer");
+            if (answer != null) {
+                touch(exactId);
+                exactHits.increment();
+                return Optional.of(answer.toString());
+            }
+
+            long simHash = simHash(normalized);
+            String bestId = null;
+            int bestDistance = Integer.MAX_VALUE;
+            for (String candidate : candidates(simHash)) {
+                Object stored = redisTemplate.opsForHash().get(ENTRY_PREFIX + candidate, "simhash");
+                if (stored == null) {
+                    continue;
+                }
+                int distance = Long.bitCount(simHash ^ Long.parseUnsignedLong(stored.toString(), 16));
+                if (distance <= config.getMaxHammingDistance() && distance < bestDistance) {
+                    bestDistance = distance;
+                    bestId = candidate;
+                }
+            }
+            if (bestId != null) {
+                Object nearAnswer = redisTemplate.opsForHash().get(ENTRY_PREFIX + bestId, "answer");
+                if (nearAnswer != null) {
+                    touch(bestId);
+                    nearHits.increment();
+                    log.debug("Chat answer cache near hit at distance {}", bestDistance);
+                    return Optional.of(nearAnswer.toString());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Chat answer cache lookup failed: {}", e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String prompt, String answer) {
+        if (!StringUtils.hasText(answer)) {
+            return;
+        }
+        String normalized = normalize(prompt);
+        String id = DigestUtils.sha256Hex(normalized);
+        long simHash = simHash(normalized);
+
+        try {
+            String entryKey = ENTRY_PREFIX + id;
+            redisTemplate.opsForHash().putAll(entryKey, Map.of(
+                    "prompt", prompt,
+                    "answer", answer,
+                    "simhash", Long.toHexString(simHash)));
+            redisTemplate.expire(entryKey, config.getTtl());
+
+            for (String bandKey : bandKeys(simHash)) {
+                redisTemplate.opsForSet().add(bandKey, id);
+                redisTemplate.expire(bandKey, config.getTtl());
+            }
+            touch(id);
+            enforceCap(getMaxEntries());
+        } catch (Exception e) {
+            log.warn("Chat answer cache write failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Split a cached answer into token-sized chunks and emit them at a steady pace,
+     * so a replayed answer renders like a live one
+     */
+    public Flux<String> replay(String answer) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        for (String piece : answer.split("(?<=\\s)")) {
+            chunk.append(piece);
+            if (chunk.length() >= config.getReplayChunkChars()) {
+                chunks.add(chunk.toString());
+                chunk.setLength(0);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk.toString());
+        }
+        return Flux.fromIterable(chunks).delayElements(config.getReplayChunkDelay());
+    }
+
+    public ChatResponseCacheStats getStats() {
+        pruneExpired();
+        Long size = redisTemplate.opsForZSet().zCard(INDEX_KEY);
+        return ChatResponseCacheStats.builder()
+                .enabled(config.isEnabled())
+                .entries(size != null ? size : 0)
+                .maxEntries(getMaxEntries())
+                .build();
+    }
+
+    /**
+     * Change the cap shared by all nodes and evict down to it right away
+     */
+    public ChatResponseCacheStats setMaxEntries(int maxEntries) {
+        redisTemplate.opsForValue().set(MAX_ENTRIES_KEY, String.valueOf(Math.max(0, maxEntries)));
+        enforceCap(Math.max(0, maxEntries));
+        return getStats();
+    }
+
+    /**
+     * Remove the entry stored for a prompt (exact match on the normalized text)
+     */
+    public boolean purge(String prompt) {
+        return remove(DigestUtils.sha256Hex(normalize(prompt)));
+    }
+
+    /**
+     * Drop every cached answer
+     *
+     * @return number of Redis keys deleted
+     */
+    public long purgeAll() {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(key -> {
+                if (!MAX_ENTRIES_KEY.equals(key)) {
+                    keys.add(key);
+                }
+            });
+        }
+        long deleted = 0;
+        for (int from = 0; from < keys.size(); from += 500) {
+            Long count = redisTemplate.delete(keys.subList(from, Math.min(keys.size(), from + 500)));
+            deleted += count != null ? count : 0;
+        }
+        log.info("Purged chat answer cache, {} keys deleted", deleted);
+        return deleted;
+    }
+
+    private int getMaxEntries() {
+        try {
+            String override = redisTemplate.opsForValue().get(MAX_ENTRIES_KEY);
+            if (override != null) {
+                return Integer.parseInt(override);
+            }
+        } catch (Exception e) {
+            log.debug("Using configured chat answer cache cap: {}", e.getMessage());
+        }
+        return config.getMaxEntries();
+    }
+
+    private void touch(String id) {
+        redisTemplate.opsForZSet().add(INDEX_KEY, id, System.currentTimeMillis());
+    }
+
+    /**
+     * Drop index members whose entry has certainly expired: not read or written for a whole
+     * {@code ttl}. Entries expire on their own, so without this the index keeps their ids,
+     * over-reports its size and makes the cap evict live entries in their place.
+     */
+    private void pruneExpired() {
+        long expiredBefore = System.currentTimeMillis() - config.getTtl().toMillis();
+        Long pruned = redisTemplate.opsForZSet().removeRangeByScore(INDEX_KEY, 0, expiredBefore);
+        if (pruned != null && pruned > 0) {
+            log.debug("Pruned {} expired chat answer cache index entries", pruned);
+        }
+    }
+
+    private void enforceCap(int maxEntries) {
+        pruneExpired();
+        Long size = redisTemplate.opsForZSet().zCard(INDEX_KEY);
+        long excess = size != null ? size - maxEntries : 0;
+        if (excess <= 0) {
+            return;
+        }
+        Set<String> oldest = redisTemplate.opsForZSet().range(INDEX_KEY, 0, excess - 1);
+        if (oldest != null) {
+            oldest.forEach(this::remove);
+            log.debug("Evicted {} chat answer cache entries", oldest.size());
+        }
+    }
+
+    private boolean remove(String id) {
+        String entryKey = ENTRY_PREFIX + id;
+        Object stored = redisTemplate.opsForHash().get(entryKey, "simhash");
+        if (stored != null) {
+            for (String bandKey : bandKeys(Long.parseUnsignedLong(stored.toString(), 16))) {
+                redisTemplate.opsForSet().remove(bandKey, id);
+            }
+        }
+        redisTemplate.opsForZSet().remove(INDEX_KEY, id);
+        return Boolean.TRUE.equals(redisTemplate.delete(entryKey));
+    }
+
+    private Set<String> candidates(long simHash) {
+        Set<String> candidates = new HashSet<>();
+        for (String bandKey : bandKeys(simHash)) {
+            Set<String> members = redisTemplate.opsForSet().members(bandKey);
+            if (members != null) {
+                candidates.addAll(members);
+            }
+        }
+        return candidates;
+    }
+
+    private static List<String> bandKeys(long simHash) {
+        List<String> keys = new ArrayList<>(BANDS);
+        for (int band = 0; band < BANDS; band++) {
+            long value = (simHash >>> (band * BAND_BITS)) & ((1L << BAND_BITS) - 1);
+            keys.add(BAND_PREFIX + band + ":" + Long.toHexString(value));
+        }
+        return keys;
+    }
+
+    /**
+     * Only folds what never changes the question: Unicode compatibility forms, case, runs of
+     * whitespace and trailing punctuation. Every word is kept - in grammar questions "is" vs
+     * "are" or "can" vs "could" is often the whole point - so looser matching is left to the
+     * SimHash tier.
+     */
+    static String normalize(String prompt) {
+        String text = Normalizer.normalize(prompt, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        text = WHITESPACE.matcher(text.strip()).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(text).replaceAll("");
+    }
+
+    /**
+     * 64-bit SimHash; features are word unigrams plus bigrams so word order still counts a little
+     */
+    static long simHash(String normalized) {
+        String[] words = normalized.split(" ");
+        Map<String, Integer> features = new HashMap<>();
+        for (int i = 0; i < words.length; i++) {
+            features.merge(words[i], 1, Integer::sum);
+            if (i + 1 < words.length) {
+                features.merge(words[i] + " " + words[i + 1], 1, Integer::sum);
+            }
+        }
+
+        int[] weights = new int[64];
+        features.forEach((feature, weight) -> {
+            long hash = hash64(feature);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) == 1 ? weight : -weight;
+            }
+        });
+
+        long simHash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                simHash |= 1L << bit;
+            }
+        }
+        return simHash;
+    }
+
+    /**
+     * FNV-1a followed by a SplitMix64 finalizer for well-spread bits
+     */
+    private static long hash64(String feature) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < feature.length(); i++) {
+            hash ^= feature.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,236 @@
+package com.nemisolv.starter.service.chat;
+
+import com.nemisolv.starter.config.AIServiceProperties;
+import com.nemisolv.starter.payload.ai.ChatMessage;
+import com.nemisolv.starter.payload.ai.ChatRequest;
+import com.nemisolv.starter.repository.ChatMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Server-side conversation store keyed by chat session id
+ *
+ * The client sends only the new turn ({@link ChatRequest#getMessage()}); the context
+ * forwarded to the AI service is assembled from:
+ * - a rolling summary of turns that have aged out of the store
+ * - as many recent turns as fit in {@code ai.chat.context-token-budget}
+ * - the new turn
+ *
+ * Recent turns live in a Redis list capped at {@code ai.chat.max-stored-turns}; turns
+ * pushed out of the list are folded into the summary, which itself is capped at
+ * {@code ai.chat.summary-token-budget}. On a cold Redis the turns are reloaded from
+ * chat_messages, so payload size no longer grows with the length of the conversation.
+ */
+@Slf4j
+@Service
+public class ConversationContextService {
+
+    private static final String KEY_PREFIX = "chat:context:";
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int TOKENS_PER_MESSAGE = 4;
+    private static final int SUMMARY_LINE_CHARS = 200;
+
+    /**
+     * KEYS[1] turns list; ARGV[1] ttl millis, ARGV[2..] turns. Seeds only a missing list, so two
+     * requests loading the same cold conversation cannot both append the history
+     */
+    private static final RedisScript<Long> SEED_TURNS_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('rpush', KEYS[1], unpack(ARGV, 2))
+            redis.call('pexpire', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChatMessageRepository chatMessageRepository;
+    private final AIServiceProperties.Chat config;
+
+    public ConversationContextService(RedisTemplate<String, Object> redisTemplate,
+                                      ChatMessageRepository chatMessageRepository,
+                                      AIServiceProperties aiServiceProperties) {
+        this.redisTemplate = redisTemplate;
+        this.chatMessageRepository = chatMessageRepository;
+        this.config = aiServiceProperties.getChat();
+    }
+
+    /**
+     * Build the request forwarded to the AI service
+     * Requests that still carry a full {@code messages} history (older clients) pass through unchanged
+     */
+    public ChatRequest buildContext(String sessionId, ChatRequest incoming) {
+        if (!StringUtils.hasText(incoming.getMessage())) {
+            return incoming;
+        }
+
+        ChatMessage newTurn = new ChatMessage("user", incoming.getMessage());
+        String summary = loadSummary(sessionId);
+        List<ChatMessage> history = loadTurns(sessionId);
+
+        int budget = config.getContextTokenBudget() - estimateTokens(newTurn) - estimateTokens(summary);
+        Deque<ChatMessage> selected = new ArrayDeque<>();
+        for (int i = history.size() - 1; i >= 0; i--) {
+            int cost = estimateTokens(history.get(i));
+            if (cost > budget) {
+                break;
+            }
+            budget -= cost;
+            selected.addFirst(history.get(i));
+        }
+        // The upstream model expects the conversation to open with a user turn
+        while (!selected.isEmpty() && !"user".equals(selected.peekFirst().getRole())) {
+            selected.pollFirst();
+        }
+
+        List<ChatMessage> messages = new ArrayList<>(selected);
+        messages.add(newTurn);
+
+        ChatRequest upstream = new ChatRequest();
+        upstream.setMessages(messages);
+        upstream.setSummary(summary);
+        log.debug("Chat context for session {}: {} of {} stored turns, summary {} chars",
+                sessionId, selected.size(), history.size(), summary != null ? summary.length() : 0);
+        return upstream;
+    }
+
+    /**
+     * The user turn carried by a request, either the new-turn field or the last user message of a full history
+     */
+    public Optional<String> latestUserTurn(ChatRequest request) {
+        if (StringUtils.hasText(request.getMessage())) {
+            return Optional.of(request.getMessage());
+        }
+        if (request.getMessages() == null) {
+            return Optional.empty();
+        }
+        return request.getMessages().stream()
+                .filter(msg -> "user".equalsIgnoreCase(msg.getRole()))
+                .reduce((first, second) -> second)
+                .map(ChatMessage::getContent);
+    }
+
+    /**
+     * Append a completed exchange and fold any turns beyond the cap into the summary
+     * Earlier turns of a cold session are seeded by {@link #buildContext}, which runs before the exchange
+     */
+    public void recordExchange(String sessionId, String userContent, String assistantContent) {
+        String turnsKey = turnsKey(sessionId);
+        try {
+            redisTemplate.opsForList().rightPushAll(turnsKey,
+                    new ChatMessage("user", userContent),
+                    new ChatMessage("assistant", assistantContent));
+
+            Long size = redisTemplate.opsForList().size(turnsKey);
+            long overflow = size != null ? size - config.getMaxStoredTurns() : 0;
+            if (overflow > 0) {
+                List<Object> evicted = redisTemplate.opsForList().range(turnsKey, 0, overflow - 1);
+                redisTemplate.opsForList().trim(turnsKey, overflow, -1);
+                if (evicted != null && !evicted.isEmpty()) {
+                    foldIntoSummary(sessionId, evicted);
+                }
+            }
+            redisTemplate.expire(turnsKey, config.getContextTtl());
+        } catch (Exception e) {
+            log.warn("Failed to record chat exchange for session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private List<ChatMessage> loadTurns(String sessionId) {
+        String turnsKey = turnsKey(sessionId);
+        try {
+            List<Object> cached = redisTemplate.opsForList().range(turnsKey, 0, -1);
+            if (cached != null && !cached.isEmpty()) {
+                return cached.stream()
+                        .filter(ChatMessage.class::isInstance)
+                        .map(ChatMessage.class::cast)
+                        .toList();
+            }
+
+            List<ChatMessage> stored = chatMessageRepository
+                    .findRecentBySessionId(sessionId, config.getMaxStoredTurns()).stream()
+                    .map(message -> new ChatMessage(message.getRole(), message.getContent()))
+                    .toList();
+            if (!stored.isEmpty()) {
+                Object[] args = new Object[stored.size() + 1];
+                args[0] = config.getContextTtl().toMillis();
+                for (int i = 0; i < stored.size(); i++) {
+                    args[i + 1] = stored.get(i);
+                }
+                redisTemplate.execute(SEED_TURNS_SCRIPT, List.of(turnsKey), args);
+            }
+            return stored;
+        } catch (Exception e) {
+            log.warn("Failed to load chat context for session {}: {}", sessionId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private String loadSummary(String sessionId) {
+        try {
+            Object summary = redisTemplate.opsForValue().get(summaryKey(sessionId));
+            return summary instanceof String text && !text.isEmpty() ? text : null;
+        } catch (Exception e) {
+            log.warn("Failed to load chat summary for session {}: {}", sessionId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Extractive rolling summary: one clipped line per evicted turn, oldest lines dropped
+     * once the summary exceeds its token budget
+     */
+    private void foldIntoSummary(String sessionId, List<Object> evicted) {
+        List<String> lines = new ArrayList<>();
+        String previous = loadSummary(sessionId);
+        if (previous != null) {
+            lines.addAll(Arrays.asList(previous.split("\n")));
+        }
+        for (Object turn : evicted) {
+            if (turn instanceof ChatMessage message && StringUtils.hasText(message.getContent())) {
+                String speaker = "user".equals(message.getRole()) ? "User" : "Assistant";
+                lines.add(speaker + ": " + clip(message.getContent()));
+            }
+        }
+
+        int maxChars = config.getSummaryTokenBudget() * CHARS_PER_TOKEN;
+        int length = lines.stream().mapToInt(line -> line.length() + 1).sum();
+        while (lines.size() > 1 && length > maxChars) {
+            length -= lines.remove(0).length() + 1;
+        }
+
+        redisTemplate.opsForValue().set(summaryKey(sessionId), String.join("\n", lines), config.getContextTtl());
+    }
+
+    private static String clip(String content) {
+        String flat = content.replaceAll("\\s+", " ").trim();
+        return flat.length() <= SUMMARY_LINE_CHARS ? flat : flat.substring(0, SUMMARY_LINE_CHARS) + "…";
+    }
+
+    private static int estimateTokens(ChatMessage message) {
+        return TOKENS_PER_MESSAGE + estimateTokens(message.getContent());
+    }
+
+    private static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private static String turnsKey(String sessionId) {
+        return KEY_PREFIX + sessionId + ":turns";
+    }
+
+    private static String summaryKey(String sessionId) {
+        return KEY_PREFIX + sessionId + ":summary";
+    }
+}
@@ -0,0 +1,498 @@
+package com.nemisolv.starter.service.content;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.nemisolv.starter.config.ContentTransferProperties;
+import com.nemisolv.starter.entity.Course;
+import com.nemisolv.starter.entity.Lesson;
+import com.nemisolv.starter.helper.BatchLoader;
+import com.nemisolv.starter.payload.content.ContentImportResult;
+import com.nemisolv.starter.payload.content.ContentImportSummary;
+import com.nemisolv.starter.payload.content.CourseBundle;
+import com.nemisolv.starter.payload.course.CourseRequest;
+import com.nemisolv.starter.payload.course.LessonRequest;
+import com.nemisolv.starter.repository.CourseRepository;
+import com.nemisolv.starter.repository.LessonRepository;
+import com.nemisolv.starter.service.CourseCounterService;
+import com.nemisolv.starter.util.SlugUtil;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk import and export of whole course trees
+ *
+ * Import reads a stream of {@link CourseBundle}s (NDJSON, a JSON array, or a ZIP of such files)
+ * without buffering the upload. Records are taken in chunks: validation and slug generation run in
+ * parallel, existing slugs are checked with one query, then the chunk's courses and lessons are
+ * written with two JDBC batches in one transaction. If a chunk fails to write, its records are
+ * retried one transaction each so only the offending ones are reported. One result per record is
+ * handed to the caller after every chunk, and course counters, cached responses and outlines are
+ * refreshed through {@link CourseCounterService} once the chunk commits.
+ *
+ * Export writes the same bundle format, paging courses by id and batch-loading their lessons.
+ */
+@Slf4j
+@Service
+public class ContentTransferService {
+
+    private static final Set<String> ZIP_ENTRY_EXTENSIONS = Set.of(".json", ".ndjson", ".jsonl");
+
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final CourseCounterService courseCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ContentTransferProperties properties;
+    private final ObjectReader bundleReader;
+    private final ObjectWriter bundleWriter;
+
+    public ContentTransferService(CourseRepository courseRepository,
+                                  LessonRepository lessonRepository,
+                                  CourseCounterService courseCounterService,
+                                  TransactionTemplate transactionTemplate,
+                                  Validator validator,
+                                  ContentTransferProperties properties,
+                                  ObjectMapper objectMapper) {
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.courseCounterService = courseCounterService;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.properties = properties;
+        this.bundleReader = objectMapper.readerFor(CourseBundle.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.bundleWriter = objectMapper.writerFor(CourseBundle.class).withRootValueSeparator("\n");
+    }
+
+    // ------------------------------
+    // Import
+    // ------------------------------
+
+    /**
+     * @param zip     the upload is a ZIP archive; its .json/.ndjson/.jsonl entries are imported in order
+     * @param results receives the results of each chunk, in upload order, as soon as it is written
+     */
+    public ContentImportSummary importContent(InputStream in, boolean zip, Long createdBy,
+                                              Consumer<List<ContentImportResult>> results) throws IOException {
+        ImportRun run = new ImportRun(createdBy, results);
+        if (zip) {
+            ZipInputStream archive = new ZipInputStream(in);
+            ZipEntry entry;
+            while ((entry = archive.getNextEntry()) != null) {
+                if (!entry.isDirectory() && isImportable(entry.getName())) {
+                    readBundles(new NonClosingInputStream(archive), entry.getName(), run);
+                }
+            }
+        } else {
+            readBundles(in, null, run);
+        }
+        flushChunk(run);
+
+        log.info("Content import finished: {} records, {} courses and {} lessons created, {} failed in {} ms",
+                run.records, run.created, run.lessons, run.failed, run.elapsedMs());
+        return ContentImportSummary.builder()
+                .records(run.records)
+                .created(run.created)
+                .failed(run.failed)
+                .lessons(run.lessons)
+                .durationMs(run.elapsedMs())
+                .build();
+    }
+
+    private void readBundles(InputStream in, String source, ImportRun run) throws IOException {
+        try (MappingIterator<CourseBundle> bundles = bundleReader.readValues(in)) {
+            while (true) {
+                // Line the record starts on, as the parser of this source counts them
+                long line = 0;
+                try {
+                    if (!bundles.hasNextValue()) {
+                        break;
+                    }
+                    line = bundles.getParser().currentTokenLocation().getLineNr();
+                    CourseBundle bundle = bundles.nextValue();
+                    run.records++;
+                    run.add(new ImportRecord(line, source, bundle, null));
+                } catch (JsonMappingException e) {
+                    // Well-formed JSON of the wrong shape: the iterator resyncs to the next record
+                    run.records++;
+                    run.add(new ImportRecord(line > 0 ? line : lineOf(e), source, null,
+                            "Invalid record: " + e.getOriginalMessage()));
+                } catch (JsonProcessingException e) {
+                    // Malformed JSON, the rest of this source cannot be read reliably
+                    run.records++;
+                    run.add(new ImportRecord(line > 0 ? line : lineOf(e), source, null,
+                            "Unreadable input, import of this source stopped: " + e.getOriginalMessage()));
+                    break;
+                }
+                if (run.pending.size() >= properties.getChunkSize()) {
+                    flushChunk(run);
+                }
+            }
+        }
+    }
+
+    private static long lineOf(JsonProcessingException e) {
+        return e.getLocation() != null ? e.getLocation().getLineNr() : 0;
+    }
+
+    private void flushChunk(ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<ImportRecord> chunk = List.copyOf(run.pending);
+        run.pending.clear();
+
+        // CPU-bound part (bean validation, slugs, entity mapping) in parallel
+        List<PreparedBundle> prepared = chunk.parallelStream()
+                .map(record -> prepare(record, run.createdBy))
+                .toList();
+
+        Set<String> chunkSlugs = new HashSet<>();
+        List<PreparedBundle> candidates = new ArrayList<>();
+        for (PreparedBundle bundle : prepared) {
+            if (!bundle.isValid()) {
+                continue;
+            }
+            if (!chunkSlugs.add(bundle.course().getSlug())) {
+                bundle.errors().add("Duplicate course slug in upload: " + bundle.course().getSlug());
+                continue;
+            }
+            candidates.add(bundle);
+        }
+        Map<String, Long> existing = courseRepository.findIdsBySlugIn(chunkSlugs);
+        List<PreparedBundle> writable = new ArrayList<>();
+        for (PreparedBundle bundle : candidates) {
+            if (existing.containsKey(bundle.course().getSlug())) {
+                bundle.errors().add("Course slug already exists: " + bundle.course().getSlug());
+            } else {
+                writable.add(bundle);
+            }
+        }
+
+        if (!writable.isEmpty()) {
+            try {
+                write(writable);
+            } catch (RuntimeException e) {
+                log.warn("Content import chunk of {} courses rolled back, retrying one by one: {}",
+                        writable.size(), e.getMessage());
+                for (PreparedBundle bundle : writable) {
+                    try {
+                        write(List.of(bundle));
+                    } catch (RuntimeException single) {
+                        bundle.errors().add("Write failed: " + rootMessage(single));
+                    }
+                }
+            }
+        }
+
+        List<ContentImportResult> results = prepared.stream().map(bundle -> run.record(toResult(bundle))).toList();
+        run.results.accept(results);
+    }
+
+    /**
+     * Courses then lessons, one JDBC batch each, in one transaction
+     */
+    private void write(List<PreparedBundle> bundles) {
+        try {
+            writeInTransaction(bundles);
+        } catch (RuntimeException e) {
+            // Ids assigned before the rollback do not exist
+            bundles.forEach(bundle -> bundle.course().setId(null));
+            throw e;
+        }
+    }
+
+    private void writeInTransaction(List<PreparedBundle> bundles) {
+        transactionTemplate.executeWithoutResult(status -> {
+            courseRepository.batchInsert(bundles.stream().map(PreparedBundle::course).toList());
+            Map<String, Long> ids = courseRepository.findIdsBySlugIn(
+                    bundles.stream().map(bundle -> bundle.course().getSlug()).toList());
+
+            List<Lesson> lessons = new ArrayList<>();
+            for (PreparedBundle bundle : bundles) {
+                Long courseId = ids.get(bundle.course().getSlug());
+                bundle.course().setId(courseId);
+                bundle.lessons().forEach(lesson -> lesson.setCourseId(courseId));
+                lessons.addAll(bundle.lessons());
+            }
+            if (!lessons.isEmpty()) {
+                lessonRepository.batchInsert(lessons);
+            }
+            ids.values().forEach(courseCounterService::markDirty);
+        });
+    }
+
+    private PreparedBundle prepare(ImportRecord record, Long createdBy) {
+        List<String> errors = new ArrayList<>();
+        if (record.error() != null) {
+            errors.add(record.error());
+            return new PreparedBundle(record, null, List.of(), errors);
+        }
+
+        CourseBundle bundle = record.bundle();
+        if (bundle == null) {
+            errors.add("Record is empty");
+            return new PreparedBundle(record, null, List.of(), errors);
+        }
+        for (ConstraintViolation<CourseBundle> violation : validator.validate(bundle)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (bundle.getCourse() == null) {
+            return new PreparedBundle(record, null, List.of(), errors);
+        }
+
+        CourseRequest request = bundle.getCourse();
+        Course course = Course.builder()
+                .categoryId(request.getCategoryId())
+                .title(request.getTitle())
+                .slug(slug(request.getTitle(), request.getSlug()))
+                .description(request.getDescription())
+                .thumbnail(request.getThumbnail())
+                .difficultyLevel(request.getDifficultyLevel())
+                .estimatedDuration(request.getEstimatedDuration())
+                .prerequisites(request.getPrerequisites())
+                .learningObjectives(request.getLearningObjectives())
+                .tags(request.getTags())
+                .isPublished(request.getIsPublished() != null ? request.getIsPublished() : false)
+                .isPremium(request.getIsPremium() != null ? request.getIsPremium() : false)
+                .price(request.getPrice())
+                .createdBy(createdBy)
+                .build();
+        if (course.getSlug().isEmpty()) {
+            errors.add("course.slug: Slug cannot be derived from the title");
+        }
+
+        List<LessonRequest> lessonRequests = bundle.getLessons() != null ? bundle.getLessons() : List.of();
+        if (lessonRequests.size() > properties.getMaxLessonsPerCourse()) {
+            errors.add("lessons: At most " + properties.getMaxLessonsPerCourse() + " lessons per course");
+        }
+        List<Lesson> lessons = new ArrayList<>(lessonRequests.size());
+        Set<String> lessonSlugs = new HashSet<>();
+        for (int i = 0; i < lessonRequests.size(); i++) {
+            LessonRequest lessonRequest = lessonRequests.get(i);
+            if (lessonRequest == null) {
+                errors.add("lessons[" + i + "]: Lesson is required");
+                continue;
+            }
+            Lesson lesson = Lesson.builder()
+                    .title(lessonRequest.getTitle())
+                    .slug(slug(lessonRequest.getTitle(), lessonRequest.getSlug()))
+                    .description(lessonRequest.getDescription())
+                    .content(lessonRequest.getContent())
+                    .videoUrl(lessonRequest.getVideoUrl())
+                    .audioUrl(lessonRequest.getAudioUrl())
+                    .transcript(lessonRequest.getTranscript())
+                    .duration(lessonRequest.getDuration())
+                    .lessonType(lessonRequest.getLessonType())
+                    // Position in the bundle replaces the MAX(sort_order) lookup of single inserts
+                    .sortOrder(lessonRequest.getSortOrder() != null ? lessonRequest.getSortOrder() : i + 1)
+                    .isPublished(lessonRequest.getIsPublished() != null ? lessonRequest.getIsPublished() : false)
+                    .isPreview(lessonRequest.getIsPreview() != null ? lessonRequest.getIsPreview() : false)
+                    .build();
+            if (lesson.getSlug().isEmpty()) {
+                errors.add("lessons[" + i + "].slug: Slug cannot be derived from the title");
+            } else if (!lessonSlugs.add(lesson.getSlug())) {
+                errors.add("lessons[" + i + "].slug: Duplicate lesson slug in course: " + lesson.getSlug());
+            }
+            lessons.add(lesson);
+        }
+        errors.sort(Comparator.naturalOrder());
+        return new PreparedBundle(record, course, lessons, errors);
+    }
+
+    private static ContentImportResult toResult(PreparedBundle bundle) {
+        ContentImportResult.ContentImportResultBuilder result = ContentImportResult.builder()
+                .line(bundle.record().line())
+                .source(bundle.record().source())
+                .slug(bundle.course() != null ? bundle.course().getSlug() : null);
+        if (!bundle.isValid() || bundle.course().getId() == null) {
+            return result.status(ContentImportResult.Status.FAILED).errors(bundle.errors()).build();
+        }
+        return result.status(ContentImportResult.Status.CREATED)
+                .courseId(bundle.course().getId())
+                .lessons(bundle.lessons().size())
+                .build();
+    }
+
+    private static String slug(String title, String providedSlug) {
+        if (providedSlug != null && !providedSlug.isEmpty()) {
+            return SlugUtil.slugify(providedSlug);
+        }
+        return SlugUtil.slugify(title);
+    }
+
+    private static boolean isImportable(String entryName) {
+        String name = entryName.toLowerCase(Locale.ROOT);
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && ZIP_ENTRY_EXTENSIONS.contains(name.substring(dot)) && !name.startsWith("__macosx/");
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    // ------------------------------
+    // Export
+    // ------------------------------
+
+    /**
+     * Write every course with all its lessons as NDJSON, one {@link CourseBundle} per line
+     *
+     * @return number of courses written
+     */
+    public long exportContent(OutputStream out) throws IOException {
+        long courses = 0;
+        long afterId = 0;
+        try (SequenceWriter writer = bundleWriter.writeValues(out)) {
+            while (true) {
+                List<Course> page = courseRepository.findPageAfterId(afterId, properties.getExportPageSize());
+                if (page.isEmpty()) {
+                    break;
+                }
+                BatchLoader<Long, List<Lesson>> lessonsByCourse = BatchLoader.grouping(
+                        courseIds -> lessonRepository.findByCourseIdIn(courseIds, null), Lesson::getCourseId);
+                Map<Long, List<Lesson>> lessons = lessonsByCourse.loadMany(page.stream().map(Course::getId).toList());
+
+                for (Course course : page) {
+                    writer.write(CourseBundle.builder()
+                            .course(toRequest(course))
+                            .lessons(lessons.getOrDefault(course.getId(), List.of()).stream()
+                                    .map(ContentTransferService::toRequest)
+                                    .toList())
+                            .build());
+                }
+                writer.flush();
+                courses += page.size();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        }
+        log.info("Content export finished: {} courses", courses);
+        return courses;
+    }
+
+    private static CourseRequest toRequest(Course course) {
+        return CourseRequest.builder()
+                .title(course.getTitle())
+                .slug(course.getSlug())
+                .description(course.getDescription())
+                .thumbnail(course.getThumbnail())
+                .categoryId(course.getCategoryId())
+                .difficultyLevel(course.getDifficultyLevel())
+                .estimatedDuration(course.getEstimatedDuration())
+                .prerequisites(course.getPrerequisites())
+                .learningObjectives(course.getLearningObjectives())
+                .tags(course.getTags())
+                .isPublished(course.getIsPublished())
+                .isPremium(course.getIsPremium())
+                .price(course.getPrice())
+                .build();
+    }
+
+    private static LessonRequest toRequest(Lesson lesson) {
+        return LessonRequest.builder()
+                .title(lesson.getTitle())
+                .slug(lesson.getSlug())
+                .description(lesson.getDescription())
+                .content(lesson.getContent())
+                .videoUrl(lesson.getVideoUrl())
+                .audioUrl(lesson.getAudioUrl())
+                .transcript(lesson.getTranscript())
+                .duration(lesson.getDuration())
+                .lessonType(lesson.getLessonType())
+                .sortOrder(lesson.getSortOrder())
+                .isPublished(lesson.getIsPublished())
+                .isPreview(lesson.getIsPreview())
+                .build();
+    }
+
+    // ------------------------------
+    // Import state
+    // ------------------------------
+
+    private record ImportRecord(long line, String source, CourseBundle bundle, String error) {}
+
+    private record PreparedBundle(ImportRecord record, Course course, List<Lesson> lessons, List<String> errors) {
+
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
+
+    private static final class ImportRun {
+
+        private final Long createdBy;
+        private final Consumer<List<ContentImportResult>> results;
+        private final List<ImportRecord> pending = new ArrayList<>();
+        private final long startedAt = System.nanoTime();
+        private long records;
+        private long created;
+        private long failed;
+        private long lessons;
+
+        private ImportRun(Long createdBy, Consumer<List<ContentImportResult>> results) {
+            this.createdBy = createdBy;
+            this.results = results;
+        }
+
+        private void add(ImportRecord record) {
+            pending.add(record);
+        }
+
+        private ContentImportResult record(ContentImportResult result) {
+            if (result.getStatus() == ContentImportResult.Status.CREATED) {
+                created++;
+                lessons += result.getLessons();
+            } else {
+                failed++;
+            }
+            return result;
+        }
+
+        private long elapsedMs() {
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        }
+    }
+
+    /**
+     * Lets each ZIP entry be parsed to its end without the parser closing the archive
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
+
+        private NonClosingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+            // the archive is closed by the caller
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.nemisolv.starter.service.event;
+
+import com.nemisolv.starter.event.AuditLogEvent;
+import com.nemisolv.starter.event.DomainEventHandler;
+import com.nemisolv.starter.repository.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes audit entries in batches; the unique request_id makes redelivered entries no-ops
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditEventConsumer implements DomainEventHandler<AuditLogEvent> {
+
+    private final AuditLogRepository auditLogRepository;
+
+    @KafkaListener(id = "audit-events", topics = "${events.topics.audit:audit.log}",
+            batch = "true", autoStartup = "${events.kafka.enabled:true}")
+    public void onAuditRecorded(List<AuditLogEvent> events) {
+        handle(events);
+    }
+
+    @Override
+    public Class<AuditLogEvent> eventType() {
+        return AuditLogEvent.class;
+    }
+
+    @Override
+    public void handle(List<AuditLogEvent> events) {
+        auditLogRepository.saveAll(events.stream().map(AuditLogEvent::getAuditLog).toList());
+        log.debug("Saved {} audit logs", events.size());
+    }
+}
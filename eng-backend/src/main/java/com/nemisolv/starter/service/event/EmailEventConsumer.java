@@ -0,0 +1,87 @@
+package com.nemisolv.starter.service.event;
+
+import com.nemisolv.starter.event.DomainEventHandler;
+import com.nemisolv.starter.event.EmailRequestedEvent;
+import com.nemisolv.starter.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sends transactional emails requested through the outbox
+ * Each event id is claimed in Redis before sending so a redelivered batch does not email twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailEventConsumer implements DomainEventHandler<EmailRequestedEvent> {
+
+    private static final String SENT_KEY_PREFIX = "events:email:sent:";
+    private static final Duration SENT_KEY_TTL = Duration.ofDays(1);
+
+    private final EmailService emailService;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @KafkaListener(id = "email-events", topics = "${events.topics.email:notification.email}",
+            batch = "true", autoStartup = "${events.kafka.enabled:true}")
+    public void onEmailRequested(List<EmailRequestedEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                send(events.get(i));
+            } catch (Exception e) {
+                // Records before index i are committed; the error handler retries from this one
+                throw new BatchListenerFailedException("Failed to send email event " + events.get(i).getEventId(), e, i);
+            }
+        }
+    }
+
+    @Override
+    public Class<EmailRequestedEvent> eventType() {
+        return EmailRequestedEvent.class;
+    }
+
+    @Override
+    public void handle(List<EmailRequestedEvent> events) {
+        events.forEach(this::send);
+    }
+
+    private void send(EmailRequestedEvent event) {
+        if (!claim(event.getEventId())) {
+            log.debug("Email event {} already sent, skipping", event.getEventId());
+            return;
+        }
+        try {
+            emailService.sendEmail(event.getTo(), event.getSubject(), event.getTemplateName(), event.getVariables());
+            log.info("Email sent successfully to: {} with template: {}", event.getTo(), event.getTemplateName());
+        } catch (RuntimeException e) {
+            release(event.getEventId());
+            throw e;
+        }
+    }
+
+    /**
+     * If Redis is unreachable the email is sent anyway: a rare duplicate beats a lost verification code
+     */
+    private boolean claim(String eventId) {
+        try {
+            return !Boolean.FALSE.equals(stringRedisTemplate.opsForValue().setIfAbsent(SENT_KEY_PREFIX + eventId, "1", SENT_KEY_TTL));
+        } catch (Exception e) {
+            log.warn("Could not record email event {} in Redis: {}", eventId, e.getMessage());
+            return true;
+        }
+    }
+
+    private void release(String eventId) {
+        try {
+            stringRedisTemplate.delete(SENT_KEY_PREFIX + eventId);
+        } catch (Exception e) {
+            log.warn("Could not release email event {} in Redis: {}", eventId, e.getMessage());
+        }
+    }
+}
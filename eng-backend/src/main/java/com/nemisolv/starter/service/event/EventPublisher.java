@@ -0,0 +1,64 @@
+package com.nemisolv.starter.service.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nemisolv.starter.config.EventProperties;
+import com.nemisolv.starter.entity.AuditLog;
+import com.nemisolv.starter.entity.OutboxEvent;
+import com.nemisolv.starter.event.AuditLogEvent;
+import com.nemisolv.starter.event.EmailRequestedEvent;
+import com.nemisolv.starter.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Records domain events in the transactional outbox
+ *
+ * Publishing is a single local insert that joins the caller's transaction: an email requested
+ * by {@code register} exists only if the user row commits, and nothing talks to Kafka or SMTP
+ * on the request thread. {@link OutboxRelay} forwards committed rows to Kafka.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventProperties eventProperties;
+    private final ObjectMapper objectMapper;
+
+    public void emailRequested(EmailRequestedEvent event) {
+        if (event.getEventId() == null) {
+            event.setEventId(UUID.randomUUID().toString());
+        }
+        append(eventProperties.getTopics().getEmail(), event.getTo(), event.getEventId(), event);
+    }
+
+    public void auditRecorded(AuditLog auditLog) {
+        if (auditLog.getRequestId() == null) {
+            auditLog.setRequestId(UUID.randomUUID().toString());
+        }
+        String key = auditLog.getUserId() != null ? auditLog.getUserId().toString() : null;
+        append(eventProperties.getTopics().getAudit(), key, auditLog.getRequestId(), new AuditLogEvent(auditLog));
+    }
+
+    private void append(String topic, String key, String eventId, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+        outboxEventRepository.insert(OutboxEvent.builder()
+                .eventId(eventId)
+                .topic(topic)
+                .eventKey(key)
+                .eventType(event.getClass().getName())
+                .payload(payload)
+                .build());
+        log.debug("Recorded {} {} for topic {}", event.getClass().getSimpleName(), eventId, topic);
+    }
+}
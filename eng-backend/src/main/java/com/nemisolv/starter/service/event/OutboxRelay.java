@@ -0,0 +1,192 @@
+package com.nemisolv.starter.service.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nemisolv.starter.config.EventProperties;
+import com.nemisolv.starter.entity.OutboxEvent;
+import com.nemisolv.starter.event.DomainEventHandler;
+import com.nemisolv.starter.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves committed outbox rows to Kafka
+ *
+ * Each batch is claimed in a short transaction: the due rows are locked with
+ * {@code FOR UPDATE SKIP LOCKED} and their next_attempt_at pushed out by {@code claim-timeout},
+ * which reserves them for this relay once the locks are released at commit. Delivery (Kafka acks,
+ * or the local consumers' SMTP and database work) then runs with no transaction or row lock held,
+ * and the delivered rows are stamped published in a second short transaction. All records of a
+ * batch are sent before any ack is awaited.
+ *
+ * A relay that dies before stamping leaves its rows to be claimed again when the lease runs out,
+ * and consumers absorb the republished events by deduplicating on the event id. Failed rows are
+ * retried with exponential backoff until {@code max-attempts}, then stamped failed_at and left alone.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<KafkaTemplate<String, Object>> kafkaTemplate;
+    private final EventProperties eventProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DomainEventHandler<?>> handlers;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       TransactionTemplate transactionTemplate,
+                       ObjectProvider<KafkaTemplate<String, Object>> kafkaTemplate,
+                       EventProperties eventProperties,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       List<DomainEventHandler<?>> handlers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventProperties = eventProperties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(handler -> handler.eventType().getName(), Function.identity()));
+    }
+
+    /**
+     * Relay one batch; returns how many rows were published so callers keep draining only while it succeeds
+     */
+    public int relayBatch() {
+        EventProperties.Outbox outbox = eventProperties.getOutbox();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> due = outboxEventRepository.lockDue(outbox.getBatchSize());
+            outboxEventRepository.extendClaim(due.stream().map(OutboxEvent::getId).toList(), outbox.getClaimTimeout());
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> published = eventProperties.getKafka().isEnabled() ? sendToKafka(batch) : deliverLocally(batch);
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markPublished(published));
+        return published.size();
+    }
+
+    public int purgePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(
+                LocalDateTime.now().minus(eventProperties.getOutbox().getRetention()));
+        if (deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+        return deleted;
+    }
+
+    private List<Long> sendToKafka(List<OutboxEvent> batch) {
+        KafkaTemplate<String, Object> template = kafkaTemplate.getObject();
+        Map<OutboxEvent, CompletableFuture<SendResult<String, Object>>> sends = new LinkedHashMap<>();
+        for (OutboxEvent row : batch) {
+            try {
+                Object event = deserialize(row);
+                sends.put(row, template.send(new ProducerRecord<>(row.getTopic(), row.getEventKey(), event)));
+            } catch (Exception e) {
+                failed(row, e);
+            }
+        }
+
+        long deadline = System.nanoTime() + eventProperties.getKafka().getSendTimeout().toNanos();
+        List<Long> published = new ArrayList<>(sends.size());
+        for (Map.Entry<OutboxEvent, CompletableFuture<SendResult<String, Object>>> send : sends.entrySet()) {
+            try {
+                send.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(send.getKey().getId());
+                count(send.getKey().getTopic(), "published");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed(send.getKey(), e);
+            } catch (ExecutionException | TimeoutException e) {
+                failed(send.getKey(), e);
+            }
+        }
+        return published;
+    }
+
+    /**
+     * Kafka disabled: hand each event type's share of the batch straight to its consumer
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Long> deliverLocally(List<OutboxEvent> batch) {
+        Map<String, List<OutboxEvent>> byType = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getEventType, LinkedHashMap::new, Collectors.toList()));
+        List<Long> published = new ArrayList<>(batch.size());
+        byType.forEach((type, rows) -> {
+            DomainEventHandler handler = handlers.get(type);
+            try {
+                List<Object> events = new ArrayList<>(rows.size());
+                for (OutboxEvent row : rows) {
+                    events.add(deserialize(row));
+                }
+                handler.handle(events);
+                rows.forEach(row -> {
+                    published.add(row.getId());
+                    count(row.getTopic(), "delivered");
+                });
+            } catch (Exception e) {
+                rows.forEach(row -> failed(row, e));
+            }
+        });
+        return published;
+    }
+
+    /**
+     * Only types with a registered handler are instantiated from stored class names
+     */
+    private Object deserialize(OutboxEvent row) throws Exception {
+        DomainEventHandler<?> handler = handlers.get(row.getEventType());
+        if (handler == null) {
+            throw new IllegalStateException("No handler for event type " + row.getEventType());
+        }
+        return objectMapper.readValue(row.getPayload(), handler.eventType());
+    }
+
+    private void failed(OutboxEvent row, Exception e) {
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        EventProperties.Outbox outbox = eventProperties.getOutbox();
+        int attempt = row.getAttempts() + 1;
+        if (attempt >= outbox.getMaxAttempts()) {
+            log.error("Outbox event {} ({}) not relayed after {} attempts, giving up: {}",
+                    row.getEventId(), row.getTopic(), attempt, cause.toString());
+            count(row.getTopic(), "abandoned");
+        } else {
+            log.warn("Outbox event {} ({}) not relayed, attempt {}: {}",
+                    row.getEventId(), row.getTopic(), attempt, cause.toString());
+            count(row.getTopic(), "failed");
+        }
+        outboxEventRepository.recordFailure(row.getId(), cause.toString(), backoff(attempt), outbox.getMaxAttempts());
+    }
+
+    private Duration backoff(int attempt) {
+        EventProperties.Outbox outbox = eventProperties.getOutbox();
+        long millis = outbox.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20);
+        return Duration.ofMillis(Math.min(millis, outbox.getMaxBackoff().toMillis()));
+    }
+
+    private void count(String topic, String result) {
+        meterRegistry.counter("events.outbox.relayed", "topic", topic, "result", result).increment();
+    }
+}
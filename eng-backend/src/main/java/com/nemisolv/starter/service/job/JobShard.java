@@ -0,0 +1,65 @@
+package com.nemisolv.starter.service.job;
+
+import java.util.function.LongConsumer;
+
+/**
+ * One slice of the user id space handed to a job: users with
+ * {@code afterUserId < user_id <= toUserId}
+ *
+ * Processors page through the slice in user_id order, call {@link #checkpoint} after each
+ * page so a shard re-assigned after node loss resumes where it stopped, and stop early
+ * once {@link #isLeaseHeld()} turns false.
+ */
+public class JobShard {
+
+    private final String jobName;
+    private final int index;
+    private final int count;
+    private final long afterUserId;
+    private final long toUserId;
+    private final LongConsumer checkpointer;
+    private volatile boolean leaseHeld = true;
+
+    JobShard(String jobName, int index, int count, long afterUserId, long toUserId, LongConsumer checkpointer) {
+        this.jobName = jobName;
+        this.index = index;
+        this.count = count;
+        this.afterUserId = afterUserId;
+        this.toUserId = toUserId;
+        this.checkpointer = checkpointer;
+    }
+
+    /**
+     * The whole user id space, for running a job on a single node
+     */
+    public static JobShard unbounded(String jobName) {
+        return new JobShard(jobName, 0, 1, 0, Long.MAX_VALUE, lastUserId -> { });
+    }
+
+    public long getAfterUserId() {
+        return afterUserId;
+    }
+
+    public long getToUserId() {
+        return toUserId;
+    }
+
+    public void checkpoint(long lastUserId) {
+        checkpointer.accept(lastUserId);
+    }
+
+    public boolean isLeaseHeld() {
+        return leaseHeld;
+    }
+
+    void leaseLost() {
+        leaseHeld = false;
+    }
+
+    /**
+     * e.g. "learning-reminder#3/16", or just the job name when unsharded
+     */
+    public String getLabel() {
+        return count == 1 ? jobName : jobName + "#" + index + "/" + count;
+    }
+}
@@ -0,0 +1,279 @@
+package com.nemisolv.starter.service.job;
+
+import com.nemisolv.starter.config.NotificationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs a daily job across all backend replicas without sending anything twice
+ *
+ * Every replica's cron fires and calls {@link #run}. The first one to arrive becomes the
+ * coordinator for that (job, date): it splits the user id space into {@code shards} ranges
+ * and publishes the plan. Every replica then claims shards through Redis leases
+ * ({@code SET NX PX}), processes them in parallel with the others, and keeps its lease
+ * alive with heartbeats. A node that dies stops heartbeating; its lease expires and another
+ * replica picks the shard up from the last checkpoint.
+ *
+ * A shard is finished by an atomic "still my lease → write done marker, drop lease" script,
+ * so each (job, date, shard) completes exactly once. Users of a shard taken over after a
+ * crash are resumed from the last checkpointed page; messages the dead node had queued
+ * but not yet sent are not replayed.
+ *
+ * Redis keys: {@code job:<name>:<date>:plan | lease:<n> | checkpoint:<n> | done:<n>}
+ */
+@Slf4j
+@Service
+public class ShardedJobRunner {
+
+    private static final String KEY_PREFIX = "job:";
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('pexpire', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                redis.call('set', KEYS[2], ARGV[1], 'PX', ARGV[2], 'NX')
+                redis.call('del', KEYS[1])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate mariadbJdbcTemplate;
+    private final NotificationProperties.Scheduler config;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ShardedJobHeartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShardedJobRunner(StringRedisTemplate stringRedisTemplate,
+                            @Qualifier("mariadbJdbcTemplate") JdbcTemplate mariadbJdbcTemplate,
+                            NotificationProperties notificationProperties,
+                            MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.mariadbJdbcTemplate = mariadbJdbcTemplate;
+        this.config = notificationProperties.getScheduler();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Claim and process shards of today's run until every shard is done or {@code max-run-duration} passes
+     */
+    public void run(String jobName, Consumer<JobShard> processor) {
+        String runKey = KEY_PREFIX + jobName + ":" + LocalDate.now();
+        Plan plan = loadOrCreatePlan(runKey);
+        long deadline = System.nanoTime() + config.getMaxRunDuration().toNanos();
+        Set<Integer> failedHere = new HashSet<>();
+        int processedHere = 0;
+
+        while (System.nanoTime() < deadline) {
+            List<Integer> pending = pendingShards(runKey, plan);
+            if (pending.isEmpty()) {
+                log.info("Job {} complete: all {} shards done ({} processed on node {})",
+                        jobName, plan.shards(), processedHere, nodeId);
+                return;
+            }
+
+            if (failedHere.containsAll(pending)) {
+                log.error("Job {} giving up on node {}: shards {} failed here", jobName, nodeId, pending);
+                return;
+            }
+
+            Collections.shuffle(pending);
+            boolean claimed = false;
+            for (int index : pending) {
+                if (failedHere.contains(index) || !tryLease(runKey, index)) {
+                    continue;
+                }
+                claimed = true;
+                if (runShard(jobName, runKey, plan, index, processor)) {
+                    processedHere++;
+                } else {
+                    failedHere.add(index);
+                }
+            }
+
+            if (!claimed) {
+                // Remaining shards are leased by other nodes (or failed here); wait for them to finish or expire
+                if (!sleep(config.getPollInterval())) {
+                    return;
+                }
+            }
+        }
+        log.warn("Job {} stopped waiting after {}; shards still pending: {}",
+                jobName, config.getMaxRunDuration(), pendingShards(runKey, plan));
+    }
+
+    private boolean runShard(String jobName, String runKey, Plan plan, int index, Consumer<JobShard> processor) {
+        String leaseKey = runKey + ":lease:" + index;
+        String checkpointKey = runKey + ":checkpoint:" + index;
+
+        long after = plan.afterUserId(index);
+        String checkpoint = stringRedisTemplate.opsForValue().get(checkpointKey);
+        if (checkpoint != null) {
+            after = Math.max(after, Long.parseLong(checkpoint));
+            log.info("Resuming {} shard {} after user {}", jobName, index, after);
+        }
+
+        JobShard shard = new JobShard(jobName, index, plan.shards(), after, plan.toUserId(index),
+                lastUserId -> stringRedisTemplate.opsForValue().set(checkpointKey, Long.toString(lastUserId), config.getMarkerTtl()));
+
+        long heartbeatMillis = config.getHeartbeatInterval().toMillis();
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(() -> {
+            try {
+                Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(leaseKey),
+                        nodeId, Long.toString(config.getLeaseTtl().toMillis()));
+                if (renewed == null || renewed == 0) {
+                    log.warn("Lost lease on {}", shard.getLabel());
+                    shard.leaseLost();
+                }
+            } catch (Exception e) {
+                log.warn("Heartbeat for {} failed: {}", shard.getLabel(), e.getMessage());
+            }
+        }, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        try {
+            processor.accept(shard);
+        } catch (Exception e) {
+            log.error("Shard {} failed on node {}", shard.getLabel(), nodeId, e);
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), nodeId);
+            count(jobName, "failed");
+            return false;
+        } finally {
+            heartbeat.cancel(false);
+        }
+
+        Long completed = stringRedisTemplate.execute(COMPLETE_SCRIPT, List.of(leaseKey, runKey + ":done:" + index),
+                nodeId, Long.toString(config.getMarkerTtl().toMillis()));
+        if (completed == null || completed == 0) {
+            log.warn("Shard {} finished after its lease moved to another node; not marking it done", shard.getLabel());
+            count(jobName, "lost");
+            return false;
+        }
+        count(jobName, "completed");
+        log.info("Shard {} done on node {}", shard.getLabel(), nodeId);
+        return true;
+    }
+
+    /**
+     * First node to arrive publishes the plan; everyone else uses the published one
+     */
+    private Plan loadOrCreatePlan(String runKey) {
+        String planKey = runKey + ":plan";
+        String existing = stringRedisTemplate.opsForValue().get(planKey);
+        if (existing == null) {
+            Long maxUserId = mariadbJdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+            Plan proposed = new Plan(Math.max(1, config.getShards()), maxUserId != null ? maxUserId : 0);
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(planKey, proposed.encode(), config.getMarkerTtl()))) {
+                log.info("Node {} coordinating {}: {} shards over user ids up to {}",
+                        nodeId, runKey, proposed.shards(), proposed.maxUserId());
+                return proposed;
+            }
+            existing = stringRedisTemplate.opsForValue().get(planKey);
+        }
+        return Plan.decode(existing);
+    }
+
+    private boolean tryLease(String runKey, int index) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                .setIfAbsent(runKey + ":lease:" + index, nodeId, config.getLeaseTtl()));
+    }
+
+    private List<Integer> pendingShards(String runKey, Plan plan) {
+        List<String> doneKeys = new ArrayList<>(plan.shards());
+        for (int i = 0; i < plan.shards(); i++) {
+            doneKeys.add(runKey + ":done:" + i);
+        }
+        List<String> done = stringRedisTemplate.opsForValue().multiGet(doneKeys);
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < plan.shards(); i++) {
+            if (done == null || done.get(i) == null) {
+                pending.add(i);
+            }
+        }
+        return pending;
+    }
+
+    private void count(String jobName, String result) {
+        meterRegistry.counter("jobs.shards", "job", jobName, "result", result).increment();
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    /**
+     * Even split of 1..maxUserId; the last shard is open-ended so users created mid-run are covered
+     */
+    private record Plan(int shards, long maxUserId) {
+
+        long afterUserId(int index) {
+            return index * shardSize();
+        }
+
+        long toUserId(int index) {
+            return index == shards - 1 ? Long.MAX_VALUE : (index + 1) * shardSize();
+        }
+
+        private long shardSize() {
+            return Math.max(1, (maxUserId + shards - 1) / shards);
+        }
+
+        String encode() {
+            return shards + ":" + maxUserId;
+        }
+
+        static Plan decode(String value) {
+            int separator = value.indexOf(':');
+            return new Plan(Integer.parseInt(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.nemisolv.starter.service.leaderboard;
+
+import com.nemisolv.starter.config.LeaderboardProperties;
+import com.nemisolv.starter.entity.ProgressDelta;
+import com.nemisolv.starter.entity.UserStats;
+import com.nemisolv.starter.enums.ApiResponseCode;
+import com.nemisolv.starter.exception.BadRequestException;
+import com.nemisolv.starter.payload.leaderboard.LeaderboardEntry;
+import com.nemisolv.starter.payload.leaderboard.LeaderboardResponse;
+import com.nemisolv.starter.payload.leaderboard.LeaderboardStanding;
+import com.nemisolv.starter.repository.LearningStreakRepository;
+import com.nemisolv.starter.repository.UserRepository;
+import com.nemisolv.starter.repository.UserStatsRepository;
+import com.nemisolv.starter.service.job.JobShard;
+import com.nemisolv.starter.service.progress.ProgressListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Leaderboards kept in Redis sorted sets (member = user id, score = XP or streak days)
+ *
+ * Boards: all-time XP, XP per ISO week, XP per course, and current streak. XP boards are
+ * bumped with ZINCRBY from committed progress flushes; the streak board takes the flushed
+ * users' current values from user_stats. Rank and neighbour lookups are ZREVRANK plus a short
+ * ZREVRANGE, so they cost O(log n) however many learners there are.
+ *
+ * Weekly boards rotate by key: each ISO week gets its own key, which expires
+ * {@code retained-weeks} after the week ends. A daily job overwrites the all-time, streak and
+ * current-week scores from the database to repair drift (e.g. increments lost with a Redis
+ * restart); course boards have no database source and are not reconciled.
+ *
+ * Keys: {@code leaderboard:xp | leaderboard:xp:week:<yyyy-Www> | leaderboard:xp:course:<id> | leaderboard:streak}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService implements ProgressListener {
+
+    public static final String RECONCILE_JOB = "leaderboard-reconcile";
+    public static final String WEEKLY_CLOSE_JOB = "leaderboard-weekly-close";
+
+    private static final String KEY_PREFIX = "leaderboard:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserStatsRepository userStatsRepository;
+    private final LearningStreakRepository learningStreakRepository;
+    private final UserRepository userRepository;
+    private final LeaderboardProperties leaderboardProperties;
+
+    @Override
+    public void onProgressFlushed(List<ProgressDelta> deltas) {
+        Set<String> weeklyKeys = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (ProgressDelta delta : deltas) {
+                userIds.add(delta.getUserId());
+                if (delta.getXp() <= 0) {
+                    continue;
+                }
+                String member = delta.getUserId().toString();
+                String weeklyKey = weeklyKey(delta.getDate());
+                redis.zIncrBy(key(LeaderboardType.XP, null), delta.getXp(), member);
+                redis.zIncrBy(weeklyKey, delta.getXp(), member);
+                if (delta.getCourseId() != null) {
+                    redis.zIncrBy(key(LeaderboardType.COURSE_XP, delta.getCourseId()), delta.getXp(), member);
+                }
+                if (weeklyKeys.add(weeklyKey)) {
+                    redis.expireAt(weeklyKey, weeklyExpiry(delta.getDate()));
+                }
+            }
+            return null;
+        });
+        writeStreaks(userStatsRepository.findStreakDays(userIds));
+    }
+
+    public LeaderboardResponse top(LeaderboardType type, Long courseId, Integer limit) {
+        LeaderboardProperties.Query query = leaderboardProperties.getQuery();
+        int size = clamp(limit, query.getDefaultLimit(), query.getMaxLimit());
+        String key = key(type, courseId);
+
+        Set<ZSetOperations.TypedTuple<String>> range = stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, 0, size - 1);
+        return LeaderboardResponse.builder()
+                .board(type.getSlug())
+                .courseId(courseId)
+                .totalParticipants(size(key))
+                .entries(toEntries(range, 0))
+                .build();
+    }
+
+    public LeaderboardStanding standing(LeaderboardType type, Long courseId, Long userId, Integer neighbors) {
+        LeaderboardProperties.Query query = leaderboardProperties.getQuery();
+        int around = clamp(neighbors, query.getDefaultNeighbors(), query.getMaxNeighbors());
+        String key = key(type, courseId);
+        LeaderboardStanding.LeaderboardStandingBuilder standing = LeaderboardStanding.builder()
+                .board(type.getSlug())
+                .courseId(courseId)
+                .totalParticipants(size(key))
+                .neighbors(List.of());
+
+        Long rank = stringRedisTemplate.opsForZSet().reverseRank(key, userId.toString());
+        if (rank == null) {
+            return standing.build();
+        }
+
+        long from = Math.max(0, rank - around);
+        List<LeaderboardEntry> window = toEntries(
+                stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, from, rank + around), from);
+        LeaderboardEntry me = window.stream()
+                .filter(entry -> entry.getUserId().equals(userId))
+                .findFirst()
+                .orElse(null);
+        return standing
+                .me(me)
+                .neighbors(window.stream().filter(entry -> entry != me).toList())
+                .build();
+    }
+
+    /**
+     * Overwrite all-time XP, streak and current-week scores of one shard's users from the database
+     */
+    public void reconcile(JobShard shard) {
+        int pageSize = leaderboardProperties.getReconcile().getPageSize();
+        long after = shard.getAfterUserId();
+        int users = 0;
+        while (shard.isLeaseHeld()) {
+            List<UserStats> page = userStatsRepository.findScoresPage(after, shard.getToUserId(), pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (UserStats stats : page) {
+                    String member = stats.getUserId().toString();
+                    redis.zAdd(key(LeaderboardType.XP, null), stats.getTotalXp(), member);
+                    if (stats.getCurrentStreakDays() > 0) {
+                        redis.zAdd(key(LeaderboardType.STREAK, null), stats.getCurrentStreakDays(), member);
+                    } else {
+                        redis.zRem(key(LeaderboardType.STREAK, null), member);
+                    }
+                }
+                return null;
+            });
+            users += page.size();
+            after = page.get(page.size() - 1).getUserId();
+            shard.checkpoint(after);
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        reconcileWeek(shard, LocalDate.now());
+        log.info("Reconciled leaderboards for {} users in {}", users, shard.getLabel());
+    }
+
+    /**
+     * Write the final standings of last week from learning_streaks before its board is only read
+     */
+    public void closeLastWeek(JobShard shard) {
+        reconcileWeek(shard, LocalDate.now().minusWeeks(1));
+    }
+
+    private void reconcileWeek(JobShard shard, LocalDate dayInWeek) {
+        LocalDate monday = dayInWeek.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        String weeklyKey = weeklyKey(dayInWeek);
+        int pageSize = leaderboardProperties.getReconcile().getPageSize();
+        long after = shard.getAfterUserId();
+        while (shard.isLeaseHeld()) {
+            Map<Long, Integer> page = learningStreakRepository.sumXpByUser(after, shard.getToUserId(),
+                    monday, monday.plusDays(6), pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                page.forEach((userId, xp) -> {
+                    if (xp > 0) {
+                        redis.zAdd(weeklyKey, xp, userId.toString());
+                    }
+                });
+                redis.expireAt(weeklyKey, weeklyExpiry(dayInWeek));
+                return null;
+            });
+            after = Collections.max(page.keySet());
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+    }
+
+    private void writeStreaks(Map<Long, Integer> streakDays) {
+        if (streakDays.isEmpty()) {
+            return;
+        }
+        String key = key(LeaderboardType.STREAK, null);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            streakDays.forEach((userId, days) -> {
+                if (days > 0) {
+                    redis.zAdd(key, days, userId.toString());
+                } else {
+                    redis.zRem(key, userId.toString());
+                }
+            });
+            return null;
+        });
+    }
+
+    private List<LeaderboardEntry> toEntries(Set<ZSetOperations.TypedTuple<String>> range, long firstIndex) {
+        if (range == null || range.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        range.forEach(tuple -> scores.put(Long.valueOf(tuple.getValue()), tuple.getScore()));
+        Map<Long, String> usernames = userRepository.findUsernamesByIds(scores.keySet());
+
+        List<LeaderboardEntry> entries = new ArrayList<>(scores.size());
+        long rank = firstIndex + 1;
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            entries.add(LeaderboardEntry.builder()
+                    .rank(rank++)
+                    .userId(score.getKey())
+                    .username(usernames.get(score.getKey()))
+                    .score(score.getValue() != null ? score.getValue().longValue() : 0)
+                    .build());
+        }
+        return entries;
+    }
+
+    private long size(String key) {
+        Long size = stringRedisTemplate.opsForZSet().zCard(key);
+        return size != null ? size : 0;
+    }
+
+    private String key(LeaderboardType type, Long courseId) {
+        return switch (type) {
+            case XP -> KEY_PREFIX + "xp";
+            case WEEKLY_XP -> weeklyKey(LocalDate.now());
+            case COURSE_XP -> {
+                if (courseId == null) {
+                    throw new BadRequestException(ApiResponseCode.INVALID_PARAMETER, "courseId is required for the course leaderboard");
+                }
+                yield KEY_PREFIX + "xp:course:" + courseId;
+            }
+            case STREAK -> KEY_PREFIX + "streak";
+        };
+    }
+
+    private static String weeklyKey(LocalDate date) {
+        return String.format("%sxp:week:%d-W%02d", KEY_PREFIX,
+                date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    /**
+     * Epoch seconds at which a week's board expires
+     */
+    private long weeklyExpiry(LocalDate dayInWeek) {
+        LocalDate nextMonday = dayInWeek.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        return nextMonday.plusWeeks(leaderboardProperties.getWeekly().getRetainedWeeks())
+                .atStartOfDay(ZoneId.systemDefault())
+                .toEpochSecond();
+    }
+
+    private static int clamp(Integer requested, int defaultValue, int max) {
+        if (requested == null || requested <= 0) {
+            return defaultValue;
+        }
+        return Math.min(requested, max);
+    }
+}
@@ -0,0 +1,29 @@
+package com.nemisolv.starter.service.leaderboard;
+
+import com.nemisolv.starter.enums.ApiResponseCode;
+import com.nemisolv.starter.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+@Getter
+@RequiredArgsConstructor
+public enum LeaderboardType {
+    XP("xp"),
+    WEEKLY_XP("weekly-xp"),
+    COURSE_XP("course-xp"),
+    STREAK("streak");
+
+    /**
+     * Path segment used by the leaderboard API
+     */
+    private final String slug;
+
+    public static LeaderboardType fromSlug(String slug) {
+        return Arrays.stream(values())
+                .filter(type -> type.slug.equalsIgnoreCase(slug))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException(ApiResponseCode.INVALID_PARAMETER, "Unknown leaderboard: " + slug));
+    }
+}
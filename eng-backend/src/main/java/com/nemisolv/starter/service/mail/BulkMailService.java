@@ -0,0 +1,418 @@
+package com.nemisolv.starter.service.mail;
+
+import com.nemisolv.starter.config.NotificationProperties;
+import com.nemisolv.starter.payload.admin.MailCampaignProgress;
+import com.nemisolv.starter.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk mail engine for scheduled campaigns
+ * - A fixed pool of workers renders (through per-campaign template skeletons, see
+ *   {@link EmailTemplateRenderer}) and sends in parallel; each worker keeps one SMTP
+ *   connection open and sends many messages over it instead of one transaction per email
+ * - Throughput is capped for the relay as a whole and per recipient provider (gmail, outlook, ...);
+ *   a message whose provider is throttled is parked in the delay queue until its next slot instead
+ *   of holding a worker, so one slow provider never stalls mail for the others
+ * - Transient failures (connection errors, 4xx replies) go to a retry queue with exponential
+ *   backoff; permanent ones (5xx, rejected credentials, bad addresses, template errors) fail immediately
+ * - Submission blocks while the queue is full, so producers never get ahead of the senders
+ *
+ * One-off transactional mail (verification, password reset) still goes through {@link EmailService}.
+ */
+@Slf4j
+@Service
+public class BulkMailService {
+
+    private static final String DEFAULT_PROVIDER = "default";
+    private static final long POLL_MILLIS = 500;
+
+    private final EmailService emailService;
+    private final EmailTemplateRenderer templateRenderer;
+    private final JavaMailSenderImpl mailSender;
+    private final NotificationProperties.BulkMail config;
+
+    private final BlockingQueue<Delivery> queue;
+    private final DelayQueue<Delivery> retries = new DelayQueue<>();
+    private final ThroughputLimiter relayLimiter;
+    private final Map<String, ThroughputLimiter> providerLimiters = new HashMap<>();
+    private final Map<String, String> providerByDomain = new HashMap<>();
+    private final Map<String, MailCampaign> campaigns = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private volatile boolean running = true;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+
+    public BulkMailService(EmailService emailService,
+                           EmailTemplateRenderer templateRenderer,
+                           JavaMailSender mailSender,
+                           NotificationProperties notificationProperties,
+                           MeterRegistry meterRegistry) {
+        if (!(mailSender instanceof JavaMailSenderImpl senderImpl)) {
+            throw new IllegalStateException("Bulk mail needs a JavaMailSenderImpl to manage SMTP connections");
+        }
+        this.emailService = emailService;
+        this.templateRenderer = templateRenderer;
+        this.mailSender = senderImpl;
+        this.config = notificationProperties.getBulkMail();
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+
+        this.relayLimiter = new ThroughputLimiter(config.getRelayMessagesPerSecond());
+        providerLimiters.put(DEFAULT_PROVIDER, new ThroughputLimiter(config.getDefaultProviderMessagesPerSecond()));
+        config.getProviders().forEach((provider, limits) -> {
+            providerLimiters.put(provider, new ThroughputLimiter(limits.getMessagesPerSecond()));
+            limits.getDomains().forEach(domain -> providerByDomain.put(domain.toLowerCase(Locale.ROOT), provider));
+        });
+
+        Gauge.builder("mail.bulk.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("mail.bulk.retry.size", retries, DelayQueue::size).register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.bulk.messages").tag("result", "sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.bulk.messages").tag("result", "failed").register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.bulk.messages").tag("result", "retried").register(meterRegistry);
+
+        int workerCount = Math.max(1, config.getWorkers());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "BulkMailWorker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(new Worker());
+        }
+    }
+
+    public MailCampaign startCampaign(String name) {
+        MailCampaign campaign = new MailCampaign(name, templateRenderer.newRun());
+        campaigns.put(campaign.getId(), campaign);
+        evictOldCampaigns();
+        log.info("Started mail campaign {} ({})", name, campaign.getId());
+        return campaign;
+    }
+
+    /**
+     * Queue one message, blocking while the queue is full
+     *
+     * @return false if the caller was interrupted before the message could be queued
+     */
+    public boolean submit(MailCampaign campaign, MailJob job) {
+        campaign.recordSubmitted();
+        try {
+            queue.put(new Delivery(campaign, job));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            campaign.recordFailed();
+            return false;
+        }
+    }
+
+    /**
+     * Close the campaign and wait (up to {@code campaign-timeout}) for its messages to drain
+     */
+    public MailCampaignProgress finish(MailCampaign campaign) {
+        campaign.close();
+        try {
+            if (!campaign.awaitCompletion(config.getCampaignTimeout())) {
+                log.warn("Mail campaign {} ({}) still draining after {}", campaign.getName(), campaign.getId(),
+                        config.getCampaignTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        MailCampaignProgress progress = campaign.toProgress();
+        log.info("Mail campaign {} ({}): {} sent, {} failed, {} retries, {} pending",
+                progress.getName(), progress.getId(), progress.getSent(), progress.getFailed(),
+                progress.getRetried(), progress.getPending());
+        return progress;
+    }
+
+    public List<MailCampaignProgress> getCampaigns() {
+        return campaigns.values().stream()
+                .map(MailCampaign::toProgress)
+                .sorted(Comparator.comparing(MailCampaignProgress::getStartedAt).reversed())
+                .toList();
+    }
+
+    public Optional<MailCampaignProgress> getCampaign(String id) {
+        return Optional.ofNullable(campaigns.get(id)).map(MailCampaign::toProgress);
+    }
+
+    private void evictOldCampaigns() {
+        int excess = campaigns.size() - Math.max(1, config.getRetainedCampaigns());
+        if (excess <= 0) {
+            return;
+        }
+        campaigns.values().stream()
+                .filter(MailCampaign::isFinished)
+                .map(MailCampaign::toProgress)
+                .sorted(Comparator.comparing(MailCampaignProgress::getStartedAt))
+                .limit(excess)
+                .forEach(progress -> campaigns.remove(progress.getId()));
+    }
+
+    private ThroughputLimiter providerLimiter(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        String domain = at >= 0 ? recipient.substring(at + 1).toLowerCase(Locale.ROOT) : "";
+        return providerLimiters.get(providerByDomain.getOrDefault(domain, DEFAULT_PROVIDER));
+    }
+
+    /**
+     * 4xx replies and connection-level errors are worth retrying; 5xx replies, rejected credentials
+     * and rejected addresses are not
+     */
+    private static boolean isTransient(MessagingException e) {
+        if (e instanceof AuthenticationFailedException) {
+            return false;
+        }
+        Integer replyCode = smtpReplyCode(e);
+        if (replyCode != null) {
+            return replyCode / 100 == 4;
+        }
+        // Addresses rejected without an SMTP reply (malformed, no valid recipients) won't get better
+        return !(e instanceof SendFailedException);
+    }
+
+    /**
+     * First SMTP reply code found along the exception chain; the server's verdict is often nested
+     * (a SendFailedException wrapping an SMTPAddressFailedException, a send error wrapping a reply)
+     */
+    private static Integer smtpReplyCode(MessagingException e) {
+        Exception current = e;
+        for (int depth = 0; current instanceof MessagingException messaging && depth < 10; depth++) {
+            if (current instanceof SMTPSendFailedException sendFailed) {
+                return sendFailed.getReturnCode();
+            }
+            if (current instanceof SMTPAddressFailedException addressFailed) {
+                return addressFailed.getReturnCode();
+            }
+            if (current instanceof SMTPSenderFailedException senderFailed) {
+                return senderFailed.getReturnCode();
+            }
+            current = messaging.getNextException();
+        }
+        return null;
+    }
+
+    /**
+     * Same resolution as JavaMailSenderImpl: explicit protocol, then the session property, then smtp
+     */
+    private String transportProtocol() {
+        if (mailSender.getProtocol() != null) {
+            return mailSender.getProtocol();
+        }
+        String protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+        return protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+    }
+
+    private Duration backoff(int attempt) {
+        long millis = config.getRetryInitialBackoff().toMillis() << Math.min(attempt - 1, 20);
+        return Duration.ofMillis(Math.min(millis, config.getRetryMaxBackoff().toMillis()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        int abandoned = queue.size() + retries.size();
+        if (abandoned > 0) {
+            log.warn("Bulk mail stopped with {} undelivered messages", abandoned);
+        }
+    }
+
+    /**
+     * Worker loop; owns one SMTP connection for its lifetime, reconnecting when it breaks,
+     * after {@code max-messages-per-connection} messages or after sitting idle
+     */
+    private final class Worker implements Runnable {
+
+        private Transport transport;
+        private int sentOnConnection;
+        private long lastUsedNanos;
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    Delivery delivery = next();
+                    if (delivery == null) {
+                        closeIfIdle();
+                        continue;
+                    }
+                    deliver(delivery);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                closeTransport();
+            }
+        }
+
+        private Delivery next() throws InterruptedException {
+            Delivery due = retries.poll();
+            return due != null ? due : queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        private void deliver(Delivery delivery) throws InterruptedException {
+            MailJob job = delivery.job;
+            if (delivery.message == null) {
+                try {
+                    delivery.message = emailService.createHtmlMessage(job.to(), job.subject(), delivery.campaign.render(job));
+                } catch (Exception e) {
+                    log.error("Failed to render {} email for {}: {}", job.templateName(), job.to(), e.getMessage());
+                    failed(delivery);
+                    return;
+                }
+            }
+
+            ThroughputLimiter providerLimiter = providerLimiter(job.to());
+            long throttledNanos = providerLimiter.tryAcquire();
+            if (throttledNanos > 0) {
+                if (retries.size() < config.getQueueCapacity()) {
+                    // Park it until the provider's next slot and move on to mail for other providers
+                    delivery.defer(throttledNanos);
+                    retries.add(delivery);
+                    return;
+                }
+                // Too much already parked: wait here so the main queue fills up and pushes back on producers
+                providerLimiter.acquire();
+            }
+            relayLimiter.acquire();
+            try {
+                send(delivery.message);
+                sentCounter.increment();
+                delivery.campaign.recordSent();
+            } catch (MessagingException e) {
+                if (!(e instanceof SendFailedException)) {
+                    // Connection state is unknown after a non-recipient error
+                    closeTransport();
+                }
+                if (isTransient(e) && delivery.attempt < config.getMaxAttempts()) {
+                    delivery.scheduleRetry(backoff(delivery.attempt));
+                    retriedCounter.increment();
+                    delivery.campaign.recordRetried();
+                    retries.add(delivery);
+                    log.warn("Transient failure sending {} email to {} (attempt {}), retrying: {}",
+                            job.templateName(), job.to(), delivery.attempt - 1, e.getMessage());
+                } else {
+                    log.error("Failed to send {} email to {} after {} attempt(s): {}",
+                            job.templateName(), job.to(), delivery.attempt, e.getMessage());
+                    failed(delivery);
+                }
+            }
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            if (transport == null || !transport.isConnected() || sentOnConnection >= config.getMaxMessagesPerConnection()) {
+                closeTransport();
+                transport = mailSender.getSession().getTransport(transportProtocol());
+                transport.connect(mailSender.getHost(), mailSender.getPort(),
+                        mailSender.getUsername(), mailSender.getPassword());
+            }
+            transport.sendMessage(message, message.getAllRecipients());
+            sentOnConnection++;
+            lastUsedNanos = System.nanoTime();
+        }
+
+        private void failed(Delivery delivery) {
+            failedCounter.increment();
+            delivery.campaign.recordFailed();
+        }
+
+        private void closeIfIdle() {
+            if (transport != null && System.nanoTime() - lastUsedNanos > config.getConnectionIdleTimeout().toNanos()) {
+                closeTransport();
+            }
+        }
+
+        private void closeTransport() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+            sentOnConnection = 0;
+        }
+    }
+
+    /**
+     * A queued message and its retry state; the rendered MIME message is kept across attempts
+     * and across throttling deferrals, which don't count as attempts
+     */
+    private static final class Delivery implements Delayed {
+        private final MailCampaign campaign;
+        private final MailJob job;
+        private MimeMessage message;
+        private int attempt = 1;
+        private long dueAtNanos;
+
+        private Delivery(MailCampaign campaign, MailJob job) {
+            this.campaign = campaign;
+            this.job = job;
+        }
+
+        private void scheduleRetry(Duration delay) {
+            attempt++;
+            dueAtNanos = System.nanoTime() + delay.toNanos();
+        }
+
+        private void defer(long delayNanos) {
+            dueAtNanos = System.nanoTime() + delayNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.nemisolv.starter.service.mail;
+
+import com.nemisolv.starter.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Template rendering for bulk campaigns
+ *
+ * Each template's source is inspected once to find the variables used only as a plain
+ * {@code th:text="${name}"}; those become slots. Per campaign run, a template is rendered once
+ * per combination of its other ("structural") variables into an {@link EmailTemplateSkeleton},
+ * and every recipient after that is rendered by splicing escaped values into the slots.
+ * Each skeleton is checked against one full Thymeleaf render before it is used; anything
+ * that cannot be expressed as a skeleton falls back to a full render.
+ */
+@Slf4j
+@Component
+public class EmailTemplateRenderer {
+
+    private static final Pattern ATTRIBUTE = Pattern.compile("(?:th:|data-th-)([\\w-]+)\\s*=\\s*\"([^\"]*)\"");
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]*)}");
+    private static final Pattern PLAIN_VARIABLE = Pattern.compile("\\s*\\$\\{\\s*([A-Za-z_]\\w*)\\s*}\\s*");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_]\\w*");
+    /**
+     * Constructs that can pull in or rebind variables the source scan cannot follow
+     */
+    private static final Pattern UNSUPPORTED = Pattern.compile("th:(insert|replace|include|each|with|object|block)\\b|\\*\\{");
+    private static final int MAX_SKELETONS_PER_RUN = 256;
+
+    private final EmailService emailService;
+    private final ClassLoaderTemplateResolver templateResolver;
+    private final Map<String, TemplateVariables> templateVariables = new ConcurrentHashMap<>();
+    private final Counter skeletonRenders;
+    private final Counter fullRenders;
+
+    public EmailTemplateRenderer(EmailService emailService,
+                                 ClassLoaderTemplateResolver templateResolver,
+                                 MeterRegistry meterRegistry) {
+        this.emailService = emailService;
+        this.templateResolver = templateResolver;
+        this.skeletonRenders = Counter.builder("mail.templates.renders").tag("mode", "skeleton").register(meterRegistry);
+        this.fullRenders = Counter.builder("mail.templates.renders").tag("mode", "full").register(meterRegistry);
+    }
+
+    /**
+     * Skeletons are scoped to one run so common variables (e.g. currentYear) are never stale
+     */
+    public Run newRun() {
+        return new Run();
+    }
+
+    private TemplateVariables templateVariables(String templateName) {
+        return templateVariables.computeIfAbsent(templateName, this::analyze);
+    }
+
+    /**
+     * Find the identifiers the template references and, among them, the slot variables:
+     * those whose every occurrence is a plain {@code th:text="${name}"}
+     */
+    private TemplateVariables analyze(String templateName) {
+        String source = loadSource(templateName);
+        if (source == null || UNSUPPORTED.matcher(source).find()) {
+            return TemplateVariables.UNKNOWN;
+        }
+
+        Map<String, Integer> occurrences = new HashMap<>();
+        Matcher expressions = EXPRESSION.matcher(source);
+        while (expressions.find()) {
+            Matcher identifiers = IDENTIFIER.matcher(expressions.group(1));
+            while (identifiers.find()) {
+                occurrences.merge(identifiers.group(), 1, Integer::sum);
+            }
+        }
+
+        Map<String, Integer> plainText = new HashMap<>();
+        Matcher attributes = ATTRIBUTE.matcher(source);
+        while (attributes.find()) {
+            Matcher plain = PLAIN_VARIABLE.matcher(attributes.group(2));
+            if ("text".equals(attributes.group(1)) && plain.matches()) {
+                plainText.merge(plain.group(1), 1, Integer::sum);
+            }
+        }
+
+        Set<String> slots = plainText.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(occurrences.get(entry.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+        log.debug("Email template {} slot variables: {}", templateName, slots);
+        return new TemplateVariables(slots, Set.copyOf(occurrences.keySet()));
+    }
+
+    private String loadSource(String templateName) {
+        String path = templateResolver.getPrefix() + EmailService.TEMPLATE_PREFIX + templateName + templateResolver.getSuffix();
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Could not read email template source {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Values {@code th:text} prints with toString(), so splicing matches a real render
+     */
+    private static boolean isSlotValue(Object value) {
+        return value == null
+                || value instanceof String
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Short
+                || value instanceof Byte
+                || value instanceof Boolean
+                || value instanceof Character;
+    }
+
+    /**
+     * Skeleton cache for one campaign run
+     */
+    public final class Run {
+
+        private final String nonce = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        private final Map<SkeletonKey, Optional<EmailTemplateSkeleton>> skeletons = new ConcurrentHashMap<>();
+
+        private Run() {
+        }
+
+        public String render(String templateName, Map<String, Object> variables) {
+            TemplateVariables templateVariables = templateVariables(templateName);
+            List<String> slots = new ArrayList<>();
+            Map<String, Object> structural = new TreeMap<>();
+            variables.forEach((name, value) -> {
+                if (templateVariables.slots().contains(name) && isSlotValue(value)) {
+                    slots.add(name);
+                } else if (templateVariables.isReferenced(name)) {
+                    structural.put(name, value);
+                }
+            });
+            slots.sort(null);
+
+            SkeletonKey key = new SkeletonKey(templateName, slots, structural);
+            if (slots.isEmpty() || (skeletons.size() >= MAX_SKELETONS_PER_RUN && !skeletons.containsKey(key))) {
+                return fullRender(templateName, variables);
+            }
+
+            Optional<EmailTemplateSkeleton> skeleton = skeletons.computeIfAbsent(key,
+                    k -> compile(templateName, slots, structural, variables));
+            if (skeleton.isEmpty()) {
+                return fullRender(templateName, variables);
+            }
+            skeletonRenders.increment();
+            return skeleton.get().render(variables);
+        }
+
+        private Optional<EmailTemplateSkeleton> compile(String templateName, List<String> slots,
+                                                        Map<String, Object> structural, Map<String, Object> sample) {
+            try {
+                Map<String, Object> probe = new HashMap<>(structural);
+                for (int i = 0; i < slots.size(); i++) {
+                    probe.put(slots.get(i), EmailTemplateSkeleton.sentinel(nonce, i));
+                }
+                EmailTemplateSkeleton skeleton = EmailTemplateSkeleton.parse(
+                        emailService.renderTemplate(templateName, probe), nonce, slots);
+
+                if (!emailService.renderTemplate(templateName, sample).equals(skeleton.render(sample))) {
+                    log.warn("Email template {} does not render identically from a skeleton, using full renders", templateName);
+                    return Optional.empty();
+                }
+                return Optional.of(skeleton);
+            } catch (Exception e) {
+                log.warn("Could not build a skeleton for email template {}: {}", templateName, e.getMessage());
+                return Optional.empty();
+            }
+        }
+
+        private String fullRender(String templateName, Map<String, Object> variables) {
+            fullRenders.increment();
+            return emailService.renderTemplate(templateName, variables);
+        }
+    }
+
+    /**
+     * Result of the source scan; {@code referenced == null} means the template could not be analysed
+     */
+    private record TemplateVariables(Set<String> slots, Set<String> referenced) {
+
+        static final TemplateVariables UNKNOWN = new TemplateVariables(Set.of(), null);
+
+        boolean isReferenced(String name) {
+            return referenced == null || referenced.contains(name);
+        }
+    }
+
+    private record SkeletonKey(String templateName, List<String> slots, Map<String, Object> structural) {}
+}
@@ -0,0 +1,69 @@
+package com.nemisolv.starter.service.mail;
+
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A template rendered once with sentinel values in place of its per-recipient variables,
+ * split into static segments around the slots those sentinels occupied
+ *
+ * Rendering a recipient is then string concatenation: static segment, escaped value,
+ * static segment, ... with the same escaping {@code th:text} applies.
+ */
+final class EmailTemplateSkeleton {
+
+    private final String[] segments;
+    private final String[] slots;
+    private final int staticLength;
+
+    private EmailTemplateSkeleton(List<String> segments, List<String> slots) {
+        this.segments = segments.toArray(String[]::new);
+        this.slots = slots.toArray(String[]::new);
+        this.staticLength = segments.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Split a probe rendering whose slot values were {@code sentinel(nonce, i)} for {@code slotNames.get(i)}
+     */
+    static EmailTemplateSkeleton parse(String probe, String nonce, List<String> slotNames) {
+        Matcher matcher = Pattern.compile(Pattern.quote(sentinelPrefix(nonce)) + "(\\d+)X").matcher(probe);
+        List<String> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int last = 0;
+        while (matcher.find()) {
+            segments.add(probe.substring(last, matcher.start()));
+            slots.add(slotNames.get(Integer.parseInt(matcher.group(1))));
+            last = matcher.end();
+        }
+        segments.add(probe.substring(last));
+        return new EmailTemplateSkeleton(segments, slots);
+    }
+
+    /**
+     * Letters and digits only, so it survives HTML escaping unchanged
+     */
+    static String sentinel(String nonce, int slot) {
+        return sentinelPrefix(nonce) + slot + "X";
+    }
+
+    private static String sentinelPrefix(String nonce) {
+        return "ZZSLOT" + nonce + "X";
+    }
+
+    String render(Map<String, Object> variables) {
+        StringBuilder html = new StringBuilder(staticLength + slots.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            html.append(segments[i]);
+            Object value = variables.get(slots[i]);
+            if (value != null) {
+                html.append(HtmlEscape.escapeHtml4Xml(value.toString()));
+            }
+        }
+        return html.append(segments[slots.length]).toString();
+    }
+}
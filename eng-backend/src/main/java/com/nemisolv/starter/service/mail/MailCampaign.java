@@ -0,0 +1,113 @@
+package com.nemisolv.starter.service.mail;
+
+import com.nemisolv.starter.payload.admin.MailCampaignProgress;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk send (e.g. today's learning reminders)
+ * The campaign completes once it is closed and every submitted message was either sent or gave up
+ */
+public class MailCampaign {
+
+    @Getter
+    private final String id = UUID.randomUUID().toString();
+    @Getter
+    private final String name;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private final EmailTemplateRenderer.Run templates;
+
+    MailCampaign(String name, EmailTemplateRenderer.Run templates) {
+        this.name = name;
+        this.templates = templates;
+    }
+
+    String render(MailJob job) {
+        return templates.render(job.templateName(), job.variables());
+    }
+
+    void recordSubmitted() {
+        submitted.incrementAndGet();
+    }
+
+    void recordSent() {
+        sent.incrementAndGet();
+        checkCompletion();
+    }
+
+    void recordFailed() {
+        failed.incrementAndGet();
+        checkCompletion();
+    }
+
+    void recordRetried() {
+        retried.incrementAndGet();
+    }
+
+    /**
+     * No more messages will be submitted
+     */
+    void close() {
+        closed.set(true);
+        checkCompletion();
+    }
+
+    boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return done.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isFinished() {
+        return finished.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public MailCampaignProgress toProgress() {
+        long submittedCount = submitted.get();
+        long sentCount = sent.get();
+        long failedCount = failed.get();
+        String status = finished.get() ? "COMPLETED" : closed.get() ? "DRAINING" : "RUNNING";
+        return MailCampaignProgress.builder()
+                .id(id)
+                .name(name)
+                .status(status)
+                .submitted(submittedCount)
+                .sent(sentCount)
+                .failed(failedCount)
+                .retried(retried.get())
+                .pending(Math.max(0, submittedCount - sentCount - failedCount))
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    private void checkCompletion() {
+        if (closed.get() && sent.get() + failed.get() >= submitted.get() && finished.compareAndSet(false, true)) {
+            finishedAt = LocalDateTime.now();
+            done.countDown();
+        }
+    }
+}
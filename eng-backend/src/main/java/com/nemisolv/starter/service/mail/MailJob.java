@@ -0,0 +1,13 @@
+package com.nemisolv.starter.service.mail;
+
+import java.util.Map;
+
+/**
+ * One templated email of a bulk campaign
+ */
+public record MailJob(
+        String to,
+        String subject,
+        String templateName,
+        Map<String, Object> variables
+) {}
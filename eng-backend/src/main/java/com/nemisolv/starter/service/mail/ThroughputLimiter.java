@@ -0,0 +1,45 @@
+package com.nemisolv.starter.service.mail;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out permits to a fixed rate; callers block until their slot comes up
+ * No bursting: an idle limiter grants one permit immediately, then one per interval
+ */
+class ThroughputLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    ThroughputLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+    }
+
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take a permit only if one is free right now
+     *
+     * @return 0 if the permit was granted, otherwise nanoseconds until the next one frees up
+     */
+    synchronized long tryAcquire() {
+        long now = System.nanoTime();
+        if (nextFreeNanos > now) {
+            return nextFreeNanos - now;
+        }
+        nextFreeNanos = now + intervalNanos;
+        return 0;
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long grantedAt = Math.max(now, nextFreeNanos);
+        nextFreeNanos = grantedAt + intervalNanos;
+        return grantedAt - now;
+    }
+}
@@ -0,0 +1,312 @@
+package com.nemisolv.starter.service.progress;
+
+import com.nemisolv.starter.config.ProgressProperties;
+import com.nemisolv.starter.entity.ProgressDelta;
+import com.nemisolv.starter.enums.ApiResponseCode;
+import com.nemisolv.starter.exception.BadRequestException;
+import com.nemisolv.starter.repository.EnrollmentRepository;
+import com.nemisolv.starter.repository.LearningStreakRepository;
+import com.nemisolv.starter.repository.UserStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind accumulation of learning progress
+ *
+ * Activity endpoints add per-(user, day, course) deltas to an in-memory map and return; {@link #flush}
+ * periodically drains the map into two batched upserts ({@code x = x + ?}) on user_stats and
+ * learning_streaks. A busy user therefore costs one row update per flush interval instead of
+ * one per request, and request threads never wait on those rows' locks.
+ *
+ * Once a batch commits, {@link ProgressListener}s (leaderboards) are handed the same deltas.
+ *
+ * A constraint violation (e.g. a user deleted since the activity) fails the whole batch, so the
+ * flush then writes user by user and drops, with a warning, only the users that still violate.
+ * Other failures keep the deltas for the next flush, at most {@code max-flush-attempts} times.
+ *
+ * A course id sent with an activity feeds that course's leaderboard, so it is only accepted for
+ * a course the user is enrolled in.
+ *
+ * Each activity carries an idempotency key claimed in Redis before it is counted, so a retried
+ * request is not counted twice. Deltas not yet flushed are lost if the node crashes, which the
+ * flush interval bounds.
+ */
+@Slf4j
+@Service
+public class ProgressAggregator {
+
+    private static final String IDEMPOTENCY_KEY_PREFIX = "progress:idem:";
+
+    private final UserStatsRepository userStatsRepository;
+    private final LearningStreakRepository learningStreakRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProgressProperties progressProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ProgressListener> listeners;
+    /**
+     * compute() and remove() lock per bin, so updates to different users don't contend and
+     * the flush takes each entry atomically with respect to writers
+     */
+    private final ConcurrentHashMap<PendingKey, Pending> pending = new ConcurrentHashMap<>();
+
+    public ProgressAggregator(UserStatsRepository userStatsRepository,
+                              LearningStreakRepository learningStreakRepository,
+                              EnrollmentRepository enrollmentRepository,
+                              StringRedisTemplate stringRedisTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ProgressProperties progressProperties,
+                              MeterRegistry meterRegistry,
+                              ObjectProvider<ProgressListener> listeners) {
+        this.userStatsRepository = userStatsRepository;
+        this.learningStreakRepository = learningStreakRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.progressProperties = progressProperties;
+        this.meterRegistry = meterRegistry;
+        this.listeners = listeners;
+        meterRegistry.gauge("progress.pending.entries", pending, Map::size);
+    }
+
+    public boolean recordLessonCompleted(Long userId, Long courseId, String idempotencyKey, int timeSpentSeconds) {
+        return record(userId, courseId, idempotencyKey, "lesson",
+                progressProperties.getXp().getLessonCompleted(), toMinutes(timeSpentSeconds), 1, 0);
+    }
+
+    public boolean recordQuizAttempted(Long userId, Long courseId, String idempotencyKey, int correctAnswers) {
+        return record(userId, courseId, idempotencyKey, "quiz",
+                Math.max(0, correctAnswers) * progressProperties.getXp().getQuizCorrectAnswer(), 0, 0, 1);
+    }
+
+    public boolean recordVideoWatched(Long userId, Long courseId, String idempotencyKey, int watchedSeconds) {
+        int minutes = toMinutes(watchedSeconds);
+        return record(userId, courseId, idempotencyKey, "video",
+                minutes * progressProperties.getXp().getVideoMinute(), minutes, 0, 0);
+    }
+
+    /**
+     * @return false if the idempotency key was already processed and nothing was counted
+     */
+    private boolean record(Long userId, Long courseId, String idempotencyKey, String activity,
+                           int xp, int studyMinutes, int lessons, int exercises) {
+        if (courseId != null && !enrollmentRepository.isEnrolled(userId, courseId)) {
+            throw new BadRequestException(ApiResponseCode.INVALID_PARAMETER, "Not enrolled in course " + courseId);
+        }
+        if (!claim(userId, idempotencyKey)) {
+            meterRegistry.counter("progress.activities", "activity", activity, "result", "duplicate").increment();
+            log.debug("Skipping duplicate {} activity {} for user {}", activity, idempotencyKey, userId);
+            return false;
+        }
+        pending.compute(new PendingKey(userId, LocalDate.now(), courseId), (key, current) -> {
+            Pending entry = current != null ? current : new Pending();
+            entry.add(xp, studyMinutes, lessons, exercises);
+            return entry;
+        });
+        meterRegistry.counter("progress.activities", "activity", activity, "result", "recorded").increment();
+        return true;
+    }
+
+    /**
+     * Drain everything pending into the database; on failure the drained deltas are put back
+     */
+    public void flush() {
+        Map<PendingKey, Pending> drained = new LinkedHashMap<>();
+        for (PendingKey key : pending.keySet()) {
+            Pending entry = pending.remove(key);
+            if (entry != null) {
+                drained.put(key, entry);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        Map<PendingKey, Pending> flushed;
+        try {
+            write(drained);
+            flushed = drained;
+            meterRegistry.counter("progress.flushes", "result", "success").increment();
+        } catch (DataIntegrityViolationException e) {
+            meterRegistry.counter("progress.flushes", "result", "per_user").increment();
+            log.warn("Progress flush violated a constraint, writing users one by one: {}", e.getMessage());
+            flushed = flushPerUser(drained);
+        } catch (Exception e) {
+            meterRegistry.counter("progress.flushes", "result", "failed").increment();
+            log.error("Failed to flush progress of {} entries, keeping deltas for the next flush", drained.size(), e);
+            requeue(drained);
+            return;
+        }
+        if (flushed.isEmpty()) {
+            return;
+        }
+        log.debug("Flushed {} progress entries", flushed.size());
+
+        List<ProgressDelta> deltas = new ArrayList<>(flushed.size());
+        flushed.forEach((key, entry) -> deltas.add(entry.toDelta(key)));
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onProgressFlushed(deltas);
+            } catch (Exception e) {
+                log.warn("Progress listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @return the entries that were written
+     */
+    private Map<PendingKey, Pending> flushPerUser(Map<PendingKey, Pending> drained) {
+        Map<Long, Map<PendingKey, Pending>> byUser = new LinkedHashMap<>();
+        drained.forEach((key, entry) -> byUser.computeIfAbsent(key.userId(), id -> new LinkedHashMap<>()).put(key, entry));
+
+        Map<PendingKey, Pending> flushed = new LinkedHashMap<>();
+        byUser.forEach((userId, entries) -> {
+            try {
+                write(entries);
+                flushed.putAll(entries);
+            } catch (DataIntegrityViolationException e) {
+                meterRegistry.counter("progress.deltas.dropped", "reason", "constraint").increment(entries.size());
+                log.warn("Dropping {} progress entries of user {} that violate a constraint: {}",
+                        entries.size(), userId, e.getMessage());
+            } catch (Exception e) {
+                log.error("Failed to flush progress of user {}, keeping deltas for the next flush", userId, e);
+                requeue(entries);
+            }
+        });
+        return flushed;
+    }
+
+    /**
+     * One transaction upserting the per-user totals and per-user-day streak rows of the entries
+     */
+    private void write(Map<PendingKey, Pending> entries) {
+        Map<PendingKey, ProgressDelta> perUserDay = new LinkedHashMap<>();
+        Map<Long, ProgressDelta> perUser = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> {
+            ProgressDelta delta = entry.toDelta(key);
+            perUserDay.merge(new PendingKey(key.userId(), key.date(), null), delta, ProgressAggregator::combine);
+            perUser.merge(key.userId(), delta, ProgressAggregator::combine);
+        });
+        List<ProgressDelta> daily = new ArrayList<>(perUserDay.values());
+        daily.sort(Comparator.comparing(ProgressDelta::getUserId).thenComparing(ProgressDelta::getDate));
+        List<ProgressDelta> totals = new ArrayList<>(perUser.values());
+        totals.sort(Comparator.comparing(ProgressDelta::getUserId));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userStatsRepository.addProgress(totals);
+            learningStreakRepository.addDailyProgress(daily);
+        });
+    }
+
+    /**
+     * Put failed entries back for the next flush, unless they already failed too often
+     */
+    private void requeue(Map<PendingKey, Pending> entries) {
+        int maxAttempts = progressProperties.getAggregation().getMaxFlushAttempts();
+        entries.forEach((key, entry) -> {
+            if (++entry.failedFlushes >= maxAttempts) {
+                meterRegistry.counter("progress.deltas.dropped", "reason", "attempts").increment();
+                log.error("Dropping progress {} after {} failed flushes: {} xp, {} min, {} lessons, {} exercises",
+                        key, entry.failedFlushes, entry.xp, entry.studyMinutes, entry.lessons, entry.exercises);
+                return;
+            }
+            meterRegistry.counter("progress.deltas.requeued").increment();
+            pending.merge(key, entry, Pending::merge);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Without a client key every activity counts; if Redis is unreachable the activity is counted
+     * rather than dropped
+     */
+    private boolean claim(Long userId, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return true;
+        }
+        try {
+            return !Boolean.FALSE.equals(stringRedisTemplate.opsForValue().setIfAbsent(
+                    IDEMPOTENCY_KEY_PREFIX + userId + ":" + idempotencyKey, "1",
+                    progressProperties.getAggregation().getIdempotencyTtl()));
+        } catch (Exception e) {
+            log.warn("Could not check progress idempotency key for user {}: {}", userId, e.getMessage());
+            return true;
+        }
+    }
+
+    private static int toMinutes(int seconds) {
+        return Math.max(0, Math.round(seconds / 60f));
+    }
+
+    /**
+     * Sum of two deltas of the same user; the result is not tied to a course
+     */
+    private static ProgressDelta combine(ProgressDelta a, ProgressDelta b) {
+        return ProgressDelta.builder()
+                .userId(a.getUserId())
+                .date(a.getDate().isAfter(b.getDate()) ? a.getDate() : b.getDate())
+                .xp(a.getXp() + b.getXp())
+                .studyMinutes(a.getStudyMinutes() + b.getStudyMinutes())
+                .lessonsCompleted(a.getLessonsCompleted() + b.getLessonsCompleted())
+                .exercisesCompleted(a.getExercisesCompleted() + b.getExercisesCompleted())
+                .build();
+    }
+
+    private record PendingKey(Long userId, LocalDate date, Long courseId) {}
+
+    /**
+     * Only mutated inside {@code pending.compute}, or after being removed from the map
+     */
+    private static final class Pending {
+        private int xp;
+        private int studyMinutes;
+        private int lessons;
+        private int exercises;
+        private int failedFlushes;
+
+        void add(int xp, int studyMinutes, int lessons, int exercises) {
+            this.xp += xp;
+            this.studyMinutes += studyMinutes;
+            this.lessons += lessons;
+            this.exercises += exercises;
+        }
+
+        Pending merge(Pending other) {
+            add(other.xp, other.studyMinutes, other.lessons, other.exercises);
+            failedFlushes = Math.max(failedFlushes, other.failedFlushes);
+            return this;
+        }
+
+        ProgressDelta toDelta(PendingKey key) {
+            return ProgressDelta.builder()
+                    .userId(key.userId())
+                    .date(key.date())
+                    .courseId(key.courseId())
+                    .xp(xp)
+                    .studyMinutes(studyMinutes)
+                    .lessonsCompleted(lessons)
+                    .exercisesCompleted(exercises)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.nemisolv.starter.service.progress;
+
+import com.nemisolv.starter.entity.ProgressDelta;
+
+import java.util.List;
+
+/**
+ * Notified after a batch of progress has been committed to the database
+ * Deltas are per (user, day, course); implementations must not throw into the flush.
+ */
+public interface ProgressListener {
+
+    void onProgressFlushed(List<ProgressDelta> deltas);
+}